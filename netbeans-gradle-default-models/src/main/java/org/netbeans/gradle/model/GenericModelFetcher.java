@@ -42,6 +42,7 @@ import org.netbeans.gradle.model.util.StringAsFileRef;
 public final class GenericModelFetcher {
     private static final Charset INIT_SCRIPT_ENCODING = Charset.forName("UTF-8");
     private static final String INIT_SCRIPT_LOCATION = "/org/netbeans/gradle/scripts/dynamic-model-init-script.gradle";
+    private static final String INPUT_FILE_PROPERTY = "org.netbeans.gradle.modelInputFile";
 
     private static final AtomicReference<String> INIT_SCRIPT_REF = new AtomicReference<String>(null);
 
@@ -111,20 +112,23 @@ public final class GenericModelFetcher {
         getJars(buildInfoRequests.values(), classPath);
         getJars(projectInfoRequests.values(), classPath);
 
+        // The content of the init script must only depend on values which
+        // rarely change, so that Gradle does not need to compile the script
+        // again for each model query.
         String initScript = getInitScript();
         initScript = initScript.replace("$MODEL_JAR_FILE_PATHS", toPastableFileList(classPath));
+        initScript = initScript.replace("$INPUT_FILE_PROPERTY", INPUT_FILE_PROPERTY);
 
         ModelQueryInput modelInput = new ModelQueryInput(getProjectInfoBuilders());
         File modelInputFile = serializeToFile(modelInput);
         try {
-            initScript = initScript.replace("$INPUT_FILE", toPastableString(modelInputFile));
-
             StringAsFileRef initScriptRef
                     = StringAsFileRef.createRef("dyn-model-gradle-init", initScript, INIT_SCRIPT_ENCODING);
             try {
-                String[] executerArgs = new String[userArgs.length + 2];
+                String[] executerArgs = new String[userArgs.length + 3];
                 System.arraycopy(userArgs, 0, executerArgs, 0, userArgs.length);
 
+                executerArgs[executerArgs.length - 3] = "-D" + INPUT_FILE_PROPERTY + "=" + modelInputFile.getAbsolutePath();
                 executerArgs[executerArgs.length - 2] = "--init-script";
                 executerArgs[executerArgs.length - 1] = initScriptRef.getFile().getPath();
 
@@ -9,26 +9,129 @@ import java.nio.charset.Charset;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
 
 // This class assumes that files in NB_GRADLE_TEMP_DIR are only used by this class.
 // An external agent is allowed to delete the files if it can.
+//
+// Files are not deleted when the reference is closed because the same content
+// is likely to be requested again (possibly by another process). Instead, the
+// last modified time of a file is updated each time a reference is created
+// for it and files not used for a long time are removed periodically. Since
+// the last modified time is stored in the file system, this is safe even if
+// multiple processes share NB_GRADLE_TEMP_DIR.
 public final class StringAsFileRef implements Closeable {
     private static final String HEX_TABLE = "0123456789abcdef";
 
     private static final File TEMP_DIR = new File(System.getProperty("java.io.tmpdir"));
     private static final File NB_GRADLE_TEMP_DIR = new File(new File(TEMP_DIR, "nb-gradle-plugin"), "str-files");
 
+    private static final long HOUR_MILLIS = 60L * 60L * 1000L;
+    private static final long CLEANUP_INTERVAL_MILLIS = HOUR_MILLIS;
+    private static final long MAX_UNUSED_FILE_AGE_MILLIS = 24L * HOUR_MILLIS;
+    private static final long MIN_UNUSED_FILE_AGE_MILLIS = HOUR_MILLIS;
+    private static final int MAX_FILE_COUNT = 256;
+
+    private static final AtomicLong NEXT_CLEANUP_TIME = new AtomicLong(Long.MIN_VALUE);
+
     private final File file;
     private final RandomAccessFile fileRef;
 
-    private static StringAsFileRef tryCreateRef(String fileName, byte[] contentBytes) throws IOException {
-        if (!NB_GRADLE_TEMP_DIR.mkdirs()) {
-            if (!NB_GRADLE_TEMP_DIR.isDirectory()) {
-                throw new IOException("The directory to store temporary files cannot be created " + NB_GRADLE_TEMP_DIR);
+    private static void touch(File file) {
+        // Failing to update the time is not a serious issue: The worst case
+        // is that the file gets deleted and we have to recreate it later.
+        file.setLastModified(System.currentTimeMillis());
+    }
+
+    private static void cleanupIfNecessary(File dir) {
+        long currentTime = System.currentTimeMillis();
+        long nextCleanupTime = NEXT_CLEANUP_TIME.get();
+        if (currentTime < nextCleanupTime) {
+            return;
+        }
+
+        if (!NEXT_CLEANUP_TIME.compareAndSet(nextCleanupTime, currentTime + CLEANUP_INTERVAL_MILLIS)) {
+            return;
+        }
+
+        cleanupUnusedFiles(dir, MAX_UNUSED_FILE_AGE_MILLIS, MIN_UNUSED_FILE_AGE_MILLIS, MAX_FILE_COUNT);
+    }
+
+    /**
+     * Removes the files of the given directory which were not used for
+     * {@code maxAgeMillis} milliseconds. If there are still more than
+     * {@code maxFileCount} files left, files unused for at least
+     * {@code minAgeMillis} milliseconds are also removed (least recently used
+     * first) until the limit is satisfied.
+     * <P>
+     * Failing to remove a file (e.g., because it is open on Windows) is not
+     * considered to be an error.
+     *
+     * @return the number of files removed
+     */
+    static int cleanupUnusedFiles(File dir, long maxAgeMillis, long minAgeMillis, int maxFileCount) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return 0;
+        }
+
+        long currentTime = System.currentTimeMillis();
+
+        final long[] lastModifiedTimes = new long[files.length];
+        Integer[] order = new Integer[files.length];
+        for (int i = 0; i < files.length; i++) {
+            lastModifiedTimes[i] = files[i].lastModified();
+            order[i] = i;
+        }
+
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer o1, Integer o2) {
+                long time1 = lastModifiedTimes[o1];
+                long time2 = lastModifiedTimes[o2];
+                if (time1 == time2) {
+                    return 0;
+                }
+                return time1 < time2 ? -1 : 1;
+            }
+        });
+
+        int removedCount = 0;
+        int remainingCount = files.length;
+        for (Integer index: order) {
+            long age = currentTime - lastModifiedTimes[index];
+
+            boolean remove = age > maxAgeMillis
+                    || (remainingCount > maxFileCount && age > minAgeMillis);
+            if (!remove) {
+                // The rest of the files were used more recently.
+                break;
+            }
+
+            File file = files[index];
+            // The file might have been reused since the files were listed
+            // (possibly by another process), in which case its last modified
+            // time was updated.
+            if (file.lastModified() != lastModifiedTimes[index]) {
+                continue;
+            }
+
+            if (file.isFile() && file.delete()) {
+                removedCount++;
+                remainingCount--;
+            }
+        }
+        return removedCount;
+    }
+
+    private static StringAsFileRef tryCreateRef(File dir, String fileName, byte[] contentBytes) throws IOException {
+        if (!dir.mkdirs()) {
+            if (!dir.isDirectory()) {
+                throw new IOException("The directory to store temporary files cannot be created " + dir);
             }
         }
 
-        File file = new File(NB_GRADLE_TEMP_DIR, fileName);
+        File file = new File(dir, fileName);
 
         if (file.createNewFile()) {
             RandomAccessFile fileRef = null;
@@ -66,6 +169,7 @@ public final class StringAsFileRef implements Closeable {
                 }
 
                 if (sameFile) {
+                    touch(file);
                     consumedRef = true;
                     return new StringAsFileRef(file, fileRef);
                 }
@@ -80,20 +184,27 @@ public final class StringAsFileRef implements Closeable {
     }
 
     public static StringAsFileRef createRef(String name, String content, Charset encoding) throws IOException {
+        return createRef(NB_GRADLE_TEMP_DIR, name, content, encoding);
+    }
+
+    static StringAsFileRef createRef(File dir, String name, String content, Charset encoding) throws IOException {
+        if (dir == null) throw new NullPointerException("dir");
         if (name == null) throw new NullPointerException("name");
         if (content == null) throw new NullPointerException("content");
         if (encoding == null) throw new NullPointerException("encoding");
 
+        cleanupIfNecessary(dir);
+
         byte[] contentBytes = content.getBytes(encoding.name());
         String md5 = getMD5(contentBytes);
 
         String fileName = name + "-" + md5;
-        StringAsFileRef result = tryCreateRef(fileName, contentBytes);
+        StringAsFileRef result = tryCreateRef(dir, fileName, contentBytes);
 
         int index = 0;
         while (result == null) {
             fileName = name + "-" + md5 + "-" + index;
-            result = tryCreateRef(fileName, contentBytes);
+            result = tryCreateRef(dir, fileName, contentBytes);
             // We have tried 2^32 options (this is highly unlikely though)
             if (index == -1) {
                 break;
@@ -143,9 +254,8 @@ public final class StringAsFileRef implements Closeable {
     }
 
     public void close() throws IOException {
+        // The file is intentionally kept, so that it can be reused. Unused
+        // files are removed by cleanupIfNecessary().
         fileRef.close();
-
-        // TODO: Technically, this is a memory leak.
-        file.deleteOnExit();
     }
 }
@@ -18,6 +18,8 @@ import static org.junit.Assert.*;
 public class StringAsFileRefTest {
     private static final Charset UTF8 = Charset.forName("UTF-8");
 
+    private File tempDir;
+
     @BeforeClass
     public static void setUpClass() {
     }
@@ -27,11 +29,27 @@ public class StringAsFileRefTest {
     }
 
     @Before
-    public void setUp() {
+    public void setUp() throws IOException {
+        // The tests must not touch the files of the IDE in the shared
+        // directory.
+        tempDir = File.createTempFile("str-files-test", "");
+        assertTrue(tempDir.delete());
+        assertTrue(tempDir.mkdir());
     }
 
     @After
     public void tearDown() {
+        File[] files = tempDir.listFiles();
+        if (files != null) {
+            for (File file: files) {
+                file.delete();
+            }
+        }
+        tempDir.delete();
+    }
+
+    private StringAsFileRef createRef(String name, String content) throws IOException {
+        return StringAsFileRef.createRef(tempDir, name, content, UTF8);
     }
 
     private static byte[] readAll(InputStream input) throws IOException {
@@ -63,7 +81,7 @@ public class StringAsFileRefTest {
     }
 
     private void testFileContainsText(String name, String content) throws Exception {
-        StringAsFileRef fileRef = StringAsFileRef.createRef(name, content, UTF8);
+        StringAsFileRef fileRef = createRef(name, content);
         try {
             assertContent(fileRef, content, UTF8);
         } finally {
@@ -86,9 +104,9 @@ public class StringAsFileRefTest {
         String content = "EXPECTED FILE content: testMultipleRefs";
 
         String name = "testMultipleRefs";
-        StringAsFileRef fileRef1 = StringAsFileRef.createRef(name, content, UTF8);
+        StringAsFileRef fileRef1 = createRef(name, content);
         try {
-            StringAsFileRef fileRef2 = StringAsFileRef.createRef(name, content, UTF8);
+            StringAsFileRef fileRef2 = createRef(name, content);
             try {
                 assertEquals(fileRef1.getFile(), fileRef2.getFile());
 
@@ -104,7 +122,7 @@ public class StringAsFileRefTest {
     private void testModifiedContent(String name, byte[] modContent) throws Exception {
         String content = "EXPECTED FILE content: testModifiedContent";
 
-        StringAsFileRef fileRef1 = StringAsFileRef.createRef(name, content, UTF8);
+        StringAsFileRef fileRef1 = createRef(name, content);
         fileRef1.close();
 
         RandomAccessFile fileContent = new RandomAccessFile(fileRef1.getFile(), "rw");
@@ -115,7 +133,7 @@ public class StringAsFileRefTest {
             fileContent.close();
         }
 
-        StringAsFileRef fileRef2 = StringAsFileRef.createRef(name, content, UTF8);
+        StringAsFileRef fileRef2 = createRef(name, content);
         try {
             assertContent(fileRef2, content, UTF8);
         } finally {
@@ -132,4 +150,47 @@ public class StringAsFileRefTest {
     public void testModifiedContentWithNonEmpty() throws Exception {
         testModifiedContent("testModifiedContentWithNonEmpty", new byte[]{1, 2, 3});
     }
+
+    @Test
+    public void testCloseKeepsFile() throws Exception {
+        String content = "EXPECTED FILE content: testCloseKeepsFile";
+
+        StringAsFileRef fileRef = createRef("testCloseKeepsFile", content);
+        fileRef.close();
+
+        assertTrue(fileRef.getFile().isFile());
+    }
+
+    @Test
+    public void testCleanupRemovesOnlyUnusedFiles() throws Exception {
+        long hourMillis = 60L * 60L * 1000L;
+
+        StringAsFileRef oldRef = createRef("testCleanupOld", "OLD content");
+        oldRef.close();
+        assertTrue(oldRef.getFile().setLastModified(System.currentTimeMillis() - 10 * hourMillis));
+
+        StringAsFileRef newRef = createRef("testCleanupNew", "NEW content");
+        newRef.close();
+
+        StringAsFileRef.cleanupUnusedFiles(tempDir, 5 * hourMillis, 5 * hourMillis, Integer.MAX_VALUE);
+
+        assertFalse(oldRef.getFile().exists());
+        assertTrue(newRef.getFile().exists());
+    }
+
+    @Test
+    public void testReuseUpdatesLastModifiedTime() throws Exception {
+        long hourMillis = 60L * 60L * 1000L;
+        String content = "EXPECTED FILE content: testReuseUpdatesLastModifiedTime";
+
+        StringAsFileRef fileRef1 = createRef("testReuseUpdatesLastModifiedTime", content);
+        fileRef1.close();
+        assertTrue(fileRef1.getFile().setLastModified(System.currentTimeMillis() - 10 * hourMillis));
+
+        StringAsFileRef fileRef2 = createRef("testReuseUpdatesLastModifiedTime", content);
+        fileRef2.close();
+
+        assertEquals(fileRef1.getFile(), fileRef2.getFile());
+        assertTrue(System.currentTimeMillis() - fileRef2.getFile().lastModified() < hourMillis);
+    }
 }
@@ -35,8 +35,11 @@ import org.netbeans.gradle.project.api.task.TaskVariable;
 import org.netbeans.gradle.project.api.task.TaskVariableMap;
 import org.netbeans.gradle.project.model.GradleModelLoader;
 import org.netbeans.gradle.project.model.ModelLoadListener;
+import org.netbeans.gradle.project.model.ModelLoadSettings;
 import org.netbeans.gradle.project.model.ModelRetrievedListener;
 import org.netbeans.gradle.project.model.NbGradleModel;
+import org.netbeans.gradle.project.persistent.DelayedSaveTask;
+import org.netbeans.gradle.project.properties.GlobalGradleSettings;
 import org.netbeans.gradle.project.properties.GradleAuxiliaryConfiguration;
 import org.netbeans.gradle.project.properties.GradleAuxiliaryProperties;
 import org.netbeans.gradle.project.properties.GradleCustomizer;
@@ -55,6 +58,7 @@ import org.netbeans.gradle.project.query.GradleSourceEncodingQuery;
 import org.netbeans.gradle.project.query.GradleTemplateAttrProvider;
 import org.netbeans.gradle.project.tasks.DefaultGradleCommandExecutor;
 import org.netbeans.gradle.project.tasks.GradleDaemonManager;
+import org.netbeans.gradle.project.tasks.GradleDaemonWarmer;
 import org.netbeans.gradle.project.tasks.MergedBuiltInGradleCommandQuery;
 import org.netbeans.gradle.project.tasks.StandardTaskVariable;
 import org.netbeans.gradle.project.view.GradleActionProvider;
@@ -97,6 +101,7 @@ public final class NbGradleProject implements Project {
     private final ProjectInfoManager projectInfoManager;
 
     private final AtomicReference<ProjectInfoRef> loadErrorRef;
+    private final AtomicReference<ModelLoadSettings> speculativeLoadSettings;
 
     private final WaitableSignal loadedAtLeastOnceSignal;
 
@@ -122,6 +127,7 @@ public final class NbGradleProject implements Project {
 
         this.hasModelBeenLoaded = new AtomicBoolean(false);
         this.loadErrorRef = new AtomicReference<ProjectInfoRef>(null);
+        this.speculativeLoadSettings = new AtomicReference<ModelLoadSettings>(null);
         this.modelChanges = new ChangeSupport(this);
         this.currentModelRef = new AtomicReference<NbGradleModelRef>(
                 new NbGradleModelRef(GradleModelLoader.createEmptyModel(projectDirAsFile)));
@@ -408,14 +414,88 @@ public final class NbGradleProject implements Project {
             return;
         }
 
-        getPropertiesForProfile(getCurrentProfile().getProfileDef(), true, new PropertiesLoadListener() {
+        final long loadStartTime = System.nanoTime();
+
+        if (!GlobalGradleSettings.getSpeculativeModelLoad().getValue()) {
+            getPropertiesForProfile(getCurrentProfile().getProfileDef(), true, new PropertiesLoadListener() {
+                @Override
+                public void loadedProperties(ProjectProperties properties) {
+                    GradleModelLoader.fetchModel(NbGradleProject.this, mayUseCache,
+                            new ModelRetrievedListenerImpl(loadStartTime, false));
+                }
+            });
+            return;
+        }
+
+        // The model is usually retrieved from the cache or its loading needs
+        // the properties only after connecting to the daemon, so there is no
+        // need to wait for the properties to be loaded.
+        // See getModelLoadSettings().
+        GradleModelLoader.fetchModel(this, mayUseCache, new ModelRetrievedListenerImpl(loadStartTime, true));
+
+        // The speculation must be verified after the same signal which is
+        // checked by getModelLoadSettings(), otherwise the verification might
+        // run before the model loader has published the used settings.
+        properties.runWhenLoaded(new Runnable() {
             @Override
-            public void loadedProperties(ProjectProperties properties) {
-                GradleModelLoader.fetchModel(NbGradleProject.this, mayUseCache, new ModelRetrievedListenerImpl());
+            public void run() {
+                checkSpeculativeLoad(properties);
             }
         });
     }
 
+    /**
+     * Returns the project properties affecting how the models of this project
+     * are loaded.
+     * <P>
+     * If speculative model loading is enabled and the properties of this
+     * project are not yet loaded, this method does not wait for them but
+     * returns the settings used when the properties do not override the
+     * global settings. In this case, the project is reloaded if the loaded
+     * properties turn out to require different settings.
+     */
+    public ModelLoadSettings getModelLoadSettings() {
+        if (!GlobalGradleSettings.getSpeculativeModelLoad().getValue()) {
+            ProjectProperties loadedProperties = tryGetLoadedProperties();
+            return loadedProperties != null
+                    ? ModelLoadSettings.fromProperties(loadedProperties)
+                    : ModelLoadSettings.getDefault();
+        }
+
+        if (properties.isLoaded()) {
+            return ModelLoadSettings.fromProperties(properties);
+        }
+
+        // The settings must be published before checking again if the
+        // properties have been loaded. Otherwise the properties might get
+        // loaded between the check and publishing the settings, and the
+        // speculation would never be verified.
+        ModelLoadSettings defaultSettings = ModelLoadSettings.getDefault();
+        speculativeLoadSettings.set(defaultSettings);
+
+        if (properties.isLoaded() && speculativeLoadSettings.compareAndSet(defaultSettings, null)) {
+            return ModelLoadSettings.fromProperties(properties);
+        }
+
+        LOGGER.log(Level.FINE, "Loading the model of {0} before its properties were loaded: {1}",
+                new Object[]{name, defaultSettings});
+        return defaultSettings;
+    }
+
+    private void checkSpeculativeLoad(ProjectProperties loadedProperties) {
+        ModelLoadSettings usedSettings = speculativeLoadSettings.getAndSet(null);
+        if (usedSettings == null) {
+            return;
+        }
+
+        ModelLoadSettings requiredSettings = ModelLoadSettings.fromProperties(loadedProperties);
+        if (!usedSettings.equals(requiredSettings)) {
+            LOGGER.log(Level.INFO, "Reloading {0} because its properties require different settings: {1}",
+                    new Object[]{name, requiredSettings});
+            loadProject(false, false);
+        }
+    }
+
     public ProjectProperties getProperties() {
         return properties;
     }
@@ -609,6 +689,7 @@ public final class NbGradleProject implements Project {
         protected void projectOpened() {
             GradleModelLoader.addModelLoadedListener(modelLoadListener);
             reloadProject(true);
+            GradleDaemonWarmer.warmUpIfEnabled(NbGradleProject.this);
 
             if (licenseChangeListener != null) {
                 LOGGER.warning("projectOpened() without close.");
@@ -652,10 +733,28 @@ public final class NbGradleProject implements Project {
             }
 
             GradleModelLoader.removeModelLoadedListener(modelLoadListener);
+
+            // Changes of the properties are saved with a delay, so they have
+            // to be saved now not to lose them if the IDE exits soon.
+            DelayedSaveTask.flushAll(0);
         }
     }
 
     private class ModelRetrievedListenerImpl implements ModelRetrievedListener {
+        // The time when the model load was requested or -1 if it should not
+        // be logged how long it took to load the model.
+        private final long loadStartTime;
+        private final boolean speculative;
+
+        public ModelRetrievedListenerImpl() {
+            this(-1, false);
+        }
+
+        public ModelRetrievedListenerImpl(long loadStartTime, boolean speculative) {
+            this.loadStartTime = loadStartTime;
+            this.speculative = speculative;
+        }
+
         private void fireModelChangeEvent() {
             SwingUtilities.invokeLater(new Runnable() {
                 @Override
@@ -753,6 +852,12 @@ public final class NbGradleProject implements Project {
 
         @Override
         public void onComplete(NbGradleModel model, Throwable error) {
+            if (loadStartTime >= 0) {
+                long loadTimeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loadStartTime);
+                LOGGER.log(Level.FINE, "Model of {0} was retrieved in {1} ms (speculative loading: {2}).",
+                        new Object[]{name, loadTimeMs, speculative});
+            }
+
             try {
                 applyModelLoadResults(model, error);
             } finally {
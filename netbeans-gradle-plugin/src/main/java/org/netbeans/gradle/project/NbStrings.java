@@ -39,6 +39,10 @@ public final class NbStrings {
         return NbBundle.getMessage(NbStrings.class, "NbStrings.LoadingProject", projectName);
     }
 
+    public static String getWarmingUpDaemonText(String projectName) {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.WarmingUpDaemon", projectName);
+    }
+
     public static String getExecuteTasksText(String taskName) {
         return NbBundle.getMessage(NbStrings.class, "NbStrings.ExecutingGradleTasks", taskName);
     }
@@ -372,6 +376,54 @@ public final class NbStrings {
         return NbBundle.getMessage(NbStrings.class, "NbStrings.ReRunDiffDescription");
     }
 
+    public static String getShowBuildProfileName() {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.ShowBuildProfileName");
+    }
+
+    public static String getShowBuildProfileDescription() {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.ShowBuildProfileDescription");
+    }
+
+    public static String getBuildProfileDlgTitle() {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.BuildProfileDlgTitle");
+    }
+
+    public static String getBuildProfileSummary(long buildTimeMillis) {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.BuildProfileSummary", buildTimeMillis);
+    }
+
+    public static String getBuildProfileExportCaption() {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.BuildProfileExportCaption");
+    }
+
+    public static String getBuildProfileExportFailure(String path) {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.BuildProfileExportFailure", path);
+    }
+
+    public static String getBuildProfileNameColumn() {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.BuildProfileNameColumn");
+    }
+
+    public static String getBuildProfileKindColumn() {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.BuildProfileKindColumn");
+    }
+
+    public static String getBuildProfileOutcomeColumn() {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.BuildProfileOutcomeColumn");
+    }
+
+    public static String getBuildProfileDurationColumn() {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.BuildProfileDurationColumn");
+    }
+
+    public static String getOutputFolded(int lineLimit, String logPath) {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.OutputFolded", lineLimit, logPath);
+    }
+
+    public static String getOutputLinesOmitted(long lineCount) {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.OutputLinesOmitted", lineCount);
+    }
+
     public static String getModelLoadStrategy(ModelLoadingStrategy strategy) {
         return NbBundle.getMessage(NbStrings.class, "NbStrings.ModelLoadStrategy." + strategy.name());
     }
@@ -50,6 +50,7 @@ import org.netbeans.gradle.project.properties.ProjectProperties;
 import org.netbeans.gradle.project.tasks.DaemonTask;
 import org.netbeans.gradle.project.tasks.GradleDaemonFailures;
 import org.netbeans.gradle.project.tasks.GradleDaemonManager;
+import org.netbeans.gradle.project.tasks.GradleDaemonWarmer;
 import org.netbeans.gradle.project.tasks.GradleTasks;
 import org.netbeans.gradle.project.view.GlobalErrorReporter;
 import org.openide.filesystems.FileObject;
@@ -85,18 +86,11 @@ public final class GradleModelLoader {
     }
 
     public static GradleConnector createGradleConnector(final Project project) {
-        final GradleConnector result = GradleConnector.newConnector();
-
         NbGradleProject gradleProject = project.getLookup().lookup(NbGradleProject.class);
         if (gradleProject == null) {
             throw new IllegalArgumentException("Not a Gradle project: " + project.getProjectDirectory());
         }
 
-        File gradleUserHome = GlobalGradleSettings.getGradleUserHomeDir().getValue();
-        if (gradleUserHome != null) {
-            result.useGradleUserHomeDir(gradleUserHome);
-        }
-
         GradleLocation gradleLocation;
         ProjectProperties projectProperties = gradleProject.tryGetLoadedProperties();
         if (projectProperties == null) {
@@ -107,6 +101,17 @@ public final class GradleModelLoader {
             gradleLocation = projectProperties.getGradleLocation().getValue();
         }
 
+        return createGradleConnector(gradleLocation);
+    }
+
+    private static GradleConnector createGradleConnector(GradleLocation gradleLocation) {
+        final GradleConnector result = GradleConnector.newConnector();
+
+        File gradleUserHome = GlobalGradleSettings.getGradleUserHomeDir().getValue();
+        if (gradleUserHome != null) {
+            result.useGradleUserHomeDir(gradleUserHome);
+        }
+
         gradleLocation.applyLocation(new GradleLocation.Applier() {
             @Override
             public void applyVersion(String versionStr) {
@@ -188,7 +193,7 @@ public final class GradleModelLoader {
                     }
                 }
             }
-        }, true, GradleTasks.projectTaskCompleteListener(project));
+        }, true, GradleDaemonManager.getBuildKey(projectDir), GradleTasks.projectTaskCompleteListener(project));
     }
 
     public static File getScriptJavaHome(Project project) {
@@ -199,6 +204,10 @@ public final class GradleModelLoader {
         JavaPlatform platform = gradleProject != null
                 ? gradleProject.getProperties().getScriptPlatform().getValue()
                 : null;
+        return getJavaHome(platform);
+    }
+
+    public static File getJavaHome(JavaPlatform platform) {
         FileObject jdkHomeObj = platform != null
                 ? GlobalGradleSettings.getHomeFolder(platform)
                 : null;
@@ -331,7 +340,12 @@ public final class GradleModelLoader {
 
         LOGGER.log(Level.INFO, "Loading Gradle project from directory: {0}", projectDir);
 
-        GradleConnector gradleConnector = createGradleConnector(project);
+        // The properties of the project might not be loaded yet, in which
+        // case the project decides if the model is loaded with the default
+        // settings (and reloaded if they turn out to be different).
+        ModelLoadSettings settings = project.getModelLoadSettings();
+
+        GradleConnector gradleConnector = createGradleConnector(settings.getGradleLocation());
         gradleConnector.forProjectDirectory(projectDir);
         ProjectConnection projectConnection = null;
 
@@ -339,7 +353,7 @@ public final class GradleModelLoader {
         try {
             projectConnection = gradleConnector.connect();
 
-            OperationInitializer setup = modelBuilderSetup(project, progress);
+            OperationInitializer setup = new ModelBuilderSetup(getJavaHome(settings.getScriptPlatform()), progress);
 
             ModelBuilder<BuildEnvironment> modelBuilder = projectConnection.model(BuildEnvironment.class);
             setupLongRunningOP(setup, modelBuilder);
@@ -349,6 +363,7 @@ public final class GradleModelLoader {
             NbModelLoader modelLoader = chooseModel(env, proposedModel, setup);
 
             loadedModels = modelLoader.loadModels(project, projectConnection, progress);
+            GradleDaemonWarmer.daemonUsed(settings);
         } finally {
             if (projectConnection != null) {
                 projectConnection.close();
@@ -496,9 +511,13 @@ public final class GradleModelLoader {
         private final List<String> globalJvmArgs;
 
         public ModelBuilderSetup(Project project, ProgressHandle progress) {
+            this(GradleModelLoader.getScriptJavaHome(project), progress);
+        }
+
+        public ModelBuilderSetup(File jdkHome, ProgressHandle progress) {
             this.progress = progress;
 
-            this.jdkHome = GradleModelLoader.getScriptJavaHome(project);
+            this.jdkHome = jdkHome;
 
             List<String> currentJvmArgs = GlobalGradleSettings.getGradleJvmArgs().getValue();
             this.globalJvmArgs = currentJvmArgs != null
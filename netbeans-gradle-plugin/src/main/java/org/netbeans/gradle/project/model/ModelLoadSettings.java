@@ -0,0 +1,84 @@
+package org.netbeans.gradle.project.model;
+
+import org.netbeans.api.java.platform.JavaPlatform;
+import org.netbeans.gradle.project.properties.AbstractProjectProperties;
+import org.netbeans.gradle.project.properties.GlobalGradleSettings;
+import org.netbeans.gradle.project.properties.GradleLocation;
+import org.netbeans.gradle.project.properties.GradleLocationDefault;
+import org.netbeans.gradle.project.properties.ProjectProperties;
+
+/**
+ * Defines the project properties affecting the loading of the models of a
+ * project. Two instances are equal if loading a project with them would use
+ * the same Gradle distribution and the same JDK.
+ * <P>
+ * Instances of this class are immutable.
+ */
+public final class ModelLoadSettings {
+    private final GradleLocation gradleLocation;
+    private final JavaPlatform scriptPlatform;
+
+    public ModelLoadSettings(GradleLocation gradleLocation, JavaPlatform scriptPlatform) {
+        this.gradleLocation = gradleLocation != null ? gradleLocation : GradleLocationDefault.INSTANCE;
+        this.scriptPlatform = scriptPlatform;
+    }
+
+    /**
+     * Returns the settings used by projects which do not override the global
+     * settings.
+     */
+    public static ModelLoadSettings getDefault() {
+        return new ModelLoadSettings(
+                GlobalGradleSettings.getGradleHome().getValue(),
+                GlobalGradleSettings.getGradleJdk().getValue());
+    }
+
+    public static ModelLoadSettings fromProperties(ProjectProperties properties) {
+        if (properties == null) throw new NullPointerException("properties");
+
+        return new ModelLoadSettings(
+                properties.getGradleLocation().getValue(),
+                properties.getScriptPlatform().getValue());
+    }
+
+    public GradleLocation getGradleLocation() {
+        return gradleLocation;
+    }
+
+    public JavaPlatform getScriptPlatform() {
+        return scriptPlatform;
+    }
+
+    private String getGradleLocationStr() {
+        // GradleLocation implementations do not override equals.
+        return AbstractProjectProperties.gradleLocationToString(gradleLocation);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 59 * hash + getGradleLocationStr().hashCode();
+        hash = 59 * hash + (scriptPlatform != null ? scriptPlatform.hashCode() : 0);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null) return false;
+        if (obj == this) return true;
+        if (getClass() != obj.getClass()) return false;
+
+        final ModelLoadSettings other = (ModelLoadSettings)obj;
+        if (!getGradleLocationStr().equals(other.getGradleLocationStr())) {
+            return false;
+        }
+        return this.scriptPlatform == other.scriptPlatform
+                || (this.scriptPlatform != null && this.scriptPlatform.equals(other.scriptPlatform));
+    }
+
+    @Override
+    public String toString() {
+        String platformName = scriptPlatform != null ? scriptPlatform.getDisplayName() : "default";
+        return "ModelLoadSettings{" + "gradleLocation=" + getGradleLocationStr() + ", scriptPlatform=" + platformName + '}';
+    }
+}
@@ -0,0 +1,372 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.openide.util.RequestProcessor;
+
+/**
+ * Forwards bytes written to its {@link #getStream(int) streams} to the
+ * corresponding target streams on a background thread. This allows the
+ * writer (the Gradle Tooling API) to continue while the targets are busy
+ * (decoding, finding hyperlinks and printing to the output window).
+ * <P>
+ * Bytes written to the streams are stored in a bounded circular buffer
+ * shared by all the streams, so the relative order of writes to different
+ * streams is retained. When the buffer is full, writers wait until the
+ * background thread makes room in the buffer.
+ * <P>
+ * The methods of this class are safe to be called from multiple threads
+ * concurrently.
+ */
+public final class AsyncOutputForwarder implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(AsyncOutputForwarder.class.getName());
+
+    private static final RequestProcessor OUTPUT_PROCESSOR
+            = new RequestProcessor("Gradle-Output-Processor", 16);
+
+    public static final int DEFAULT_CAPACITY = 256 * 1024;
+
+    // 1 byte: index of the target, 4 bytes: length of the data
+    private static final int HEADER_SIZE = 5;
+    private static final int MIN_CAPACITY = 2 * HEADER_SIZE;
+
+    private final OutputStream[] targets;
+    private final OutputStream[] streams;
+    private final Executor executor;
+    private final Runnable drainTask;
+
+    private final Lock mainLock;
+    private final Condition spaceAvailableSignal;
+    private final Condition drainedSignal;
+    private final byte[] buffer;
+    private final byte[] header;
+    private int readPos;
+    private int size;
+    private boolean draining;
+    private boolean closed;
+    private volatile IOException failure;
+
+    public AsyncOutputForwarder(OutputStream... targets) {
+        this(DEFAULT_CAPACITY, OUTPUT_PROCESSOR, targets);
+    }
+
+    public AsyncOutputForwarder(int capacity, Executor executor, OutputStream... targets) {
+        if (executor == null) throw new NullPointerException("executor");
+        if (capacity < MIN_CAPACITY) {
+            throw new IllegalArgumentException("Capacity is too small: " + capacity);
+        }
+        if (targets.length > 256) {
+            throw new IllegalArgumentException("Too many targets: " + targets.length);
+        }
+
+        this.targets = targets.clone();
+        this.streams = new OutputStream[this.targets.length];
+        for (int i = 0; i < this.targets.length; i++) {
+            if (this.targets[i] == null) throw new NullPointerException("targets[" + i + "]");
+            this.streams[i] = new ForwardingStream(i);
+        }
+
+        this.executor = executor;
+        this.drainTask = new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        };
+
+        this.mainLock = new ReentrantLock();
+        this.spaceAvailableSignal = mainLock.newCondition();
+        this.drainedSignal = mainLock.newCondition();
+        this.buffer = new byte[capacity];
+        this.header = new byte[HEADER_SIZE];
+        this.readPos = 0;
+        this.size = 0;
+        this.draining = false;
+        this.closed = false;
+        this.failure = null;
+    }
+
+    /**
+     * Returns the stream forwarding the written bytes to the target with the
+     * given index (as specified in the constructor). Closing the returned
+     * stream has no effect, the targets are closed by the {@link #close()}
+     * method.
+     */
+    public OutputStream getStream(int index) {
+        return streams[index];
+    }
+
+    private void putBytes(byte[] src, int offset, int length) {
+        assert size + length <= buffer.length;
+
+        int writePos = (readPos + size) % buffer.length;
+        int firstPartLength = Math.min(length, buffer.length - writePos);
+        System.arraycopy(src, offset, buffer, writePos, firstPartLength);
+        System.arraycopy(src, offset + firstPartLength, buffer, 0, length - firstPartLength);
+        size += length;
+    }
+
+    private void takeBytes(byte[] dest, int offset, int length) {
+        assert length <= size;
+
+        int firstPartLength = Math.min(length, buffer.length - readPos);
+        System.arraycopy(buffer, readPos, dest, offset, firstPartLength);
+        System.arraycopy(buffer, 0, dest, offset + firstPartLength, length - firstPartLength);
+        readPos = (readPos + length) % buffer.length;
+        size -= length;
+    }
+
+    private void throwIfFailed() throws IOException {
+        if (failure != null) {
+            throw new IOException("Failed to forward the output.", failure);
+        }
+    }
+
+    private void write(int targetIndex, byte[] src, int offset, int length) throws IOException {
+        int currentOffset = offset;
+        int remaining = length;
+
+        while (remaining > 0) {
+            boolean startDrain;
+
+            mainLock.lock();
+            try {
+                if (closed) {
+                    throw new IOException("The output has been closed.");
+                }
+
+                while (buffer.length - size < MIN_CAPACITY) {
+                    spaceAvailableSignal.awaitUninterruptibly();
+                }
+                throwIfFailed();
+
+                int chunkLength = Math.min(remaining, buffer.length - size - HEADER_SIZE);
+
+                header[0] = (byte)targetIndex;
+                header[1] = (byte)(chunkLength >>> 24);
+                header[2] = (byte)(chunkLength >>> 16);
+                header[3] = (byte)(chunkLength >>> 8);
+                header[4] = (byte)chunkLength;
+                putBytes(header, 0, HEADER_SIZE);
+                putBytes(src, currentOffset, chunkLength);
+
+                currentOffset += chunkLength;
+                remaining -= chunkLength;
+
+                startDrain = !draining;
+                draining = true;
+            } finally {
+                mainLock.unlock();
+            }
+
+            if (startDrain) {
+                executor.execute(drainTask);
+            }
+        }
+    }
+
+    private void drain() {
+        boolean drained = false;
+        try {
+            drainRecords();
+            drained = true;
+        } finally {
+            if (!drained) {
+                abortDrain();
+            }
+        }
+    }
+
+    private void drainRecords() {
+        byte[] recordHeader = new byte[HEADER_SIZE];
+        byte[] data = new byte[Math.min(buffer.length, 8 * 1024)];
+
+        while (true) {
+            int targetIndex;
+            int length;
+
+            mainLock.lock();
+            try {
+                if (size == 0) {
+                    draining = false;
+                    drainedSignal.signalAll();
+                    return;
+                }
+
+                takeBytes(recordHeader, 0, HEADER_SIZE);
+                targetIndex = recordHeader[0] & 0xFF;
+                length = ((recordHeader[1] & 0xFF) << 24)
+                        | ((recordHeader[2] & 0xFF) << 16)
+                        | ((recordHeader[3] & 0xFF) << 8)
+                        | (recordHeader[4] & 0xFF);
+
+                if (data.length < length) {
+                    data = new byte[length];
+                }
+                takeBytes(data, 0, length);
+
+                spaceAvailableSignal.signalAll();
+            } finally {
+                mainLock.unlock();
+            }
+
+            forward(targetIndex, data, length);
+        }
+    }
+
+    private void abortDrain() {
+        // The drain task terminated unexpectedly, so nobody would ever read
+        // the buffer again: Discard the output and fail the writers rather
+        // than letting them (and flush and close) wait forever.
+        mainLock.lock();
+        try {
+            if (failure == null) {
+                failure = new IOException("The output forwarder terminated unexpectedly.");
+            }
+            readPos = 0;
+            size = 0;
+            draining = false;
+            spaceAvailableSignal.signalAll();
+            drainedSignal.signalAll();
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private void forward(int targetIndex, byte[] data, int length) {
+        if (failure != null) {
+            // Discard the output, so that writers don't get blocked.
+            return;
+        }
+
+        Throwable error;
+        try {
+            targets[targetIndex].write(data, 0, length);
+            return;
+        } catch (Throwable ex) {
+            // Errors are caught as well because rethrowing them would only
+            // kill the drain task and leave the writers blocked.
+            error = ex;
+        }
+
+        LOGGER.log(Level.INFO, "Failed to forward the output.", error);
+
+        mainLock.lock();
+        try {
+            failure = error instanceof IOException
+                    ? (IOException)error
+                    : new IOException(error);
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private void waitUntilDrained() {
+        mainLock.lock();
+        try {
+            while (draining) {
+                drainedSignal.awaitUninterruptibly();
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every byte written so far has been forwarded to the
+     * targets, then flushes the targets.
+     */
+    public void flush() throws IOException {
+        waitUntilDrained();
+
+        mainLock.lock();
+        try {
+            throwIfFailed();
+        } finally {
+            mainLock.unlock();
+        }
+
+        for (OutputStream target: targets) {
+            target.flush();
+        }
+    }
+
+    /**
+     * Waits until every byte written so far has been forwarded to the
+     * targets, then closes the targets. Subsequent writes will fail.
+     */
+    @Override
+    public void close() throws IOException {
+        mainLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            mainLock.unlock();
+        }
+
+        waitUntilDrained();
+
+        IOException closeFailure = null;
+        for (OutputStream target: targets) {
+            try {
+                target.close();
+            } catch (IOException ex) {
+                if (closeFailure == null) {
+                    closeFailure = ex;
+                }
+            }
+        }
+
+        mainLock.lock();
+        try {
+            throwIfFailed();
+        } finally {
+            mainLock.unlock();
+        }
+
+        if (closeFailure != null) {
+            throw closeFailure;
+        }
+    }
+
+    private final class ForwardingStream extends OutputStream {
+        private final int targetIndex;
+
+        public ForwardingStream(int targetIndex) {
+            this.targetIndex = targetIndex;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte)b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            AsyncOutputForwarder.this.write(targetIndex, b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Flushing the targets would require waiting for the background
+            // thread which would defeat the purpose of this class.
+        }
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.openide.modules.Places;
+
+/**
+ * Stores the complete output of a build in a file, so that the output window
+ * only needs to display a part of the output of very long builds.
+ * <P>
+ * The output window starts folding the output (see
+ * {@link SmartOutputHandler}) after the number of lines written to the log
+ * exceeds the limit specified at construction time.
+ * <P>
+ * The methods of this class are safe to be called from multiple threads
+ * concurrently.
+ */
+public final class BuildOutputLog implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(BuildOutputLog.class.getName());
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final String LOG_DIR_NAME = "gradle-build-logs";
+    private static final String LOG_FILE_PREFIX = "build-";
+    private static final String LOG_FILE_SUFFIX = ".log";
+    private static final int MAX_KEPT_LOG_COUNT = 16;
+
+    private static final AtomicLong LOG_INDEX = new AtomicLong(0);
+
+    private final File file;
+    private final int lineLimit;
+    private final Writer writer;
+    private long lineCount;
+    private boolean failed;
+    private boolean foldingStarted;
+
+    BuildOutputLog(File file, int lineLimit) throws IOException {
+        this.file = file;
+        this.lineLimit = lineLimit;
+        this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), UTF8));
+        this.lineCount = 0;
+        this.failed = false;
+        this.foldingStarted = false;
+    }
+
+    /**
+     * Creates a new log file in the cache directory of the IDE. Old log files
+     * are removed, so that only the most recent logs are kept.
+     *
+     * @param lineLimit the number of lines after which the output window
+     *   should fold the output. This argument must be greater than zero.
+     * @return the new log or {@code null} if the log file could not be
+     *   created
+     */
+    public static BuildOutputLog tryCreate(int lineLimit) {
+        if (lineLimit <= 0) {
+            throw new IllegalArgumentException("lineLimit must be greater than zero: " + lineLimit);
+        }
+
+        try {
+            File logDir = Places.getCacheSubdirectory(LOG_DIR_NAME);
+            removeOldLogs(logDir);
+
+            String fileName = LOG_FILE_PREFIX
+                    + System.currentTimeMillis() + "-" + LOG_INDEX.getAndIncrement()
+                    + LOG_FILE_SUFFIX;
+            return new BuildOutputLog(new File(logDir, fileName), lineLimit);
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to create log file for the build output.", ex);
+            return null;
+        }
+    }
+
+    private static boolean isBuildLog(File file) {
+        String name = file.getName();
+        return name.startsWith(LOG_FILE_PREFIX) && name.endsWith(LOG_FILE_SUFFIX);
+    }
+
+    private static void removeOldLogs(File logDir) {
+        File[] logs = logDir.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return isBuildLog(file);
+            }
+        });
+        if (logs == null || logs.length < MAX_KEPT_LOG_COUNT) {
+            return;
+        }
+
+        Arrays.sort(logs, new Comparator<File>() {
+            @Override
+            public int compare(File o1, File o2) {
+                long modified1 = o1.lastModified();
+                long modified2 = o2.lastModified();
+                if (modified1 == modified2) return 0;
+                return modified1 > modified2 ? -1 : 1;
+            }
+        });
+
+        // Keep room for the new log.
+        for (int i = MAX_KEPT_LOG_COUNT - 1; i < logs.length; i++) {
+            File log = logs[i];
+            if (!log.delete()) {
+                LOGGER.log(Level.FINE, "Failed to remove old build log: {0}", log);
+            }
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public int getLineLimit() {
+        return lineLimit;
+    }
+
+    /**
+     * Appends the given line to the log.
+     *
+     * @return {@code true} if the number of lines written to this log (with
+     *   the given line) exceeds the limit, so the line should be folded.
+     *   This method always returns {@code false} after writing the log
+     *   failed because the folded lines would be lost.
+     */
+    public synchronized boolean writeLine(String line) {
+        lineCount++;
+
+        if (!failed) {
+            try {
+                writer.write(line);
+                writer.write('\n');
+            } catch (IOException ex) {
+                LOGGER.log(Level.INFO, "Failed to write the build log: " + file, ex);
+                failed = true;
+            }
+        }
+
+        return !failed && lineCount > lineLimit;
+    }
+
+    /**
+     * Returns {@code true} if writing this log failed, in which case the log
+     * does not contain the complete output.
+     */
+    public synchronized boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * Returns {@code true} only for the first call, so that the notice about
+     * folding the output is printed only once per build even though both the
+     * standard output and the standard error are folded.
+     */
+    public synchronized boolean tryStartFolding() {
+        if (foldingStarted) {
+            return false;
+        }
+        foldingStarted = true;
+        return true;
+    }
+
+    public synchronized void flush() throws IOException {
+        if (!failed) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,156 @@
+package org.netbeans.gradle.project.output;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.table.AbstractTableModel;
+import org.netbeans.gradle.project.NbStrings;
+import org.netbeans.gradle.project.tasks.BuildProfile;
+import org.openide.DialogDisplayer;
+import org.openide.NotifyDescriptor;
+import org.openide.filesystems.FileChooserBuilder;
+
+@SuppressWarnings("serial")
+public final class BuildProfilePanel extends JPanel {
+    private static final Logger LOGGER = Logger.getLogger(BuildProfilePanel.class.getName());
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final int COLUMN_DURATION = 3;
+
+    private final BuildProfile profile;
+
+    public BuildProfilePanel(BuildProfile profile) {
+        super(new BorderLayout());
+        if (profile == null) throw new NullPointerException("profile");
+
+        this.profile = profile;
+
+        JTable table = new JTable(new ProfileTableModel(profile.getSlowestFirst()));
+        table.setAutoCreateRowSorter(true);
+        table.getRowSorter().setSortKeys(Collections.singletonList(
+                new RowSorter.SortKey(COLUMN_DURATION, SortOrder.DESCENDING)));
+
+        JLabel summary = new JLabel(NbStrings.getBuildProfileSummary(profile.getBuildDurationMillis()));
+
+        JButton exportButton = new JButton(NbStrings.getBuildProfileExportCaption());
+        exportButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                exportChromeTrace();
+            }
+        });
+
+        JPanel bottomPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        bottomPanel.add(exportButton);
+
+        add(summary, BorderLayout.NORTH);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+        add(bottomPanel, BorderLayout.SOUTH);
+    }
+
+    private void exportChromeTrace() {
+        FileChooserBuilder dlgChooser = new FileChooserBuilder(BuildProfilePanel.class);
+        dlgChooser.setFilesOnly(true);
+        File file = dlgChooser.showSaveDialog();
+        if (file == null) {
+            return;
+        }
+
+        if (!file.getName().contains(".")) {
+            file = new File(file.getPath() + ".json");
+        }
+
+        try {
+            OutputStream output = new FileOutputStream(file);
+            try {
+                Writer writer = new OutputStreamWriter(output, UTF8);
+                profile.writeChromeTrace(writer);
+            } finally {
+                output.close();
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to export the build profile to " + file, ex);
+            NotifyDescriptor message = new NotifyDescriptor.Message(
+                    NbStrings.getBuildProfileExportFailure(file.getPath()),
+                    NotifyDescriptor.ERROR_MESSAGE);
+            DialogDisplayer.getDefault().notify(message);
+        }
+    }
+
+    private static final class ProfileTableModel extends AbstractTableModel {
+        private final List<BuildProfile.Entry> entries;
+
+        public ProfileTableModel(List<BuildProfile.Entry> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public int getRowCount() {
+            return entries.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return 4;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            switch (column) {
+                case 0:
+                    return NbStrings.getBuildProfileNameColumn();
+                case 1:
+                    return NbStrings.getBuildProfileKindColumn();
+                case 2:
+                    return NbStrings.getBuildProfileOutcomeColumn();
+                case COLUMN_DURATION:
+                    return NbStrings.getBuildProfileDurationColumn();
+                default:
+                    throw new IndexOutOfBoundsException("column: " + column);
+            }
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column == COLUMN_DURATION ? Long.class : String.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            BuildProfile.Entry entry = entries.get(row);
+            switch (column) {
+                case 0:
+                    return entry.getName();
+                case 1:
+                    return entry.getKind().name();
+                case 2:
+                    return entry.getOutcome() != BuildProfile.Outcome.NONE
+                            ? entry.getOutcome().name()
+                            : "";
+                case COLUMN_DURATION:
+                    return entry.getDurationMillis();
+                default:
+                    throw new IndexOutOfBoundsException("column: " + column);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openide.windows.OutputListener;
+import org.openide.windows.OutputWriter;
+
+/**
+ * Defines an {@code OutputWriter} forwarding to another {@code OutputWriter}
+ * and adding the number of forwarded characters to a counter. Unlike
+ * {@link CharCountingWriter}, this writer only counts the characters which
+ * were actually printed (e.g.: it does not count the folded lines of the
+ * output).
+ */
+final class CharCountingOutputWriter extends OutputWriter {
+    private final OutputWriter wrapped;
+    private final AtomicLong charCount;
+
+    public CharCountingOutputWriter(OutputWriter wrapped, AtomicLong charCount) {
+        super(new CharCountingWriter(wrapped, charCount));
+
+        this.wrapped = wrapped;
+        this.charCount = charCount;
+    }
+
+    @Override
+    public void println(String s, OutputListener l) throws IOException {
+        println(s, l, false);
+    }
+
+    @Override
+    public void println(String s, OutputListener l, boolean important) throws IOException {
+        wrapped.println(s, l, important);
+        // The line separator is also counted.
+        charCount.addAndGet(s.length() + 1);
+    }
+
+    @Override
+    public void reset() throws IOException {
+        wrapped.reset();
+        charCount.set(0);
+    }
+}
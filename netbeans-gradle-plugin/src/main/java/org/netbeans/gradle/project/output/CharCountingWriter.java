@@ -0,0 +1,39 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Defines a {@code Writer} forwarding the characters written to it to
+ * another writer and adding the number of forwarded characters to a counter.
+ */
+final class CharCountingWriter extends FilterWriter {
+    private final AtomicLong charCount;
+
+    public CharCountingWriter(Writer out, AtomicLong charCount) {
+        super(out);
+
+        if (charCount == null) throw new NullPointerException("charCount");
+        this.charCount = charCount;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        out.write(c);
+        charCount.incrementAndGet();
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        out.write(cbuf, off, len);
+        charCount.addAndGet(len);
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        out.write(str, off, len);
+        charCount.addAndGet(len);
+    }
+}
@@ -0,0 +1,67 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers which paths found in the output of a build refer to existing
+ * files, so that consumers do not have to access the file system again when
+ * the same path is printed multiple times (e.g.: many compiler warnings
+ * referring to the same source file). A new instance is expected to be
+ * created for each build, so that changes in the file system are eventually
+ * noticed.
+ * <P>
+ * The number of cached paths is bounded: The least recently used paths are
+ * removed when the cache is full.
+ * <P>
+ * The methods of this class are safe to be called from multiple threads
+ * concurrently.
+ */
+public final class FileExistenceCache {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final Map<String, Boolean> cache;
+
+    public FileExistenceCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public FileExistenceCache(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than zero: " + capacity);
+        }
+
+        this.cache = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns {@code true} if the given path refers to an existing normal
+     * file. The file system is only checked if the path is not in the cache.
+     */
+    public boolean isFile(String path) {
+        if (path == null) throw new NullPointerException("path");
+
+        Boolean result;
+        synchronized (cache) {
+            result = cache.get(path);
+        }
+
+        if (result == null) {
+            // Do not hold the lock while accessing the file system which
+            // might be slow (e.g.: network drives).
+            result = new File(path).isFile();
+            synchronized (cache) {
+                cache.put(path, result);
+            }
+        }
+        return result;
+    }
+}
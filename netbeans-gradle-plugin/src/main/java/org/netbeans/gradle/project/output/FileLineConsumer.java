@@ -2,14 +2,35 @@ package org.netbeans.gradle.project.output;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.openide.windows.OutputListener;
 import org.openide.windows.OutputWriter;
 
-public final class FileLineConsumer implements SmartOutputHandler.Consumer {
+public final class FileLineConsumer implements SmartOutputHandler.TriggeredConsumer {
     private static final Logger LOGGER = Logger.getLogger(FileLineConsumer.class.getName());
 
+    // Relative paths are not recognized anyway because they are relative to
+    // the working directory of the IDE, so the line must contain a
+    // path separator.
+    private static final List<LineTrigger> TRIGGERS = File.separatorChar == '/'
+            ? Collections.singletonList(LineTrigger.contains("/"))
+            : Arrays.asList(LineTrigger.contains("/"), LineTrigger.contains(File.separator));
+
+    private final FileExistenceCache fileCache;
+
+    public FileLineConsumer() {
+        this(new FileExistenceCache());
+    }
+
+    public FileLineConsumer(FileExistenceCache fileCache) {
+        if (fileCache == null) throw new NullPointerException("fileCache");
+        this.fileCache = fileCache;
+    }
+
     private static boolean printLink(String line, File file, String otherInfo, OutputWriter output) {
         int lineIndexSep = otherInfo.indexOf(':');
         int lineNumber = -1;
@@ -35,14 +56,25 @@ public final class FileLineConsumer implements SmartOutputHandler.Consumer {
         return true;
     }
 
-    private static boolean tryPrintLink(String line, int sepIndex, OutputWriter output) {
-        File file = new File(line.substring(0, sepIndex).trim());
-        if (file.isFile()) {
-            return printLink(line, file, line.substring(sepIndex + 1, line.length()), output);
+    private boolean tryPrintLink(String line, int sepIndex, OutputWriter output) {
+        // Checking the syntax first avoids accessing the file system for
+        // most of the lines containing a colon.
+        if (!OutputPaths.isAbsolutePath(line, 0, sepIndex)) {
+            return false;
+        }
+
+        String path = line.substring(0, sepIndex).trim();
+        if (fileCache.isFile(path)) {
+            return printLink(line, new File(path), line.substring(sepIndex + 1, line.length()), output);
         }
         return false;
     }
 
+    @Override
+    public List<LineTrigger> getTriggers() {
+        return TRIGGERS;
+    }
+
     @Override
     public boolean tryConsumeLine(String line, OutputWriter output) throws IOException {
         int sepIndex = line.indexOf(':');
@@ -60,6 +92,6 @@ public final class FileLineConsumer implements SmartOutputHandler.Consumer {
 
             return tryPrintLink(line, sepIndex, output);
         }
-        return false;
+        return true;
     }
 }
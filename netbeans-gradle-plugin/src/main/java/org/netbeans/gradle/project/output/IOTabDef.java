@@ -2,4 +2,17 @@ package org.netbeans.gradle.project.output;
 
 public interface IOTabDef {
     public boolean isClosed();
+
+    /**
+     * Returns the (approximate) number of characters displayed by this tab.
+     * This is used to limit the memory retained by the tabs not in use.
+     */
+    public long getRetainedCharCount();
+
+    /**
+     * Releases the content of this tab (e.g.: by clearing or closing it). The
+     * tab remains available for reuse unless it was closed. This method is
+     * only called for tabs not in use.
+     */
+    public void release();
 }
@@ -2,6 +2,7 @@ package org.netbeans.gradle.project.output;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -10,21 +11,71 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.netbeans.gradle.project.Exceptions;
 
+/**
+ * Maintains the tabs of the output window, so that tabs no longer in use can
+ * be reused when a tab with the same key is requested.
+ * <P>
+ * The tabs not in use (idle tabs) can be limited: If there are too many idle
+ * tabs or the tabs retain too many characters, the least recently used idle
+ * tabs are {@link IOTabDef#release() released}. Tabs in use are never
+ * released. Released tabs which were not closed can still be reused but they
+ * do not count as idle tabs until they are used again. Closed tabs are never
+ * counted.
+ * <P>
+ * The methods of this class are safe to be called from multiple threads
+ * concurrently.
+ */
 public final class IOTabMaintainer<TabKey, IOTab extends IOTabDef> {
+    private static final Logger LOGGER = Logger.getLogger(IOTabMaintainer.class.getName());
+
     private final Lock mainLock;
     private final IOTabFactory<? extends IOTab> factory;
+    private final int maxIdleTabCount;
+    private final long maxRetainedCharCount;
     private final Map<TabKey, List<CountedTab<IOTab>>> currentTabs;
+    private final Map<CountedTab<IOTab>, Boolean> activeTabs;
     private final KeyCounter<TabKey> tabIndexes;
+    private long useCounter;
 
     public IOTabMaintainer(IOTabFactory<? extends IOTab> factory) {
+        this(factory, Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a maintainer limiting the tabs not in use.
+     *
+     * @param factory the factory creating new tabs. This argument cannot be
+     *   {@code null}.
+     * @param maxIdleTabCount the maximum number of tabs not in use to keep
+     *   their content. This argument must be greater than or equal to zero.
+     * @param maxRetainedCharCount the maximum number of characters to be
+     *   retained by all the tabs (including the tabs in use). This argument
+     *   must be greater than or equal to zero.
+     */
+    public IOTabMaintainer(
+            IOTabFactory<? extends IOTab> factory,
+            int maxIdleTabCount,
+            long maxRetainedCharCount) {
         if (factory == null) throw new NullPointerException("factory");
+        if (maxIdleTabCount < 0) {
+            throw new IllegalArgumentException("maxIdleTabCount must be non-negative: " + maxIdleTabCount);
+        }
+        if (maxRetainedCharCount < 0) {
+            throw new IllegalArgumentException("maxRetainedCharCount must be non-negative: " + maxRetainedCharCount);
+        }
 
         this.mainLock = new ReentrantLock();
         this.currentTabs = new HashMap<TabKey, List<CountedTab<IOTab>>>();
+        this.activeTabs = new IdentityHashMap<CountedTab<IOTab>, Boolean>();
         this.factory = factory;
+        this.maxIdleTabCount = maxIdleTabCount;
+        this.maxRetainedCharCount = maxRetainedCharCount;
         this.tabIndexes = new KeyCounter<TabKey>();
+        this.useCounter = 0;
     }
 
     private CountedTab<IOTab> tryGetAvailable(TabKey key) {
@@ -56,6 +107,7 @@ public final class IOTabMaintainer<TabKey, IOTab extends IOTabDef> {
                 if (list.isEmpty()) {
                     currentTabs.remove(key);
                 }
+                result.released = false;
             } finally {
                 mainLock.unlock();
             }
@@ -136,7 +188,7 @@ public final class IOTabMaintainer<TabKey, IOTab extends IOTabDef> {
         if (caption == null) throw new NullPointerException("caption");
 
         CountedTab<IOTab> result = newTabWithContext(key, caption);
-        return new IOTabRefImpl(key, result);
+        return newTabRef(key, result);
     }
 
     public IOTabRef<IOTab> getTab(TabKey key, String caption) {
@@ -153,7 +205,82 @@ public final class IOTabMaintainer<TabKey, IOTab extends IOTabDef> {
             tabIndexes.incAndGet(key);
         }
 
-        return new IOTabRefImpl(key, result);
+        return newTabRef(key, result);
+    }
+
+    private IOTabRef<IOTab> newTabRef(TabKey key, CountedTab<IOTab> tab) {
+        mainLock.lock();
+        try {
+            activeTabs.put(tab, Boolean.TRUE);
+        } finally {
+            mainLock.unlock();
+        }
+        return new IOTabRefImpl(key, tab);
+    }
+
+    private static <IOTab extends IOTabDef> CountedTab<IOTab> removeLeastRecentlyUsed(
+            List<CountedTab<IOTab>> tabs) {
+
+        CountedTab<IOTab> result = null;
+        for (CountedTab<IOTab> tab: tabs) {
+            if (result == null || tab.lastUsed < result.lastUsed) {
+                result = tab;
+            }
+        }
+
+        if (result != null) {
+            tabs.remove(result);
+        }
+        return result;
+    }
+
+    private List<CountedTab<IOTab>> removeTabsToRelease() {
+        List<CountedTab<IOTab>> idleTabs = new LinkedList<CountedTab<IOTab>>();
+        long retainedCharCount = 0;
+
+        mainLock.lock();
+        try {
+            for (List<CountedTab<IOTab>> tabs: currentTabs.values()) {
+                for (CountedTab<IOTab> tab: tabs) {
+                    if (!tab.released && !tab.isClosed()) {
+                        idleTabs.add(tab);
+                        retainedCharCount += tab.tab.getRetainedCharCount();
+                    }
+                }
+            }
+            for (CountedTab<IOTab> tab: activeTabs.keySet()) {
+                if (!tab.isClosed()) {
+                    retainedCharCount += tab.tab.getRetainedCharCount();
+                }
+            }
+
+            List<CountedTab<IOTab>> result = new LinkedList<CountedTab<IOTab>>();
+            while (idleTabs.size() > maxIdleTabCount || retainedCharCount > maxRetainedCharCount) {
+                CountedTab<IOTab> toRelease = removeLeastRecentlyUsed(idleTabs);
+                if (toRelease == null) {
+                    break;
+                }
+
+                retainedCharCount -= toRelease.tab.getRetainedCharCount();
+                // Released tabs are kept for reuse. Closed tabs are removed
+                // by cleanupTabs.
+                toRelease.released = true;
+                result.add(toRelease);
+            }
+            return result;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private void releaseTabs(List<CountedTab<IOTab>> tabs) {
+        for (CountedTab<IOTab> tab: tabs) {
+            try {
+                tab.tab.release();
+            } catch (Throwable ex) {
+                LOGGER.log(Level.SEVERE, "Failed to release tab: " + tab.tab, ex);
+            }
+        }
     }
 
     private class IOTabRefImpl implements IOTabRef<IOTab> {
@@ -182,6 +309,11 @@ public final class IOTabMaintainer<TabKey, IOTab extends IOTabDef> {
 
             mainLock.lock();
             try {
+                activeTabs.remove(tab);
+
+                useCounter++;
+                tab.lastUsed = useCounter;
+
                 List<CountedTab<IOTab>> tabList = currentTabs.get(key);
                 if (tabList == null) {
                     tabList = new LinkedList<CountedTab<IOTab>>();
@@ -191,16 +323,23 @@ public final class IOTabMaintainer<TabKey, IOTab extends IOTabDef> {
             } finally {
                 mainLock.unlock();
             }
+
+            releaseTabs(removeTabsToRelease());
         }
     }
 
     private static final class CountedTab<IOTab extends IOTabDef> {
         public final int index;
         public final IOTab tab;
+        // Guarded by mainLock of the maintainer
+        public long lastUsed;
+        public boolean released;
 
         public CountedTab(int index, IOTab tab) {
             this.index = index;
             this.tab = tab;
+            this.lastUsed = 0;
+            this.released = false;
         }
 
         public boolean isClosed() {
@@ -11,6 +11,7 @@ import org.netbeans.gradle.project.NbStrings;
 import org.netbeans.gradle.project.api.task.GradleCommandTemplate;
 import org.netbeans.gradle.project.properties.PredefinedTask;
 import org.netbeans.gradle.project.tasks.AsyncGradleTask;
+import org.netbeans.gradle.project.tasks.BuildProfile;
 import org.netbeans.gradle.project.tasks.GradleCommandSpec;
 import org.netbeans.gradle.project.tasks.GradleTaskDef;
 import org.netbeans.gradle.project.tasks.TaskOutputKey;
@@ -22,8 +23,18 @@ import org.openide.windows.IOProvider;
 import org.openide.windows.InputOutput;
 
 public final class IOTabs {
+    // Tabs not used by a running task are closed (starting with the least
+    // recently used) when there are too many of them or they retain too much
+    // output, so that heavy users do not accumulate the output of hundreds of
+    // builds.
+    private static final int MAX_IDLE_TASK_TAB_COUNT = 24;
+    private static final long MAX_RETAINED_CHAR_COUNT = 32L * 1024 * 1024;
+
     private static final IOTabMaintainer<TaskOutputKey, TaskIOTab> TASK_TABS
-            = new IOTabMaintainer<TaskOutputKey, TaskIOTab>(createTaskIOTabFactory());
+            = new IOTabMaintainer<TaskOutputKey, TaskIOTab>(
+                    createTaskIOTabFactory(),
+                    MAX_IDLE_TASK_TAB_COUNT,
+                    MAX_RETAINED_CHAR_COUNT);
 
     private static IOTabFactory<TaskIOTab> createTaskIOTabFactory() {
         return new IOTabFactory<TaskIOTab>() {
@@ -39,7 +50,8 @@ public final class IOTabs {
     private static TaskTabAction[] createActions() {
         return new TaskTabAction[] {
             new ReRunTask(),
-            new ReRunWithDifferentArgsTask()
+            new ReRunWithDifferentArgsTask(),
+            new ShowBuildProfileTask()
         };
     }
 
@@ -130,6 +142,45 @@ public final class IOTabs {
         }
     }
 
+    @SuppressWarnings("serial")
+    private static class ShowBuildProfileTask extends TaskTabAction {
+        @StaticResource
+        private static final String ICON = "org/netbeans/gradle/project/resources/task.gif";
+
+        public ShowBuildProfileTask() {
+            putValue(Action.SMALL_ICON, ImageUtilities.loadImage(ICON));
+
+            putValue(Action.NAME, NbStrings.getShowBuildProfileName());
+            putValue(Action.SHORT_DESCRIPTION, NbStrings.getShowBuildProfileDescription());
+        }
+
+        @Override
+        protected void taskCompleted() {
+            setEnableAction(getLastProfile() != null);
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            BuildProfile profile = getLastProfile();
+            if (profile == null) {
+                return;
+            }
+
+            DialogDescriptor dlgDescriptor = new DialogDescriptor(
+                    new BuildProfilePanel(profile),
+                    NbStrings.getBuildProfileDlgTitle(),
+                    false,
+                    new Object[]{DialogDescriptor.CLOSED_OPTION},
+                    DialogDescriptor.CLOSED_OPTION,
+                    DialogDescriptor.BOTTOM_ALIGN,
+                    null,
+                    null);
+            Dialog dlg = DialogDisplayer.getDefault().createDialog(dlgDescriptor);
+            dlg.pack();
+            dlg.setVisible(true);
+        }
+    }
+
     private static final class CommandAdjusterFactory implements Callable<GradleCommandSpec> {
         private final Callable<GradleCommandSpec> source;
         private final List<String> taskNames;
@@ -40,34 +40,35 @@ public final class LineOutputWriter extends Writer {
         }
 
         int currentOffset = off;
-        int currentLength = len;
 
-        while (currentLength > 0) {
+        while (currentOffset < endOffset) {
             String line = null;
 
             mainLock.lock();
             try {
-                while (currentLength > 0) {
-                    char currentChar = cbuf[currentOffset];
-                    char prevChar = lastChar;
-                    lastChar = currentChar;
-
-                    currentOffset++;
-                    currentLength--;
+                int lineStart = currentOffset;
+                if (lastChar == '\r' && cbuf[lineStart] == '\n') {
+                    lineStart++;
+                }
 
-                    if (prevChar == '\r' && currentChar == '\n') {
-                        continue;
+                int lineEnd = indexOfLineSeparator(cbuf, lineStart, endOffset);
+                if (lineEnd >= 0) {
+                    if (lineBuffer.length() == 0) {
+                        line = new String(cbuf, lineStart, lineEnd - lineStart);
                     }
-
-                    if (currentChar == '\n' || currentChar == '\r') {
+                    else {
+                        lineBuffer.append(cbuf, lineStart, lineEnd - lineStart);
                         line = lineBuffer.toString();
                         lineBuffer.setLength(0);
-                        break;
-                    }
-                    else {
-                        lineBuffer.append(currentChar);
                     }
+                    currentOffset = lineEnd + 1;
                 }
+                else {
+                    lineBuffer.append(cbuf, lineStart, endOffset - lineStart);
+                    currentOffset = endOffset;
+                }
+
+                lastChar = cbuf[currentOffset - 1];
             } finally {
                 mainLock.unlock();
             }
@@ -78,6 +79,16 @@ public final class LineOutputWriter extends Writer {
         }
     }
 
+    private static int indexOfLineSeparator(char[] cbuf, int startOffset, int endOffset) {
+        for (int i = startOffset; i < endOffset; i++) {
+            char ch = cbuf[i];
+            if (ch == '\n' || ch == '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     @Override
     public void flush() throws IOException {
         handler.flush();
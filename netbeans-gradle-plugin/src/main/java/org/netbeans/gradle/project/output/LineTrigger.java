@@ -0,0 +1,46 @@
+package org.netbeans.gradle.project.output;
+
+/**
+ * Defines a string which must be contained by a line of the output, so that
+ * a {@link SmartOutputHandler.TriggeredConsumer} might consume it.
+ * <P>
+ * Instances of this class are immutable and as such are safe to be accessed
+ * concurrently from multiple threads.
+ */
+public final class LineTrigger {
+    private final String text;
+    private final boolean ignoreCase;
+
+    private LineTrigger(String text, boolean ignoreCase) {
+        if (text == null) throw new NullPointerException("text");
+        if (text.isEmpty()) throw new IllegalArgumentException("The trigger text cannot be empty.");
+
+        this.text = text;
+        this.ignoreCase = ignoreCase;
+    }
+
+    public static LineTrigger contains(String text) {
+        return new LineTrigger(text, false);
+    }
+
+    public static LineTrigger containsIgnoreCase(String text) {
+        return new LineTrigger(text, true);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    public boolean matchesAt(String line, int index) {
+        return line.regionMatches(ignoreCase, index, text, 0, text.length());
+    }
+
+    @Override
+    public String toString() {
+        return "LineTrigger{" + "text=" + text + ", ignoreCase=" + ignoreCase + '}';
+    }
+}
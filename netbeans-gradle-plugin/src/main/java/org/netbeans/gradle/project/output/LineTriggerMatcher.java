@@ -0,0 +1,120 @@
+package org.netbeans.gradle.project.output;
+
+import java.util.List;
+
+/**
+ * Finds which consumers have at least one of their triggers contained in a
+ * line with a single pass over the characters of the line. Consumers are
+ * identified by their index, so there might be at most 64 consumers.
+ */
+final class LineTriggerMatcher {
+    public static final int MAX_CONSUMER_COUNT = 64;
+
+    private static final int ASCII_LIMIT = 128;
+
+    private final LineTrigger[] triggers;
+    private final long[] triggerMasks;
+    private final long allMask;
+    private final boolean[] asciiFirstChars;
+    private final boolean hasNonAsciiFirstChar;
+
+    /**
+     * @param triggersOfConsumers the triggers of the consumers where the
+     *   consumer with index {@code i} is identified by the bit
+     *   {@code 1L << i} in the result of {@link #findTriggered(String)}.
+     *   Elements of the list might be {@code null} for consumers which are
+     *   not to be checked by this matcher.
+     */
+    public LineTriggerMatcher(List<List<LineTrigger>> triggersOfConsumers) {
+        int consumerCount = triggersOfConsumers.size();
+        if (consumerCount > MAX_CONSUMER_COUNT) {
+            throw new IllegalArgumentException("Too many consumers: " + consumerCount);
+        }
+
+        int triggerCount = 0;
+        for (List<LineTrigger> consumerTriggers: triggersOfConsumers) {
+            if (consumerTriggers != null) {
+                triggerCount += consumerTriggers.size();
+            }
+        }
+
+        this.triggers = new LineTrigger[triggerCount];
+        this.triggerMasks = new long[triggerCount];
+        this.asciiFirstChars = new boolean[ASCII_LIMIT];
+
+        long mask = 0;
+        boolean nonAsciiFirstChar = false;
+        int triggerIndex = 0;
+        for (int consumerIndex = 0; consumerIndex < consumerCount; consumerIndex++) {
+            List<LineTrigger> consumerTriggers = triggersOfConsumers.get(consumerIndex);
+            if (consumerTriggers == null) {
+                continue;
+            }
+
+            long consumerMask = 1L << consumerIndex;
+            for (LineTrigger trigger: consumerTriggers) {
+                if (trigger == null) throw new NullPointerException("trigger");
+
+                triggers[triggerIndex] = trigger;
+                triggerMasks[triggerIndex] = consumerMask;
+                triggerIndex++;
+                mask |= consumerMask;
+
+                char firstChar = trigger.getText().charAt(0);
+                nonAsciiFirstChar |= addFirstChar(firstChar);
+                if (trigger.isIgnoreCase()) {
+                    addFirstChar(Character.toLowerCase(firstChar));
+                    addFirstChar(Character.toUpperCase(firstChar));
+                    // Some non-ASCII characters are equal to ASCII characters
+                    // when ignoring case (e.g.: the Kelvin sign), so we have
+                    // to check every non-ASCII character.
+                    nonAsciiFirstChar = true;
+                }
+            }
+        }
+
+        this.allMask = mask;
+        this.hasNonAsciiFirstChar = nonAsciiFirstChar;
+    }
+
+    private boolean addFirstChar(char ch) {
+        if (ch < ASCII_LIMIT) {
+            asciiFirstChars[ch] = true;
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isPossibleFirstChar(char ch) {
+        return ch < ASCII_LIMIT ? asciiFirstChars[ch] : hasNonAsciiFirstChar;
+    }
+
+    /**
+     * Returns the bit mask of the consumers having at least one trigger
+     * contained in the given line.
+     */
+    public long findTriggered(String line) {
+        if (triggers.length == 0) {
+            return 0;
+        }
+
+        long result = 0;
+        int lineLength = line.length();
+        for (int i = 0; i < lineLength; i++) {
+            if (!isPossibleFirstChar(line.charAt(i))) {
+                continue;
+            }
+
+            for (int triggerIndex = 0; triggerIndex < triggers.length; triggerIndex++) {
+                long triggerMask = triggerMasks[triggerIndex];
+                if ((result & triggerMask) == 0 && triggers[triggerIndex].matchesAt(line, i)) {
+                    result |= triggerMask;
+                    if (result == allMask) {
+                        return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -59,6 +59,17 @@ public final class OpenEditorOutputListener implements OutputListener {
         return null;
     }
 
+    /**
+     * Returns a listener which only looks up the editor of the given file
+     * when the user actually clicks on the line. This is much cheaper than
+     * {@link #tryCreateListener(FileObject, int)} when there are lots of
+     * lines to be printed with a link.
+     */
+    public static OutputListener createLazyListener(FileObject fileObj, int lineNumber) {
+        if (fileObj == null) throw new NullPointerException("fileObj");
+        return new LazyOpenEditorListener(fileObj, lineNumber);
+    }
+
     @Override
     public void outputLineSelected(OutputEvent ev) {
     }
@@ -83,4 +94,29 @@ public final class OpenEditorOutputListener implements OutputListener {
     public void outputLineCleared(OutputEvent ev) {
     }
 
+    private static final class LazyOpenEditorListener implements OutputListener {
+        private final FileObject fileObj;
+        private final int lineNumber;
+
+        public LazyOpenEditorListener(FileObject fileObj, int lineNumber) {
+            this.fileObj = fileObj;
+            this.lineNumber = lineNumber;
+        }
+
+        @Override
+        public void outputLineSelected(OutputEvent ev) {
+        }
+
+        @Override
+        public void outputLineAction(OutputEvent ev) {
+            OpenEditorOutputListener listener = tryCreateListener(fileObj, lineNumber);
+            if (listener != null) {
+                listener.outputLineAction(ev);
+            }
+        }
+
+        @Override
+        public void outputLineCleared(OutputEvent ev) {
+        }
+    }
 }
@@ -0,0 +1,190 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import org.netbeans.gradle.project.NbStrings;
+import org.openide.windows.OutputListener;
+import org.openide.windows.OutputWriter;
+
+/**
+ * Decides which lines of a single output stream are to be printed once the
+ * output of the build exceeds the limit of its {@link BuildOutputLog}. After
+ * the limit is exceeded, only summary lines (task headers, failures,
+ * warnings) are printed, other lines are only kept if they are among the last
+ * lines of the output.
+ * <P>
+ * Summary lines following a kept line are held back until the kept line is
+ * either dropped or printed, so that the lines are always printed in the
+ * order they were written (e.g.: "BUILD FAILED" is printed after the last
+ * lines of the output and not before them).
+ */
+final class OutputFolder {
+    private static final Logger LOGGER = Logger.getLogger(OutputFolder.class.getName());
+
+    private static final int TAIL_LINE_COUNT = 200;
+
+    private static final Pattern TASK_HEADER_PATTERN = Pattern.compile(":\\S+( [A-Z][A-Z\\-]*)?");
+    private static final String[] SUMMARY_PREFIXES = {
+        "> Task ",
+        "BUILD ",
+        "FAILURE:",
+        "* What went wrong:",
+        "Total time:",
+    };
+    private static final String[] SUMMARY_PARTS = {
+        " FAILED",
+        "warning:",
+        "error:",
+    };
+
+    private final BuildOutputLog log;
+    private final ArrayDeque<TailLine> tail;
+    private int foldedLineCount;
+    private long omittedLineCount;
+    private boolean folding;
+
+    public OutputFolder(BuildOutputLog log) {
+        if (log == null) throw new NullPointerException("log");
+
+        this.log = log;
+        this.tail = new ArrayDeque<TailLine>(TAIL_LINE_COUNT);
+        this.foldedLineCount = 0;
+        this.omittedLineCount = 0;
+        this.folding = false;
+    }
+
+    static boolean isSummaryLine(String line) {
+        for (String prefix: SUMMARY_PREFIXES) {
+            if (line.startsWith(prefix)) {
+                return true;
+            }
+        }
+        for (String part: SUMMARY_PARTS) {
+            if (line.contains(part)) {
+                return true;
+            }
+        }
+        return line.startsWith(":") && TASK_HEADER_PATTERN.matcher(line).matches();
+    }
+
+    private OutputListener getLogListener() {
+        if (log.isFailed()) {
+            // Do not suggest that the incomplete log contains the output.
+            return null;
+        }
+
+        // The log might be too large for the editor, so let the user open it
+        // in an external viewer.
+        try {
+            return OutputUrlConsumer.getUrlListener(log.getFile().toURI().toURL());
+        } catch (MalformedURLException ex) {
+            LOGGER.log(Level.INFO, "Cannot convert the path of the build log to URL.", ex);
+            return null;
+        }
+    }
+
+    private void println(OutputWriter output, String message) throws IOException {
+        OutputListener listener = getLogListener();
+        if (listener != null) {
+            output.println(message, listener, false);
+        }
+        else {
+            output.println(message);
+        }
+    }
+
+    /**
+     * Writes the given line to the log and returns the lines which must be
+     * printed now in the order they must be printed. The returned list is
+     * empty if nothing is to be printed.
+     */
+    public synchronized List<String> foldLine(String line, OutputWriter output) throws IOException {
+        if (!log.writeLine(line)) {
+            if (!folding) {
+                return Collections.singletonList(line);
+            }
+
+            // Writing the log failed after we started folding, so stop
+            // folding and print the kept lines to avoid losing them.
+            folding = false;
+            List<String> result = removeTail(output);
+            result.add(line);
+            return result;
+        }
+
+        if (!folding) {
+            folding = true;
+            if (log.tryStartFolding()) {
+                println(output, NbStrings.getOutputFolded(log.getLineLimit(), log.getFile().getPath()));
+            }
+        }
+
+        boolean summary = isSummaryLine(line);
+        if (summary && tail.isEmpty()) {
+            return Collections.singletonList(line);
+        }
+
+        tail.addLast(new TailLine(line, summary));
+        if (!summary) {
+            foldedLineCount++;
+        }
+
+        List<String> result = Collections.emptyList();
+        while (!tail.isEmpty()) {
+            TailLine first = tail.getFirst();
+            if (first.summary) {
+                if (result.isEmpty()) {
+                    result = new ArrayList<String>();
+                }
+                result.add(first.line);
+            }
+            else if (foldedLineCount > TAIL_LINE_COUNT) {
+                foldedLineCount--;
+                omittedLineCount++;
+            }
+            else {
+                break;
+            }
+            tail.removeFirst();
+        }
+        return result;
+    }
+
+    /**
+     * Removes the kept last lines of the output (including the held back
+     * summary lines) and returns them, so that the caller can print them. If
+     * there were lines omitted, a message is printed about them before
+     * returning.
+     */
+    public synchronized List<String> removeTail(OutputWriter output) throws IOException {
+        if (omittedLineCount > 0) {
+            println(output, NbStrings.getOutputLinesOmitted(omittedLineCount));
+            omittedLineCount = 0;
+        }
+
+        List<String> result = new ArrayList<String>(tail.size());
+        for (TailLine tailLine: tail) {
+            result.add(tailLine.line);
+        }
+        tail.clear();
+        foldedLineCount = 0;
+        return result;
+    }
+
+    private static final class TailLine {
+        public final String line;
+        public final boolean summary;
+
+        public TailLine(String line, boolean summary) {
+            this.line = line;
+            this.summary = summary;
+        }
+    }
+}
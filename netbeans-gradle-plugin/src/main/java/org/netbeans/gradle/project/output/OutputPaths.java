@@ -0,0 +1,106 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.File;
+
+/**
+ * Contains helper methods to find file paths in lines of the output without
+ * creating copies of the lines.
+ */
+final class OutputPaths {
+    private static boolean isSeparator(char ch) {
+        return ch == '/' || ch == File.separatorChar;
+    }
+
+    private static boolean isDriveLetter(char ch) {
+        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z');
+    }
+
+    private static boolean equalsIgnoreCase(char ch1, char ch2) {
+        if (ch1 == ch2) {
+            return true;
+        }
+
+        char upper1 = Character.toUpperCase(ch1);
+        char upper2 = Character.toUpperCase(ch2);
+        return upper1 == upper2
+                || Character.toLowerCase(upper1) == Character.toLowerCase(upper2);
+    }
+
+    private static boolean pathCharEquals(char lineCh, char pathCh) {
+        if (isSeparator(lineCh)) {
+            return pathCh == '/';
+        }
+        return equalsIgnoreCase(lineCh, pathCh);
+    }
+
+    /**
+     * Returns {@code true} if the (trimmed) part of the line between the
+     * given indexes looks like an absolute path. This is a purely syntactic
+     * check, which allows to avoid accessing the file system for most of the
+     * lines.
+     */
+    public static boolean isAbsolutePath(String line, int startIndex, int endIndex) {
+        int index = startIndex;
+        while (index < endIndex && line.charAt(index) <= ' ') {
+            index++;
+        }
+        if (index >= endIndex) {
+            return false;
+        }
+
+        char firstCh = line.charAt(index);
+        if (isSeparator(firstCh) || firstCh == '\\') {
+            return true;
+        }
+
+        // Windows paths. E.g.: "C:\\file" or "C:/file"
+        return index + 2 < endIndex
+                && isDriveLetter(firstCh)
+                && line.charAt(index + 1) == ':'
+                && (isSeparator(line.charAt(index + 2)) || line.charAt(index + 2) == '\\');
+    }
+
+    /**
+     * Returns the first index of the given path in the line, ignoring the
+     * case of the characters. Path separators in the line match the '/'
+     * character in the path regardless of the operating system.
+     *
+     * @param path the path to look for. Path separators in this path must be
+     *   '/' characters.
+     * @return the first index of the path in the line or -1 if the line
+     *   does not contain the path
+     */
+    public static int indexOfPathIgnoreCase(String line, String path) {
+        int pathLength = path.length();
+        int lastStartIndex = line.length() - pathLength;
+
+        for (int startIndex = 0; startIndex <= lastStartIndex; startIndex++) {
+            int i = 0;
+            while (i < pathLength && pathCharEquals(line.charAt(startIndex + i), path.charAt(i))) {
+                i++;
+            }
+            if (i == pathLength) {
+                return startIndex;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the last index of a path separator ('/' or the separator of
+     * the operating system) in the given line or -1 if there is no such
+     * character in the line.
+     */
+    public static int lastIndexOfSeparator(String line) {
+        for (int i = line.length() - 1; i >= 0; i--) {
+            if (isSeparator(line.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private OutputPaths() {
+        throw new AssertionError();
+    }
+}
@@ -3,6 +3,9 @@ package org.netbeans.gradle.project.output;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.logging.Logger;
 import org.netbeans.gradle.project.StringUtils;
 import org.openide.awt.HtmlBrowser;
@@ -10,7 +13,7 @@ import org.openide.windows.OutputEvent;
 import org.openide.windows.OutputListener;
 import org.openide.windows.OutputWriter;
 
-public final class OutputUrlConsumer implements SmartOutputHandler.Consumer {
+public final class OutputUrlConsumer implements SmartOutputHandler.TriggeredConsumer {
     private static final Logger LOGGER = Logger.getLogger(OutputUrlConsumer.class.getName());
 
     private static final String[] URL_PREFIXES = new String[]{
@@ -18,6 +21,16 @@ public final class OutputUrlConsumer implements SmartOutputHandler.Consumer {
         "https://",
         "file://"
     };
+    private static final List<LineTrigger> TRIGGERS = createTriggers();
+
+    private static List<LineTrigger> createTriggers() {
+        List<LineTrigger> result = new ArrayList<LineTrigger>(URL_PREFIXES.length);
+        for (String prefix: URL_PREFIXES) {
+            result.add(LineTrigger.contains(prefix));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
     private static URL tryGetUrlWithPrefix(String prefix, String line) {
         int startIndex = line.indexOf(prefix);
         if (startIndex < 0) {
@@ -40,6 +53,11 @@ public final class OutputUrlConsumer implements SmartOutputHandler.Consumer {
         }
     }
 
+    @Override
+    public List<LineTrigger> getTriggers() {
+        return TRIGGERS;
+    }
+
     @Override
     public boolean tryConsumeLine(String line, OutputWriter output) throws IOException {
         for (String prefix: URL_PREFIXES) {
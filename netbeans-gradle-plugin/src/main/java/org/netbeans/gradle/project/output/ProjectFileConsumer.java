@@ -4,6 +4,8 @@ import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.StringUtils;
@@ -12,14 +14,31 @@ import org.openide.util.Utilities;
 import org.openide.windows.OutputListener;
 import org.openide.windows.OutputWriter;
 
-public final class ProjectFileConsumer implements SmartOutputHandler.Consumer {
-    private final String normalizedPath;
+public final class ProjectFileConsumer implements SmartOutputHandler.TriggeredConsumer {
+    private final String projectPath;
+    private final List<LineTrigger> triggers;
+    private final FileExistenceCache fileCache;
 
     public ProjectFileConsumer(NbGradleProject project) {
+        this(project, new FileExistenceCache());
+    }
+
+    public ProjectFileConsumer(NbGradleProject project, FileExistenceCache fileCache) {
+        if (fileCache == null) throw new NullPointerException("fileCache");
+
         FileObject projectDirectory = project.getProjectDirectory();
-        // In case the filesystem is not case-sesitive, otherwise it shouldn't
-        // hurt much, since we will check if the file exists anyway.
-        normalizedPath = projectDirectory.getPath().toLowerCase(Locale.ROOT);
+        // The path is searched ignoring the case in case the filesystem is
+        // not case-sesitive, otherwise it shouldn't hurt much, since we will
+        // check if the file exists anyway.
+        projectPath = projectDirectory.getPath();
+        this.fileCache = fileCache;
+
+        // The path of the project directory must contain the name of the
+        // project directory.
+        String dirName = projectDirectory.getNameExt();
+        triggers = dirName.isEmpty()
+                ? Collections.<LineTrigger>emptyList()
+                : Collections.singletonList(LineTrigger.containsIgnoreCase(dirName));
     }
 
     public static boolean isBrowserFile(String path) {
@@ -63,15 +82,19 @@ public final class ProjectFileConsumer implements SmartOutputHandler.Consumer {
         }
     }
 
+    @Override
+    public List<LineTrigger> getTriggers() {
+        return triggers;
+    }
+
     @Override
     public boolean tryConsumeLine(String line, OutputWriter output) throws IOException {
-        String normalizedLine = line.replace(File.separatorChar, '/').toLowerCase(Locale.ROOT);
-        int startIndex = normalizedLine.indexOf(normalizedPath);
+        int startIndex = OutputPaths.indexOfPathIgnoreCase(line, projectPath);
         if (startIndex < 0) {
             return false;
         }
 
-        int endPathIndex = normalizedLine.lastIndexOf('/');
+        int endPathIndex = OutputPaths.lastIndexOfSeparator(line);
         if (endPathIndex < 0) {
             // I don't think that this is possible but just in case it happens.
             return false;
@@ -90,10 +113,10 @@ public final class ProjectFileConsumer implements SmartOutputHandler.Consumer {
         lineNumber = lineNumber >= 0 ? lineNumber - 1 : -1;
 
         String fileStr = StringUtils.stripSeperatorsFromEnd(line.substring(startIndex, endIndex));
-        File file = new File(fileStr);
-        if (!file.isFile()) {
+        if (!fileCache.isFile(fileStr)) {
             return false;
         }
+        File file = new File(fileStr);
 
         OutputListener outputListener = null;
         if (isBrowserFile(fileStr)) {
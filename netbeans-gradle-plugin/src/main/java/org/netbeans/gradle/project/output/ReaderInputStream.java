@@ -7,12 +7,32 @@ import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
-import java.util.concurrent.atomic.AtomicReference;
+import java.nio.charset.CodingErrorAction;
 
+/**
+ * Defines an {@code InputStream} reading characters from a {@code Reader} and
+ * returning them encoded with a given charset.
+ * <P>
+ * Characters are read from the reader only when there are no encoded bytes
+ * left to be returned, and a read never blocks for more characters once some
+ * bytes are available. Unmappable characters and malformed input are replaced
+ * with the replacement bytes of the charset.
+ * <P>
+ * Instances of this class are not safe to be used concurrently by multiple
+ * threads.
+ */
 public final class ReaderInputStream extends InputStream {
+    private static final int CHAR_BUFFER_SIZE = 4 * 1024;
+    private static final int BYTE_BUFFER_SIZE = 8 * 1024;
+
     private final Reader reader;
-    private final Charset encoding;
-    private final AtomicReference<byte[]> cacheRef;
+    private final CharsetEncoder encoder;
+    // Both buffers are kept ready to be read from (i.e.: flipped).
+    private final CharBuffer readChars;
+    private final ByteBuffer encodedBytes;
+    private final byte[] singleByte;
+    private boolean endOfInput;
+    private boolean encoderFlushed;
 
     public ReaderInputStream(Reader reader) {
         this(reader, Charset.defaultCharset());
@@ -23,64 +43,94 @@ public final class ReaderInputStream extends InputStream {
             throw new NullPointerException("reader");
         if (encoding == null)
             throw new NullPointerException("encoding");
+
         this.reader = reader;
-        this.encoding = encoding;
-        this.cacheRef = new AtomicReference<byte[]>(new byte[0]);
+        this.encoder = encoding.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.readChars = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+        this.readChars.flip();
+        this.encodedBytes = ByteBuffer.allocate(BYTE_BUFFER_SIZE);
+        this.encodedBytes.flip();
+        this.singleByte = new byte[1];
+        this.endOfInput = false;
+        this.encoderFlushed = false;
     }
 
-    private int readFromCache(byte[] b, int offset, int length) {
-        byte[] cache;
-        byte[] newCache;
-        int toRead;
-        do {
-            cache = cacheRef.get();
-            toRead = Math.min(cache.length, length);
-            System.arraycopy(cache, 0, b, offset, toRead);
-            newCache = new byte[cache.length - toRead];
-            System.arraycopy(cache, toRead, newCache, 0, newCache.length);
-        } while (!cacheRef.compareAndSet(cache, newCache));
-        return toRead;
+    private void readCharsFromReader() throws IOException {
+        readChars.compact();
+        try {
+            int readCount = reader.read(readChars.array(),
+                    readChars.arrayOffset() + readChars.position(),
+                    readChars.remaining());
+            if (readCount <= 0) {
+                // readCount should never be zero but if reader returns zero
+                // regardless, assume that it believes that EOF has been
+                // reached.
+                endOfInput = true;
+            }
+            else {
+                readChars.position(readChars.position() + readCount);
+            }
+        } finally {
+            readChars.flip();
+        }
     }
 
-    private boolean readToCache(int requiredBytes) throws IOException {
-        assert requiredBytes > 0;
-        // We rely on the encoder to choose the number of bytes to read but
-        // it does not have to be actually accurate, it only matters
-        // performance wise but this is not a performance critical code.
-        CharsetEncoder encoder = encoding.newEncoder();
-        int toRead = (int)((float)requiredBytes / encoder.averageBytesPerChar()) + 1;
-        toRead = Math.max(toRead, requiredBytes);
-        char[] readChars = new char[toRead];
-        int readCount = reader.read(readChars);
-        if (readCount <= 0) {
-            // readCount should never be zero but if reader returns zero
-            // regardless, assume that it believes that EOF has been
-            // reached.
+    private void encodeEndOfInput() {
+        if (encoder.encode(readChars, encodedBytes, true).isOverflow()) {
+            return;
+        }
+        encoderFlushed = encoder.flush(encodedBytes).isUnderflow();
+    }
+
+    /**
+     * Refills the (empty) buffer of encoded bytes and returns {@code false}
+     * if there are no more bytes to be read.
+     */
+    private boolean fillEncodedBytes() throws IOException {
+        if (encoderFlushed) {
             return false;
         }
-        ByteBuffer encodedBuffer = encoder.encode(CharBuffer.wrap(readChars, 0, readCount));
-        byte[] encoded = new byte[encodedBuffer.remaining()];
-        encodedBuffer.get(encoded);
-        byte[] oldCache;
-        byte[] newCache;
-        do {
-            oldCache = cacheRef.get();
-            newCache = new byte[oldCache.length + encoded.length];
-            System.arraycopy(oldCache, 0, newCache, 0, oldCache.length);
-            System.arraycopy(encoded, 0, newCache, oldCache.length, encoded.length);
-        } while (!cacheRef.compareAndSet(oldCache, newCache));
-        return true;
+
+        encodedBytes.clear();
+        try {
+            while (encodedBytes.position() == 0) {
+                if (endOfInput) {
+                    encodeEndOfInput();
+                    break;
+                }
+
+                // A lone high surrogate at the end of the read characters is
+                // left in the buffer until the next character is read.
+                encoder.encode(readChars, encodedBytes, false);
+                if (encodedBytes.position() == 0) {
+                    readCharsFromReader();
+                }
+            }
+        } finally {
+            encodedBytes.flip();
+        }
+        return encodedBytes.hasRemaining();
+    }
+
+    /**
+     * Returns the number of encoded bytes which can be read without reading
+     * from the underlying reader.
+     */
+    @Override
+    public int available() throws IOException {
+        return encodedBytes.remaining();
     }
 
     @Override
     public int read() throws IOException {
-        byte[] result = new byte[1];
-        if (read(result) <= 0) {
+        if (read(singleByte, 0, 1) <= 0) {
             // Althouth the above read should never return zero.
             return -1;
         }
         else {
-            return (int)result[0] & 0xFF;
+            return (int)singleByte[0] & 0xFF;
         }
     }
 
@@ -91,8 +141,6 @@ public final class ReaderInputStream extends InputStream {
 
     @Override
     public int read(byte[] b, int off, int len) throws IOException {
-        // Note that while this method is implemented to be thread-safe
-        // calling it concurrently is unadvised, since read is not atomic.
         if (b == null) {
             throw new NullPointerException();
         }
@@ -102,19 +150,16 @@ public final class ReaderInputStream extends InputStream {
         else if (len == 0) {
             return 0;
         }
-        int currentOffset = off;
-        int currentLength = len;
-        int readCount = 0;
-        do {
-            int currentRead = readFromCache(b, currentOffset, currentLength);
-            readCount += currentRead;
-            currentOffset += currentRead;
-            currentLength -= currentRead;
-            if (readCount > 0) {
-                return readCount;
+
+        if (!encodedBytes.hasRemaining()) {
+            if (!fillEncodedBytes()) {
+                return -1;
             }
-        } while (readToCache(currentLength));
-        return readCount > 0 ? readCount : -1;
+        }
+
+        int readCount = Math.min(len, encodedBytes.remaining());
+        encodedBytes.get(b, off, readCount);
+        return readCount;
     }
 
     @Override
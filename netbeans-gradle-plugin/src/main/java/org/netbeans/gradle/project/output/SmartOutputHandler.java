@@ -1,6 +1,8 @@
 package org.netbeans.gradle.project.output;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -17,11 +19,45 @@ public final class SmartOutputHandler implements LineOutputWriter.Handler {
         public boolean tryConsumeLine(String line, OutputWriter output) throws IOException;
     }
 
+    /**
+     * Defines a consumer which might only consume lines containing at least
+     * one of its triggers. Lines not containing any of the triggers are not
+     * passed to the consumer, so lines not interesting to any of the
+     * consumers can be printed after a single scan of the line.
+     */
+    public static interface TriggeredConsumer extends Consumer {
+        /**
+         * Returns the triggers of this consumer. If the returned list is
+         * empty, every line is passed to this consumer.
+         */
+        public List<LineTrigger> getTriggers();
+    }
+
     private final OutputWriter output;
     private final Visitor[] visitors;
     private final Consumer[] processors;
+    private final LineTriggerMatcher triggerMatcher;
+    private final long alwaysCheckedMask;
+    private final OutputFolder folder;
 
     public SmartOutputHandler(OutputWriter output, List<Visitor> visitors, List<Consumer> processors) {
+        this(output, visitors, processors, null);
+    }
+
+    /**
+     * Creates a new handler which writes every line to the given log and
+     * starts folding the output after the line limit of the log is exceeded.
+     * The kept last lines of the folded output are printed when this handler
+     * is flushed.
+     *
+     * @param log the log to write the lines to. This argument can be
+     *   {@code null}, in which case the output is never folded.
+     */
+    public SmartOutputHandler(
+            OutputWriter output,
+            List<Visitor> visitors,
+            List<Consumer> processors,
+            BuildOutputLog log) {
         if (output == null) throw new NullPointerException("output");
         if (visitors == null) throw new NullPointerException("visitors");
         if (processors == null) throw new NullPointerException("processors");
@@ -36,6 +72,42 @@ public final class SmartOutputHandler implements LineOutputWriter.Handler {
         for (Consumer processor: this.processors) {
             if (processor == null) throw new NullPointerException("processor");
         }
+
+        int matchedCount = Math.min(this.processors.length, LineTriggerMatcher.MAX_CONSUMER_COUNT);
+        List<List<LineTrigger>> triggersOfConsumers = new ArrayList<List<LineTrigger>>(matchedCount);
+        long alwaysChecked = 0;
+        for (int i = 0; i < matchedCount; i++) {
+            List<LineTrigger> triggers = getTriggers(this.processors[i]);
+            if (triggers.isEmpty()) {
+                alwaysChecked |= 1L << i;
+                triggersOfConsumers.add(null);
+            }
+            else {
+                triggersOfConsumers.add(triggers);
+            }
+        }
+
+        this.triggerMatcher = new LineTriggerMatcher(triggersOfConsumers);
+        this.alwaysCheckedMask = alwaysChecked;
+        this.folder = log != null ? new OutputFolder(log) : null;
+    }
+
+    private static List<LineTrigger> getTriggers(Consumer processor) {
+        if (processor instanceof TriggeredConsumer) {
+            List<LineTrigger> result = ((TriggeredConsumer)processor).getTriggers();
+            if (result == null) throw new NullPointerException("TriggeredConsumer.getTriggers()");
+            return result;
+        }
+        else {
+            return Collections.emptyList();
+        }
+    }
+
+    private static boolean isTriggered(int processorIndex, long triggeredMask) {
+        if (processorIndex >= LineTriggerMatcher.MAX_CONSUMER_COUNT) {
+            return true;
+        }
+        return (triggeredMask & (1L << processorIndex)) != 0;
     }
 
     @Override
@@ -46,18 +118,49 @@ public final class SmartOutputHandler implements LineOutputWriter.Handler {
             try {
                 visitor.visitLine(line);
             } catch (Throwable ex) {
-                LOGGER.log(Level.SEVERE, "Unexpected failure while checking a line of the output.", error);
+                LOGGER.log(Level.SEVERE, "Unexpected failure while checking a line of the output.", ex);
+                error = ex;
+            }
+        }
+
+        List<String> linesToPrint = Collections.singletonList(line);
+        if (folder != null) {
+            try {
+                linesToPrint = folder.foldLine(line, output);
+            } catch (Throwable ex) {
+                LOGGER.log(Level.SEVERE, "Unexpected failure while folding the output.", ex);
                 error = ex;
             }
         }
 
-        for (Consumer processor: processors) {
+        for (String lineToPrint: linesToPrint) {
+            try {
+                printLine(lineToPrint);
+            } catch (Throwable ex) {
+                // Already logged by printLine.
+                error = ex;
+            }
+        }
+
+        rethrowError(error);
+    }
+
+    private void printLine(String line) throws IOException {
+        Throwable error = null;
+
+        long triggeredMask = alwaysCheckedMask | triggerMatcher.findTriggered(line);
+        for (int i = 0; i < processors.length; i++) {
+            if (!isTriggered(i, triggeredMask)) {
+                continue;
+            }
+
+            Consumer processor = processors[i];
             try {
                 if (processor.tryConsumeLine(line, output)) {
                     return;
                 }
             } catch (Throwable ex) {
-                LOGGER.log(Level.SEVERE, "Unexpected failure while analysing a line of the output.", error);
+                LOGGER.log(Level.SEVERE, "Unexpected failure while analysing a line of the output.", ex);
                 error = ex;
             }
         }
@@ -65,10 +168,14 @@ public final class SmartOutputHandler implements LineOutputWriter.Handler {
         try {
             output.println(line);
         } catch (Throwable ex) {
-            LOGGER.log(Level.SEVERE, "Unexpected failure while printing a line of the output.", error);
+            LOGGER.log(Level.SEVERE, "Unexpected failure while printing a line of the output.", ex);
             error = ex;
         }
 
+        rethrowError(error);
+    }
+
+    private static void rethrowError(Throwable error) throws IOException {
         if (error != null) {
             if (error instanceof IOException) {
                 throw (IOException)error;
@@ -85,6 +192,11 @@ public final class SmartOutputHandler implements LineOutputWriter.Handler {
 
     @Override
     public void flush() throws IOException {
+        if (folder != null) {
+            for (String line: folder.removeTail(output)) {
+                printLine(line);
+            }
+        }
         output.flush();
     }
 }
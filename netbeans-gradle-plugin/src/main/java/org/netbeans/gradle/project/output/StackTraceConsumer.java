@@ -2,6 +2,10 @@ package org.netbeans.gradle.project.output;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
@@ -16,19 +20,26 @@ import org.openide.filesystems.URLMapper;
 import org.openide.windows.OutputListener;
 import org.openide.windows.OutputWriter;
 
-public final class StackTraceConsumer implements SmartOutputHandler.Consumer {
+public final class StackTraceConsumer implements SmartOutputHandler.TriggeredConsumer {
     private static final Logger LOGGER = Logger.getLogger(StackTraceConsumer.class.getName());
 
     private static final Pattern LINE_PATTERN = Pattern.compile("(?:\\[catch\\])?\\sat (.*)\\((.*)\\.java\\:(\\d+)\\)");
+    private static final List<LineTrigger> TRIGGERS
+            = Collections.singletonList(LineTrigger.contains(".java:"));
 
     private final NbGradleProject project;
     private final ClassPath classPath;
+    // Maps "package/path/ClassName" to the source file found for the class.
+    // A consumer is created for each execution, so the source files found
+    // here are not kept after the execution completes.
+    private final ConcurrentMap<String, SourceFileRef> sourceFiles;
 
     public StackTraceConsumer(NbGradleProject project) {
         if (project == null) throw new NullPointerException("project");
 
         this.project = project;
         this.classPath = getClassPathFromProject(project);
+        this.sourceFiles = new ConcurrentHashMap<String, SourceFileRef>();
     }
 
     private static ClassPath getClassPathFromProject(NbGradleProject project) {
@@ -46,21 +57,11 @@ public final class StackTraceConsumer implements SmartOutputHandler.Consumer {
         return classPath;
     }
 
-    private OutputListener tryCreateLinkListener(
-            SourceForBinaryQuery.Result sourceForBinary,
-            String path,
-            String lineNum) {
-
-        FileObject[] rootz = sourceForBinary.getRoots();
-        for (int i = 0; i < rootz.length; i++) {
-            FileObject javaFo = rootz[i].getFileObject(path);
+    private static FileObject tryFindSourceFile(SourceForBinaryQuery.Result sourceForBinary, String path) {
+        for (FileObject root: sourceForBinary.getRoots()) {
+            FileObject javaFo = root.getFileObject(path);
             if (javaFo != null) {
-                int lineInt = -1;
-                try {
-                    lineInt = Integer.parseInt(lineNum) - 1;
-                } catch (NumberFormatException ex) {
-                }
-                return OpenEditorOutputListener.tryCreateListener(javaFo, lineInt);
+                return javaFo;
             }
         }
         return null;
@@ -68,20 +69,7 @@ public final class StackTraceConsumer implements SmartOutputHandler.Consumer {
 
     // This method is based on
     // org.netbeans.modules.maven.api.output.OutputUtils.matchStackTraceLine
-    private OutputListener matchStackTraceLine(String line) {
-        Matcher match = LINE_PATTERN.matcher(line);
-        if (!match.matches()) {
-            return null;
-        }
-
-        String method = match.group(1);
-        String file = match.group(2);
-        String lineNum = match.group(3);
-        int index = method.indexOf(file);
-        if (index < 0) {
-            return null;
-        }
-        String packageName = method.substring(0, index).replace('.', '/');
+    private FileObject tryFindSourceFile(String packageName, String file) {
         String resourceName = packageName + file + ".class";
         FileObject resource = classPath.findResource(resourceName);
         if (resource == null) {
@@ -98,7 +86,7 @@ public final class StackTraceConsumer implements SmartOutputHandler.Consumer {
         for (SourceForBinaryQueryImplementation query: project.getLookup().lookupAll(SourceForBinaryQueryImplementation.class)) {
             SourceForBinaryQuery.Result sourceForBinary = query.findSourceRoots(url);
             if (sourceForBinary != null) {
-                OutputListener result = tryCreateLinkListener(sourceForBinary, path, lineNum);
+                FileObject result = tryFindSourceFile(sourceForBinary, path);
                 if (result != null) {
                     return result;
                 }
@@ -109,7 +97,77 @@ public final class StackTraceConsumer implements SmartOutputHandler.Consumer {
         if (sourceForBinary == null) {
             return null;
         }
-        return tryCreateLinkListener(sourceForBinary, path, lineNum);
+        return tryFindSourceFile(sourceForBinary, path);
+    }
+
+    private FileObject tryGetSourceFile(String packageName, String file) {
+        String key = packageName + file;
+
+        SourceFileRef result = sourceFiles.get(key);
+        if (result == null) {
+            result = new SourceFileRef(tryFindSourceFile(packageName, file));
+            SourceFileRef prevResult = sourceFiles.putIfAbsent(key, result);
+            if (prevResult != null) {
+                result = prevResult;
+            }
+        }
+        return result.file;
+    }
+
+    private OutputListener matchStackTraceLine(String line) {
+        Matcher match = LINE_PATTERN.matcher(line);
+        if (!match.matches()) {
+            return null;
+        }
+
+        String method = match.group(1);
+        String file = match.group(2);
+        String lineNum = match.group(3);
+        int index = method.indexOf(file);
+        if (index < 0) {
+            return null;
+        }
+        String packageName = method.substring(0, index).replace('.', '/');
+
+        FileObject sourceFile = tryGetSourceFile(packageName, file);
+        if (sourceFile == null) {
+            return null;
+        }
+
+        int lineInt = -1;
+        try {
+            lineInt = Integer.parseInt(lineNum) - 1;
+        } catch (NumberFormatException ex) {
+        }
+        return OpenEditorOutputListener.createLazyListener(sourceFile, lineInt);
+    }
+
+    /**
+     * Returns a listener opening the source file of the given class at the
+     * given line or {@code null} if the source file cannot be found.
+     *
+     * @param className the fully qualified (binary) name of the class
+     * @param lineNumber the line number starting from one or -1 if the line
+     *   is not known
+     */
+    public OutputListener tryCreateSourceListener(String className, int lineNumber) {
+        int simpleNameStart = className.lastIndexOf('.') + 1;
+        int nestedClassStart = className.indexOf('$', simpleNameStart);
+        String packageName = className.substring(0, simpleNameStart).replace('.', '/');
+        String file = nestedClassStart >= 0
+                ? className.substring(simpleNameStart, nestedClassStart)
+                : className.substring(simpleNameStart);
+
+        FileObject sourceFile = tryGetSourceFile(packageName, file);
+        if (sourceFile == null) {
+            return null;
+        }
+        return OpenEditorOutputListener.createLazyListener(sourceFile, lineNumber > 0 ? lineNumber - 1 : -1);
+    }
+
+    @Override
+    public List<LineTrigger> getTriggers() {
+        return TRIGGERS;
     }
 
     @Override
@@ -123,4 +181,13 @@ public final class StackTraceConsumer implements SmartOutputHandler.Consumer {
             return false;
         }
     }
+
+    private static final class SourceFileRef {
+        // null if there is no source file for the class
+        public final FileObject file;
+
+        public SourceFileRef(FileObject file) {
+            this.file = file;
+        }
+    }
 }
@@ -1,18 +1,28 @@
 package org.netbeans.gradle.project.output;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.project.tasks.AsyncGradleTask;
+import org.netbeans.gradle.project.tasks.BuildProfile;
 import org.netbeans.gradle.project.tasks.GradleTaskDef;
 import org.openide.windows.InputOutput;
+import org.openide.windows.OutputWriter;
 
 public final class TaskIOTab implements IOTabDef {
+    private static final Logger LOGGER = Logger.getLogger(TaskIOTab.class.getName());
+
     private final InputOutputWrapper io;
     private final TaskTabAction[] actions;
+    private final AtomicLong retainedCharCount;
 
     public TaskIOTab(InputOutput io, TaskTabAction... actions) {
         this.io = new InputOutputWrapper(io);
         this.actions = actions.clone();
+        this.retainedCharCount = new AtomicLong(0);
 
         CollectionUtils.checkNoNullElements(Arrays.asList(this.actions), "actions");
     }
@@ -23,6 +33,12 @@ public final class TaskIOTab implements IOTabDef {
         }
     }
 
+    public void setLastProfile(BuildProfile profile) {
+        for (TaskTabAction action: actions) {
+            action.setLastProfile(profile);
+        }
+    }
+
     public void taskStarted() {
         for (TaskTabAction action: actions) {
             action.taskStarted();
@@ -39,6 +55,38 @@ public final class TaskIOTab implements IOTabDef {
         return io;
     }
 
+    /**
+     * Returns a writer forwarding to the given output of this tab and
+     * counting the characters written to this tab through it.
+     */
+    public OutputWriter countWrittenChars(OutputWriter output) {
+        return new CharCountingOutputWriter(output, retainedCharCount);
+    }
+
+    /**
+     * Must be called after the content of this tab was cleared.
+     */
+    public void outputCleared() {
+        retainedCharCount.set(0);
+    }
+
+    @Override
+    public long getRetainedCharCount() {
+        return retainedCharCount.get();
+    }
+
+    @Override
+    public void release() {
+        // The tab is kept open, so that the user does not lose the tab and it
+        // can be reused.
+        try {
+            io.getOutRef().reset();
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to clear the output of the tab.", ex);
+        }
+        retainedCharCount.set(0);
+    }
+
     @Override
     public boolean isClosed() {
         return io.getIo().isClosed();
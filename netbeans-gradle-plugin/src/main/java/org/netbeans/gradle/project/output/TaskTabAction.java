@@ -3,12 +3,14 @@ package org.netbeans.gradle.project.output;
 import javax.swing.AbstractAction;
 import javax.swing.SwingUtilities;
 import org.netbeans.gradle.project.tasks.AsyncGradleTask;
+import org.netbeans.gradle.project.tasks.BuildProfile;
 import org.netbeans.gradle.project.tasks.GradleTaskDef;
 
 @SuppressWarnings("serial")
 public abstract class TaskTabAction extends AbstractAction {
     private volatile GradleTaskDef lastSourceTask;
     private volatile AsyncGradleTask lastTask;
+    private volatile BuildProfile lastProfile;
 
     public TaskTabAction() {
         this.lastTask = null;
@@ -27,6 +29,14 @@ public abstract class TaskTabAction extends AbstractAction {
         this.lastTask = lastTask;
     }
 
+    protected final void setLastProfile(BuildProfile lastProfile) {
+        this.lastProfile = lastProfile;
+    }
+
+    protected final BuildProfile getLastProfile() {
+        return lastProfile;
+    }
+
     protected final GradleTaskDef getLastSourceTask() {
         return lastSourceTask;
     }
@@ -3,28 +3,115 @@ package org.netbeans.gradle.project.output;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 
+/**
+ * Defines an {@code OutputStream} decoding the bytes written to it and
+ * forwarding the decoded characters to a {@code Writer}.
+ * <P>
+ * Multibyte characters might be split between subsequent writes: The bytes of
+ * incomplete characters are kept until the remaining bytes are written.
+ * Malformed input is replaced with the replacement character of the charset.
+ * <P>
+ * Instances of this class are not safe to be used concurrently by multiple
+ * threads.
+ */
 public final class WriterOutputStream extends OutputStream {
+    private static final int CHAR_BUFFER_SIZE = 8 * 1024;
+    // Must be able to hold the bytes of any incomplete character.
+    private static final int PENDING_BUFFER_SIZE = 32;
+
     private final Writer writer;
-    private final Charset encoding;
+    private final CharsetDecoder decoder;
+    private final CharBuffer decodedChars;
+    private final ByteBuffer pendingBytes;
+    private final byte[] singleByte;
+    private boolean closed;
 
     public WriterOutputStream(Writer writer, Charset encoding) {
         if (writer == null)
             throw new NullPointerException("writer");
         if (encoding == null)
             throw new NullPointerException("encoding");
+
         this.writer = writer;
-        this.encoding = encoding;
+        this.decoder = encoding.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.decodedChars = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+        this.pendingBytes = ByteBuffer.allocate(PENDING_BUFFER_SIZE);
+        this.singleByte = new byte[1];
+        this.closed = false;
     }
 
     public WriterOutputStream(Writer writer) {
         this(writer, Charset.defaultCharset());
     }
 
+    private void writeDecodedChars() throws IOException {
+        decodedChars.flip();
+        if (decodedChars.hasRemaining()) {
+            writer.write(decodedChars.array(),
+                    decodedChars.arrayOffset() + decodedChars.position(),
+                    decodedChars.remaining());
+        }
+        decodedChars.clear();
+    }
+
+    private void decode(ByteBuffer input, boolean endOfInput) throws IOException {
+        while (true) {
+            CoderResult result = decoder.decode(input, decodedChars, endOfInput);
+            if (result.isOverflow()) {
+                writeDecodedChars();
+            }
+            else {
+                // Errors are replaced, so this must be an underflow.
+                break;
+            }
+        }
+    }
+
+    private void completePendingBytes(ByteBuffer input) throws IOException {
+        // Feed the bytes one by one, so that we do not have to copy more
+        // than the remaining bytes of the incomplete character.
+        while (pendingBytes.position() > 0 && input.hasRemaining()) {
+            pendingBytes.put(input.get());
+            pendingBytes.flip();
+            decode(pendingBytes, false);
+            pendingBytes.compact();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("The stream has been closed.");
+        }
+    }
+
     @Override
     public void close() throws IOException {
-        writer.close();
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        try {
+            pendingBytes.flip();
+            decode(pendingBytes, true);
+            pendingBytes.clear();
+
+            while (decoder.flush(decodedChars).isOverflow()) {
+                writeDecodedChars();
+            }
+            writeDecodedChars();
+        } finally {
+            writer.close();
+        }
     }
 
     @Override
@@ -34,16 +121,35 @@ public final class WriterOutputStream extends OutputStream {
 
     @Override
     public void write(byte[] b) throws IOException {
-        writer.write(new String(b, encoding));
+        write(b, 0, b.length);
     }
 
     @Override
     public void write(byte[] b, int off, int len) throws IOException {
-        writer.write(new String(b, off, len, encoding));
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        ensureOpen();
+
+        ByteBuffer input = ByteBuffer.wrap(b, off, len);
+        completePendingBytes(input);
+
+        if (input.hasRemaining()) {
+            decode(input, false);
+            // The remaining bytes are the beginning of an incomplete
+            // character.
+            pendingBytes.put(input);
+        }
+
+        // The characters are forwarded immediately because there might be
+        // a long time until the next write.
+        writeDecodedChars();
     }
 
     @Override
     public void write(int b) throws IOException {
-        write(new byte[]{(byte)b});
+        singleByte[0] = (byte)b;
+        write(singleByte, 0, 1);
     }
 }
@@ -0,0 +1,376 @@
+package org.netbeans.gradle.project.persistent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.event.ChangeListener;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import org.netbeans.gradle.project.properties.AuxConfigProperty;
+import org.netbeans.gradle.project.properties.DomElementKey;
+import org.netbeans.gradle.project.properties.MutableProperty;
+import org.netbeans.gradle.project.properties.PropertySource;
+import org.netbeans.gradle.project.properties.SingleStoreAuxConfig;
+import org.openide.util.ChangeSupport;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.SAXException;
+
+/**
+ * Stores auxiliary configuration fragments in a directory, each fragment in
+ * its own file. Fragments are read from the disk when they are first
+ * requested and only the fragments changed since the last save are written,
+ * so changing a fragment never rewrites the other fragments (or any other
+ * property file).
+ * <P>
+ * Fragments not found in the directory are looked up in the fallback storage
+ * (which is where they were stored previously). A fragment is removed from
+ * the fallback storage when it is first changed through this store.
+ * <P>
+ * There must be at most one store for a directory at any time, otherwise the
+ * stores would serve stale values and overwrite each other's files.
+ * <P>
+ * The methods of this class are safe to be called from multiple threads
+ * concurrently.
+ */
+public final class AuxConfigFileStore implements SingleStoreAuxConfig.AuxConfigStorage {
+    private static final Logger LOGGER = Logger.getLogger(AuxConfigFileStore.class.getName());
+
+    private static final String FILE_ENCODING = "UTF-8";
+    private static final String FRAGMENT_FILE_SUFFIX = ".xml";
+    // URLEncoder always escapes this character, so it can separate the
+    // element name from the namespace.
+    private static final char KEY_SEPARATOR = '@';
+
+    // These factories are not required to be thread-safe, so they must be
+    // accessed while holding their monitor.
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = createDocumentBuilderFactory();
+    private static final TransformerFactory TRANSFORMER_FACTORY = TransformerFactory.newInstance();
+
+    private final File storeDir;
+    private final SingleStoreAuxConfig.AuxConfigStorage fallback;
+    private final ConcurrentMap<DomElementKey, FragmentProperty> fragments;
+    private final DelayedSaveTask saveTask;
+    private volatile boolean listed;
+
+    public AuxConfigFileStore(File storeDir, SingleStoreAuxConfig.AuxConfigStorage fallback) {
+        if (storeDir == null) throw new NullPointerException("storeDir");
+        if (fallback == null) throw new NullPointerException("fallback");
+
+        this.storeDir = storeDir;
+        this.fallback = fallback;
+        this.fragments = new ConcurrentHashMap<DomElementKey, FragmentProperty>();
+        this.saveTask = new DelayedSaveTask(new Runnable() {
+            @Override
+            public void run() {
+                saveChangedFragments();
+            }
+        });
+        this.listed = false;
+    }
+
+    private static DocumentBuilderFactory createDocumentBuilderFactory() {
+        DocumentBuilderFactory result = DocumentBuilderFactory.newInstance();
+        result.setNamespaceAware(true);
+        return result;
+    }
+
+    private static DocumentBuilder newDocumentBuilder() throws ParserConfigurationException {
+        synchronized (DOCUMENT_BUILDER_FACTORY) {
+            return DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+        }
+    }
+
+    private static Transformer newTransformer() throws TransformerException {
+        synchronized (TRANSFORMER_FACTORY) {
+            return TRANSFORMER_FACTORY.newTransformer();
+        }
+    }
+
+    private static String encode(String str) {
+        try {
+            return URLEncoder.encode(str, FILE_ENCODING);
+        } catch (UnsupportedEncodingException ex) {
+            throw new AssertionError(ex);
+        }
+    }
+
+    private static String decode(String str) {
+        try {
+            return URLDecoder.decode(str, FILE_ENCODING);
+        } catch (UnsupportedEncodingException ex) {
+            throw new AssertionError(ex);
+        }
+    }
+
+    static String getFileName(DomElementKey key) {
+        String name = key.getName() != null ? key.getName() : "";
+        String namespace = key.getNamespace() != null ? key.getNamespace() : "";
+        return encode(name) + KEY_SEPARATOR + encode(namespace) + FRAGMENT_FILE_SUFFIX;
+    }
+
+    static DomElementKey tryGetKey(String fileName) {
+        if (!fileName.endsWith(FRAGMENT_FILE_SUFFIX)) {
+            return null;
+        }
+
+        String encodedKey = fileName.substring(0, fileName.length() - FRAGMENT_FILE_SUFFIX.length());
+        int separatorIndex = encodedKey.indexOf(KEY_SEPARATOR);
+        if (separatorIndex < 0) {
+            return null;
+        }
+
+        try {
+            String name = decode(encodedKey.substring(0, separatorIndex));
+            String namespace = decode(encodedKey.substring(separatorIndex + 1));
+            return new DomElementKey(
+                    name.isEmpty() ? null : name,
+                    namespace.isEmpty() ? null : namespace);
+        } catch (IllegalArgumentException ex) {
+            // Not a file created by this store.
+            return null;
+        }
+    }
+
+    private FragmentProperty getFragment(DomElementKey key) {
+        FragmentProperty result = fragments.get(key);
+        if (result == null) {
+            result = new FragmentProperty(key);
+            FragmentProperty prevValue = fragments.putIfAbsent(key, result);
+            if (prevValue != null) {
+                result = prevValue;
+            }
+        }
+        return result;
+    }
+
+    private void ensureListed() {
+        if (listed) {
+            return;
+        }
+
+        String[] fileNames = storeDir.list();
+        if (fileNames != null) {
+            for (String fileName: fileNames) {
+                DomElementKey key = tryGetKey(fileName);
+                if (key != null) {
+                    getFragment(key);
+                }
+            }
+        }
+        listed = true;
+    }
+
+    @Override
+    public AuxConfigProperty getAuxConfig(String elementName, String namespace) {
+        DomElementKey key = new DomElementKey(elementName, namespace);
+        return new AuxConfigProperty(key, getFragment(key));
+    }
+
+    @Override
+    public Collection<AuxConfigProperty> getAllAuxConfigs() {
+        ensureListed();
+
+        List<AuxConfigProperty> result = new ArrayList<AuxConfigProperty>();
+        for (AuxConfigProperty fallbackConfig: fallback.getAllAuxConfigs()) {
+            if (fallbackConfig.getProperty().getValue() != null) {
+                getFragment(fallbackConfig.getKey());
+            }
+        }
+
+        for (FragmentProperty fragment: fragments.values()) {
+            if (fragment.getValue() != null) {
+                result.add(new AuxConfigProperty(fragment.key, fragment));
+            }
+        }
+        return result;
+    }
+
+    private void saveChangedFragments() {
+        for (FragmentProperty fragment: fragments.values()) {
+            fragment.saveIfChanged();
+        }
+    }
+
+    private Element readFragment(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try {
+            Document document = newDocumentBuilder().parse(file);
+            return document.getDocumentElement();
+        } catch (ParserConfigurationException ex) {
+            LOGGER.log(Level.SEVERE, "Unexpected parser configuration error.", ex);
+        } catch (SAXException ex) {
+            LOGGER.log(Level.INFO, "Failed to parse auxiliary configuration: " + file, ex);
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to read auxiliary configuration: " + file, ex);
+        }
+        return null;
+    }
+
+    private static byte[] renderFragment(Element element) throws ParserConfigurationException, TransformerException {
+        Document document = newDocumentBuilder().newDocument();
+        document.appendChild(document.importNode(element, true));
+
+        Transformer transformer = newTransformer();
+        transformer.setOutputProperty(OutputKeys.ENCODING, FILE_ENCODING);
+        transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream(1024);
+        transformer.transform(new DOMSource(document), new StreamResult(output));
+        return output.toByteArray();
+    }
+
+    private void writeFragment(File file, Element element) {
+        if (element == null) {
+            if (file.exists() && !file.delete()) {
+                LOGGER.log(Level.WARNING, "Failed to remove auxiliary configuration: {0}", file);
+            }
+            return;
+        }
+
+        if (!storeDir.mkdirs()) {
+            if (!storeDir.isDirectory()) {
+                LOGGER.log(Level.WARNING, "Cannot create directory: {0}", storeDir);
+                return;
+            }
+        }
+
+        try {
+            PropertyFileWriter.DEFAULT.writeIfChanged(file, renderFragment(element));
+        } catch (ParserConfigurationException ex) {
+            LOGGER.log(Level.SEVERE, "Unexpected parser configuration error.", ex);
+        } catch (TransformerException ex) {
+            LOGGER.log(Level.INFO, "Failed to save auxiliary configuration: " + file, ex);
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to save auxiliary configuration: " + file, ex);
+        }
+    }
+
+    private static boolean isSameElement(Element element1, Element element2) {
+        if (element1 == null || element2 == null) {
+            return element1 == element2;
+        }
+        return element1.isEqualNode(element2);
+    }
+
+    private final class FragmentProperty implements MutableProperty<Element> {
+        private final DomElementKey key;
+        private final File file;
+        private final ChangeSupport changes;
+
+        // These fields are guarded by the monitor of this property.
+        private boolean loaded;
+        private boolean changed;
+        private Element value;
+
+        public FragmentProperty(DomElementKey key) {
+            this.key = key;
+            this.file = new File(storeDir, getFileName(key));
+            this.changes = new ChangeSupport(this);
+            this.loaded = false;
+            this.changed = false;
+            this.value = null;
+        }
+
+        private Element loadValue() {
+            Element result = readFragment(file);
+            if (result == null) {
+                result = fallback.getAuxConfig(key.getName(), key.getNamespace()).getProperty().getValue();
+            }
+            return result;
+        }
+
+        private synchronized Element getLoadedValue() {
+            if (!loaded) {
+                value = loadValue();
+                loaded = true;
+            }
+            return value;
+        }
+
+        public void saveIfChanged() {
+            Element valueToSave;
+            synchronized (this) {
+                if (!changed) {
+                    return;
+                }
+                valueToSave = value != null ? (Element)value.cloneNode(true) : null;
+                changed = false;
+            }
+
+            writeFragment(file, valueToSave);
+        }
+
+        @Override
+        public void setValueFromSource(PropertySource<? extends Element> source) {
+            setValue(source.getValue());
+        }
+
+        @Override
+        public void setValue(Element newValue) {
+            Element valueToSet = newValue != null ? (Element)newValue.cloneNode(true) : null;
+            synchronized (this) {
+                Element prevValue = getLoadedValue();
+                if (isSameElement(prevValue, valueToSet)) {
+                    return;
+                }
+
+                value = valueToSet;
+                changed = true;
+            }
+
+            // The previous location of this fragment must not override the
+            // value stored by this store.
+            MutableProperty<Element> fallbackProperty
+                    = fallback.getAuxConfig(key.getName(), key.getNamespace()).getProperty();
+            if (fallbackProperty.getValue() != null) {
+                fallbackProperty.setValue(null);
+            }
+
+            saveTask.requestSave();
+            changes.fireChange();
+        }
+
+        @Override
+        public Element getValue() {
+            Element result = getLoadedValue();
+            return result != null ? (Element)result.cloneNode(true) : null;
+        }
+
+        @Override
+        public boolean isDefault() {
+            return getLoadedValue() == null;
+        }
+
+        @Override
+        public void addChangeListener(ChangeListener listener) {
+            changes.addChangeListener(listener);
+        }
+
+        @Override
+        public void removeChangeListener(ChangeListener listener) {
+            changes.removeChangeListener(listener);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.netbeans.gradle.project.persistent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.netbeans.gradle.project.properties.GlobalGradleSettings;
+import org.openide.util.RequestProcessor;
+
+/**
+ * Runs a save task on the {@link PropertiesPersister#PERSISTER_PROCESSOR}
+ * after the saved data was not changed for the configured period, so that
+ * consecutive changes are saved at once. The save is never postponed by more
+ * than {@link #MAX_TOTAL_DELAY_MS} (or the configured delay, if larger) after
+ * the first unsaved change, even if the data is changed continuously.
+ * <P>
+ * Pending saves can be executed immediately by {@link #flushAll(long) },
+ * which must be done before the data could get lost (e.g.: when a project is
+ * closed or the IDE exits).
+ * <P>
+ * The methods of this class are safe to be called from multiple threads
+ * concurrently.
+ */
+public final class DelayedSaveTask {
+    private static final Logger LOGGER = Logger.getLogger(DelayedSaveTask.class.getName());
+
+    public static final int MAX_TOTAL_DELAY_MS = 10000;
+
+    private static final Set<DelayedSaveTask> PENDING_TASKS
+            = Collections.newSetFromMap(new ConcurrentHashMap<DelayedSaveTask, Boolean>());
+
+    private final Runnable saveTask;
+    private final RequestProcessor.Task task;
+
+    // Guarded by the monitor of this object.
+    private long firstRequestTime;
+    private boolean pending;
+
+    public DelayedSaveTask(Runnable saveTask) {
+        if (saveTask == null) throw new NullPointerException("saveTask");
+
+        this.saveTask = saveTask;
+        this.task = PropertiesPersister.PERSISTER_PROCESSOR.create(new Runnable() {
+            @Override
+            public void run() {
+                runPendingSave();
+            }
+        });
+        this.firstRequestTime = 0;
+        this.pending = false;
+    }
+
+    private static int getSaveDelayMs() {
+        Integer delay = GlobalGradleSettings.getPropertiesSaveDelayMs().getValue();
+        return delay != null ? Math.max(delay, 0) : 0;
+    }
+
+    private void runPendingSave() {
+        synchronized (this) {
+            if (!pending) {
+                return;
+            }
+            pending = false;
+            // Must be done while holding the monitor, otherwise a concurrent
+            // requestSave() could be removed from the pending tasks.
+            PENDING_TASKS.remove(this);
+        }
+
+        saveTask.run();
+    }
+
+    /**
+     * Schedules the save task to be executed after the configured delay.
+     */
+    public void requestSave() {
+        int saveDelay = getSaveDelayMs();
+        long maxTotalDelay = Math.max(saveDelay, MAX_TOTAL_DELAY_MS);
+
+        long delay;
+        synchronized (this) {
+            long currentTime = System.nanoTime();
+            if (!pending) {
+                pending = true;
+                firstRequestTime = currentTime;
+            }
+
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(currentTime - firstRequestTime);
+            delay = Math.max(0, Math.min(saveDelay, maxTotalDelay - elapsedMs));
+            PENDING_TASKS.add(this);
+        }
+
+        task.schedule((int)delay);
+    }
+
+    /**
+     * Executes the save task immediately if there is a pending save.
+     */
+    public void flush() {
+        boolean hasPendingSave;
+        synchronized (this) {
+            hasPendingSave = pending;
+        }
+
+        if (hasPendingSave) {
+            task.schedule(0);
+        }
+    }
+
+    /**
+     * Executes every pending save immediately and waits until they complete
+     * but at most the given amount of time.
+     *
+     * @param timeoutMs the maximum time to wait for the saves to complete in
+     *   milliseconds. This argument can be zero, in which case this method
+     *   does not wait at all.
+     */
+    public static void flushAll(long timeoutMs) {
+        List<DelayedSaveTask> tasks = new ArrayList<DelayedSaveTask>(PENDING_TASKS);
+        for (DelayedSaveTask pendingTask: tasks) {
+            pendingTask.flush();
+        }
+
+        if (timeoutMs <= 0) {
+            return;
+        }
+
+        long endTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        for (DelayedSaveTask pendingTask: tasks) {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(endTime - System.nanoTime());
+            try {
+                if (remainingMs <= 0 || !pendingTask.task.waitFinished(remainingMs)) {
+                    LOGGER.log(Level.WARNING, "Timeout while waiting for the properties to be saved.");
+                    return;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.netbeans.gradle.project.persistent;
+
+import org.openide.modules.OnStop;
+
+/**
+ * Saves the properties whose save has been delayed when the IDE exits (or
+ * this module is disabled).
+ */
+@OnStop
+public final class PendingSavesFlusher implements Runnable {
+    private static final long SAVE_TIMEOUT_MS = 10000;
+
+    @Override
+    public void run() {
+        DelayedSaveTask.flushAll(SAVE_TIMEOUT_MS);
+    }
+}
@@ -0,0 +1,220 @@
+package org.netbeans.gradle.project.persistent;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes the content of property files only if it differs from the content
+ * of the file, so that saving unchanged properties does not modify the file
+ * (and its modification time). The files are written to a temporary file
+ * first, which is then renamed to the target file, so that readers never see
+ * partially written files.
+ * <P>
+ * Note that replacing the file is not atomic on platforms where a file
+ * cannot be renamed over an existing file (e.g.: Windows). On these
+ * platforms, the existing file is renamed to a backup file first, so there
+ * is a short period when the target file does not exist. The backup file is
+ * restored if the new content cannot be moved to the target file.
+ * <P>
+ * This class remembers the digest of the content last written to a file
+ * (along with the size and modification time of the written file), so that
+ * unchanged content can usually be detected without reading the file.
+ * <P>
+ * The methods of this class are safe to be called from multiple threads
+ * concurrently.
+ */
+final class PropertyFileWriter {
+    private static final Logger LOGGER = Logger.getLogger(PropertyFileWriter.class.getName());
+
+    private static final int DEFAULT_CAPACITY = 256;
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+
+    public static final PropertyFileWriter DEFAULT = new PropertyFileWriter(DEFAULT_CAPACITY);
+
+    private final Map<File, WrittenContent> writtenContents;
+
+    public PropertyFileWriter(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than zero: " + capacity);
+        }
+
+        this.writtenContents = new LinkedHashMap<File, WrittenContent>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<File, WrittenContent> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    private static File getKey(File file) {
+        try {
+            return file.getCanonicalFile();
+        } catch (IOException ex) {
+            return file.getAbsoluteFile();
+        }
+    }
+
+    private static byte[] getDigest(byte[] content) {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM).digest(content);
+        } catch (NoSuchAlgorithmException ex) {
+            // Every Java implementation is required to support SHA-1.
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private static byte[] readFile(File file, int expectedLength) throws IOException {
+        byte[] result = new byte[expectedLength];
+        InputStream input = new FileInputStream(file);
+        try {
+            int offset = 0;
+            while (offset < expectedLength) {
+                int readCount = input.read(result, offset, expectedLength - offset);
+                if (readCount <= 0) {
+                    return null;
+                }
+                offset += readCount;
+            }
+
+            return input.read() < 0 ? result : null;
+        } finally {
+            input.close();
+        }
+    }
+
+    private static void writeBytesToFile(File outputFile, byte[] content) throws IOException {
+        OutputStream output = new FileOutputStream(outputFile);
+        try {
+            output.write(content);
+        } finally {
+            output.close();
+        }
+    }
+
+    private static boolean replaceWithBackup(File file, File tempFile) {
+        File backupFile = new File(tempFile.getPath() + ".bak");
+        if (!file.renameTo(backupFile)) {
+            return false;
+        }
+
+        if (tempFile.renameTo(file)) {
+            if (!backupFile.delete()) {
+                LOGGER.log(Level.WARNING, "Failed to delete backup file: {0}", backupFile);
+            }
+            return true;
+        }
+
+        if (!backupFile.renameTo(file)) {
+            LOGGER.log(Level.SEVERE, "Failed to restore {0} from its backup: {1}",
+                    new Object[]{file, backupFile});
+        }
+        return false;
+    }
+
+    private static void writeAtomically(File file, byte[] content) throws IOException {
+        File dir = file.getParentFile();
+        File tempFile = File.createTempFile(file.getName() + ".", ".tmp", dir);
+        try {
+            writeBytesToFile(tempFile, content);
+            if (tempFile.renameTo(file)) {
+                return;
+            }
+
+            // Renaming fails on some platforms (e.g.: Windows) if the target
+            // file exists, so move the existing file out of the way first.
+            if (replaceWithBackup(file, tempFile)) {
+                return;
+            }
+
+            LOGGER.log(Level.WARNING, "Failed to rename {0} to {1}, overwriting the file instead.",
+                    new Object[]{tempFile, file});
+            writeBytesToFile(file, content);
+        } finally {
+            if (tempFile.exists() && !tempFile.delete()) {
+                LOGGER.log(Level.WARNING, "Failed to delete temporary file: {0}", tempFile);
+            }
+        }
+    }
+
+    private boolean hasContent(File file, byte[] content, byte[] digest) throws IOException {
+        if (!file.isFile() || file.length() != content.length) {
+            return false;
+        }
+
+        WrittenContent written;
+        synchronized (writtenContents) {
+            written = writtenContents.get(file);
+        }
+
+        if (written != null && written.isUpToDate(file)) {
+            return Arrays.equals(written.digest, digest);
+        }
+
+        // The file was written by someone else, so we have to check its
+        // content.
+        byte[] currentContent = readFile(file, content.length);
+        return currentContent != null && Arrays.equals(currentContent, content);
+    }
+
+    private void remember(File file, byte[] digest) {
+        WrittenContent written = new WrittenContent(digest, file.lastModified(), file.length());
+        synchronized (writtenContents) {
+            writtenContents.put(file, written);
+        }
+    }
+
+    /**
+     * Writes the given content to the given file, unless the file already
+     * has exactly the given content.
+     * <P>
+     * Writes of the same file must not be done concurrently.
+     *
+     * @return {@code true} if the file was written, {@code false} if the
+     *   file was left untouched because it already had the given content
+     */
+    public boolean writeIfChanged(File file, byte[] content) throws IOException {
+        if (file == null) throw new NullPointerException("file");
+        if (content == null) throw new NullPointerException("content");
+
+        File key = getKey(file);
+        byte[] digest = getDigest(content);
+
+        if (hasContent(key, content, digest)) {
+            remember(key, digest);
+            return false;
+        }
+
+        writeAtomically(key, content);
+        remember(key, digest);
+        return true;
+    }
+
+    private static final class WrittenContent {
+        public final byte[] digest;
+        public final long lastModified;
+        public final long length;
+
+        public WrittenContent(byte[] digest, long lastModified, long length) {
+            this.digest = digest;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        public boolean isUpToDate(File file) {
+            return file.lastModified() == lastModified && file.length() == length;
+        }
+    }
+}
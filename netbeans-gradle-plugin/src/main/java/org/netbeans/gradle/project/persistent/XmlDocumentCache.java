@@ -0,0 +1,133 @@
+package org.netbeans.gradle.project.persistent;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.ParserConfigurationException;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * Caches the parsed XML documents of property files, so that a property file
+ * shared by many projects (e.g.: the properties of the root project) is
+ * parsed only once when opening these projects. Cached documents are
+ * identified by the canonical path of the file, its last modification time
+ * and its size.
+ * <P>
+ * The documents returned by this cache are shared, so they must not be
+ * modified and must only be read while holding the monitor of the document.
+ * <P>
+ * The methods of this class are safe to be called from multiple threads
+ * concurrently.
+ */
+final class XmlDocumentCache {
+    private static final int DEFAULT_CAPACITY = 64;
+
+    public static final XmlDocumentCache DEFAULT = new XmlDocumentCache(new DomDocumentLoader(), DEFAULT_CAPACITY);
+
+    private final DocumentLoader loader;
+    private final Map<File, CachedDocument> cache;
+
+    public XmlDocumentCache(DocumentLoader loader, final int capacity) {
+        if (loader == null) throw new NullPointerException("loader");
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than zero: " + capacity);
+        }
+
+        this.loader = loader;
+        this.cache = new LinkedHashMap<File, CachedDocument>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<File, CachedDocument> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    private static File getKey(File file) {
+        try {
+            return file.getCanonicalFile();
+        } catch (IOException ex) {
+            return file.getAbsoluteFile();
+        }
+    }
+
+    private CachedDocument getEntry(File key) {
+        synchronized (cache) {
+            CachedDocument result = cache.get(key);
+            if (result == null) {
+                result = new CachedDocument();
+                cache.put(key, result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Returns the parsed document of the given file. The file is only parsed
+     * if it was not parsed before or it has been modified since it was last
+     * parsed. Concurrent requests for the same file wait for a single
+     * parsing.
+     */
+    public Document getDocument(File file) throws IOException, SAXException {
+        File key = getKey(file);
+        long lastModified = key.lastModified();
+        long length = key.length();
+
+        CachedDocument entry = getEntry(key);
+        synchronized (entry) {
+            if (entry.document == null || entry.lastModified != lastModified || entry.length != length) {
+                entry.document = null;
+                entry.document = loader.load(key);
+                entry.lastModified = lastModified;
+                entry.length = length;
+            }
+            return entry.document;
+        }
+    }
+
+    /**
+     * Removes the given file from the cache. This method must be called after
+     * the file was written, because the modification time might not change
+     * if the file is written quickly after it was read.
+     */
+    public void invalidate(File file) {
+        File key = getKey(file);
+        synchronized (cache) {
+            cache.remove(key);
+        }
+    }
+
+    public interface DocumentLoader {
+        public Document load(File file) throws IOException, SAXException;
+    }
+
+    private static final class DomDocumentLoader implements DocumentLoader {
+        @Override
+        public Document load(File file) throws IOException, SAXException {
+            DocumentBuilder builder;
+            try {
+                builder = XmlPropertyFormat.newDocumentBuilder();
+            } catch (ParserConfigurationException ex) {
+                throw new IOException("Failed to create XML builder.", ex);
+            }
+            return builder.parse(file);
+        }
+    }
+
+    private static final class CachedDocument {
+        // These fields are guarded by the monitor of this object.
+        public Document document;
+        public long lastModified;
+        public long length;
+
+        public CachedDocument() {
+            this.document = null;
+            this.lastModified = 0;
+            this.length = 0;
+        }
+    }
+}
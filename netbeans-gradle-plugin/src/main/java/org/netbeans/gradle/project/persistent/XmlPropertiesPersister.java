@@ -25,6 +25,7 @@ import org.netbeans.gradle.project.properties.PredefinedTask;
 import org.netbeans.gradle.project.properties.ProjectProperties;
 import org.netbeans.gradle.project.properties.PropertiesSnapshot;
 import org.netbeans.gradle.project.properties.PropertySource;
+import org.netbeans.gradle.project.properties.PropertyTransaction;
 
 public final class XmlPropertiesPersister implements PropertiesPersister {
     private static final Logger LOGGER = Logger.getLogger(XmlPropertiesPersister.class.getName());
@@ -157,32 +158,39 @@ public final class XmlPropertiesPersister implements PropertiesPersister {
                     setterExecutor.execute(new Runnable() {
                         @Override
                         public void run() {
-                            for (PropertySetter<?> setter: setters) {
-                                setter.set(snapshot);
-                            }
-
-                            // TODO: This might overwrite concurrently set
-                            //  properties which is unexpected by the user. This
-                            //  is unlikely to happen but should be fixed anyway.
-
-                            Set<Map.Entry<String, PropertySource<PredefinedTask>>> builtInTasks
-                                    = snapshot.getBuiltInTasks().entrySet();
-                            for (Map.Entry<String, PropertySource<PredefinedTask>> taskEntry: builtInTasks) {
-                                MutableProperty<PredefinedTask> property
-                                        = properties.tryGetBuiltInTask(taskEntry.getKey());
-                                if (property == null) {
-                                    LOGGER.log(Level.SEVERE, "Cannot set property for built-in task: {0}", taskEntry.getKey());
+                            // Notify the listeners only once, after every
+                            // property was set.
+                            PropertyTransaction transaction = PropertyTransaction.begin();
+                            try {
+                                for (PropertySetter<?> setter: setters) {
+                                    setter.set(snapshot);
                                 }
-                                else {
-                                    property.setValueFromSource(taskEntry.getValue());
+
+                                // TODO: This might overwrite concurrently set
+                                //  properties which is unexpected by the user. This
+                                //  is unlikely to happen but should be fixed anyway.
+
+                                Set<Map.Entry<String, PropertySource<PredefinedTask>>> builtInTasks
+                                        = snapshot.getBuiltInTasks().entrySet();
+                                for (Map.Entry<String, PropertySource<PredefinedTask>> taskEntry: builtInTasks) {
+                                    MutableProperty<PredefinedTask> property
+                                            = properties.tryGetBuiltInTask(taskEntry.getKey());
+                                    if (property == null) {
+                                        LOGGER.log(Level.SEVERE, "Cannot set property for built-in task: {0}", taskEntry.getKey());
+                                    }
+                                    else {
+                                        property.setValueFromSource(taskEntry.getValue());
+                                    }
                                 }
-                            }
 
-                            List<AuxConfig> newAuxConfigs = new LinkedList<AuxConfig>();
-                            for (AuxConfigSource config: snapshot.getAuxProperties()) {
-                                newAuxConfigs.add(new AuxConfig(config.getKey(), config.getSource().getValue()));
+                                List<AuxConfig> newAuxConfigs = new LinkedList<AuxConfig>();
+                                for (AuxConfigSource config: snapshot.getAuxProperties()) {
+                                    newAuxConfigs.add(new AuxConfig(config.getKey(), config.getSource().getValue()));
+                                }
+                                properties.setAllAuxConfigs(newAuxConfigs);
+                            } finally {
+                                transaction.commit();
                             }
-                            properties.setAllAuxConfigs(newAuxConfigs);
 
                             if (onDone != null) {
                                 onDone.run();
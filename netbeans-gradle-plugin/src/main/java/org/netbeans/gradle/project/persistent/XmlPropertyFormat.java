@@ -3,9 +3,7 @@ package org.netbeans.gradle.project.persistent;
 import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.io.StringReader;
 import java.nio.charset.Charset;
 import java.nio.charset.IllegalCharsetNameException;
@@ -94,6 +92,24 @@ final class XmlPropertyFormat {
 
     private static final String SAVE_FILE_NAME_SEPARATOR = "/";
 
+    // Looking up these factories is relatively slow, so they are only looked
+    // up once. They are not required to be thread-safe, so they must be
+    // accessed while holding their monitor.
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = DocumentBuilderFactory.newInstance();
+    private static final TransformerFactory TRANSFORMER_FACTORY = TransformerFactory.newInstance();
+
+    static DocumentBuilder newDocumentBuilder() throws ParserConfigurationException {
+        synchronized (DOCUMENT_BUILDER_FACTORY) {
+            return DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+        }
+    }
+
+    private static Transformer newTransformer() throws TransformerException {
+        synchronized (TRANSFORMER_FACTORY) {
+            return TRANSFORMER_FACTORY.newTransformer();
+        }
+    }
+
     private static Element addChild(Node parent, String tagName) {
         Element element = parent.getOwnerDocument().createElement(tagName);
         parent.appendChild(element);
@@ -106,16 +122,25 @@ final class XmlPropertyFormat {
         return element;
     }
 
-    private static void writeBytesToFile(File outputFile, byte[] content) throws IOException {
-        OutputStream output = null;
-        try {
-            output = new FileOutputStream(outputFile);
-            output.write(content);
-        } finally {
-            if (output != null) {
-                output.close();
-            }
+    private static byte[] renderDocument(NbGradleProject project, Document document) throws TransformerException, IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(2048);
+        saveDocument(new StreamResult(output), document);
+
+        String lineSeparator = ChangeLFPlugin.getPreferredLineSeparator(project);
+        if (lineSeparator == null) {
+            return output.toByteArray();
+        }
+
+        String fileOutput = output.toString(XML_ENCODING);
+        BufferedReader configContent = new BufferedReader(new StringReader(fileOutput), 2048);
+
+        StringBuilder newFileStrContent = new StringBuilder(fileOutput.length());
+        for (String line = configContent.readLine(); line != null; line = configContent.readLine()) {
+            newFileStrContent.append(line);
+            newFileStrContent.append(lineSeparator);
         }
+
+        return newFileStrContent.toString().getBytes(XML_ENCODING);
     }
 
     private static void saveDocument(NbGradleProject project, File propertyfile, Document document) throws TransformerException, IOException {
@@ -128,33 +153,16 @@ final class XmlPropertyFormat {
             }
         }
 
-        String lineSeparator = ChangeLFPlugin.getPreferredLineSeparator(project);
-        if (lineSeparator == null) {
-            Result result = new StreamResult(propertyfile);
-            saveDocument(result, document);
-        }
-        else {
-            ByteArrayOutputStream output = new ByteArrayOutputStream(2048);
-            Result result = new StreamResult(output);
-            saveDocument(result, document);
-
-            String fileOutput = output.toString(XML_ENCODING);
-            BufferedReader configContent = new BufferedReader(new StringReader(output.toString(XML_ENCODING)), 2048);
-
-            StringBuilder newFileStrContent = new StringBuilder(fileOutput.length());
-            for (String line = configContent.readLine(); line != null; line = configContent.readLine()) {
-                newFileStrContent.append(line);
-                newFileStrContent.append(lineSeparator);
-            }
-
-            writeBytesToFile(propertyfile, newFileStrContent.toString().getBytes(XML_ENCODING));
+        byte[] content = renderDocument(project, document);
+        if (!PropertyFileWriter.DEFAULT.writeIfChanged(propertyfile, content)) {
+            LOGGER.log(Level.FINE, "Properties are unchanged, skipped writing {0}", propertyfile);
         }
     }
 
     private static void saveDocument(Result result, Document document) throws TransformerException, IOException {
         Source source = new DOMSource(document);
 
-        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        Transformer transformer = newTransformer();
         transformer.setOutputProperty(OutputKeys.ENCODING, XML_ENCODING);
         transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
         transformer.setOutputProperty(OutputKeys.INDENT, "yes");
@@ -300,7 +308,7 @@ final class XmlPropertyFormat {
 
         DocumentBuilder builder;
         try {
-            builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            builder = newDocumentBuilder();
         } catch (ParserConfigurationException ex) {
             LOGGER.log(Level.SEVERE, "Failed to create XML builder.", ex);
             return;
@@ -364,6 +372,8 @@ final class XmlPropertyFormat {
             LOGGER.log(Level.INFO, "Failed to save the properties.", ex);
         } catch (TransformerException ex) {
             LOGGER.log(Level.INFO, "Failed to save the properties.", ex);
+        } finally {
+            XmlDocumentCache.DEFAULT.invalidate(propertyfile);
         }
     }
 
@@ -553,6 +563,17 @@ final class XmlPropertyFormat {
             return result;
         }
 
+        // The elements must not be owned by the cached document because the
+        // elements are read without locking the cached document and they
+        // would keep the cached document in memory.
+        Document auxDocument;
+        try {
+            auxDocument = newDocumentBuilder().newDocument();
+        } catch (ParserConfigurationException ex) {
+            LOGGER.log(Level.SEVERE, "Failed to create XML builder.", ex);
+            return result;
+        }
+
         NodeList childNodes = auxNode.getChildNodes();
         int childCount = childNodes.getLength();
         for (int i = 0; i < childCount; i++) {
@@ -560,7 +581,8 @@ final class XmlPropertyFormat {
             if (child instanceof Element) {
                 String elementName = child.getNodeName();
                 String namespace = child.getNamespaceURI();
-                result.add(new AuxConfig(elementName, namespace, (Element)child));
+                Element value = (Element)auxDocument.importNode(child, true);
+                result.add(new AuxConfig(elementName, namespace, value));
             }
         }
         return result;
@@ -569,21 +591,15 @@ final class XmlPropertyFormat {
     public static PropertiesSnapshot readFromXml(File propertiesFile) {
         PropertiesSnapshot.Builder result = new PropertiesSnapshot.Builder();
 
-        DocumentBuilder builder;
-        try {
-            builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-        } catch (ParserConfigurationException ex) {
-            LOGGER.log(Level.SEVERE, "Failed to create XML builder.", ex);
-            return result.create();
-        }
-
         Document document;
         try {
             if (!propertiesFile.exists()) {
                 return result.create();
             }
 
-            document = builder.parse(propertiesFile);
+            // The same property file is read by every project sharing it, so
+            // it is only parsed again if it has been changed.
+            document = XmlDocumentCache.DEFAULT.getDocument(propertiesFile);
         } catch (SAXException ex) {
             LOGGER.log(Level.INFO, "Failed to parse the property file.", ex);
             return result.create();
@@ -592,6 +608,15 @@ final class XmlPropertyFormat {
             return result.create();
         }
 
+        // DOM implementations are not required to be safe to be read
+        // concurrently.
+        synchronized (document) {
+            readFromDocument(document, result);
+        }
+        return result.create();
+    }
+
+    private static void readFromDocument(Document document, PropertiesSnapshot.Builder result) {
         Element root = document.getDocumentElement();
 
         String sourceLevel = tryGetValueOfNode(root, SOURCE_LEVEL_NODE);
@@ -644,8 +669,6 @@ final class XmlPropertyFormat {
         for (AuxConfig auxConfig: readAuxiliaryConfigs(root)) {
             result.addAuxConfig(auxConfig, false);
         }
-
-        return result.create();
     }
 
     private static class NodeListAsElementIterable implements Iterable<Element> {
@@ -0,0 +1,159 @@
+package org.netbeans.gradle.project.properties;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Defines a map which only weakly references its values and is safe to be
+ * used concurrently by multiple threads. This map is intended to intern
+ * objects: Values are looked up without locking and new values are created
+ * atomically for a particular key, so that concurrent requests for the same
+ * key share the same value.
+ * <P>
+ * Entries whose values were garbage collected are removed when the map is
+ * modified.
+ *
+ * @param <K> the type of the keys of this map. Keys must have proper
+ *   {@code equals} and {@code hashCode} implementations.
+ * @param <V> the type of the values of this map
+ */
+final class ConcurrentWeakValueMap<K, V> {
+    private static final int CREATE_LOCK_COUNT = 32;
+
+    private final ConcurrentMap<K, ValueRef<K, V>> wrappedMap;
+    private final ReferenceQueue<V> references;
+    private final Object[] createLocks;
+
+    public ConcurrentWeakValueMap() {
+        this.wrappedMap = new ConcurrentHashMap<K, ValueRef<K, V>>();
+        this.references = new ReferenceQueue<V>();
+        this.createLocks = new Object[CREATE_LOCK_COUNT];
+        for (int i = 0; i < createLocks.length; i++) {
+            this.createLocks[i] = new Object();
+        }
+    }
+
+    private void removeUnreferenced() {
+        while (true) {
+            @SuppressWarnings("unchecked")
+            ValueRef<K, V> ref = (ValueRef<K, V>)references.poll();
+            if (ref == null) {
+                break;
+            }
+            // Only remove the entry if it was not replaced by a new value.
+            wrappedMap.remove(ref.key, ref);
+        }
+    }
+
+    private Object getCreateLock(Object key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return createLocks[(hash & 0x7FFFFFFF) % createLocks.length];
+    }
+
+    /**
+     * Returns the value associated with the given key or {@code null} if
+     * there is no such value (or it was garbage collected). This method does
+     * not block.
+     */
+    public V get(K key) {
+        if (key == null) throw new NullPointerException("key");
+
+        ValueRef<K, V> ref = wrappedMap.get(key);
+        return ref != null ? ref.get() : null;
+    }
+
+    /**
+     * Associates the given value with the given key unless there is a value
+     * already associated with the key.
+     *
+     * @return the value associated with the key after this method returns.
+     *   That is, either the previously associated value or the given value.
+     *   This method never returns {@code null}.
+     */
+    public V putIfAbsent(K key, V value) {
+        if (key == null) throw new NullPointerException("key");
+        if (value == null) throw new NullPointerException("value");
+
+        removeUnreferenced();
+
+        ValueRef<K, V> newRef = new ValueRef<K, V>(key, value, references);
+        while (true) {
+            ValueRef<K, V> currentRef = wrappedMap.putIfAbsent(key, newRef);
+            if (currentRef == null) {
+                return value;
+            }
+
+            V currentValue = currentRef.get();
+            if (currentValue != null) {
+                return currentValue;
+            }
+
+            if (wrappedMap.replace(key, currentRef, newRef)) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Returns the value associated with the given key, creating and storing
+     * a new value if there is no value associated with the key. The factory
+     * is called at most once for a key by concurrent callers, so every
+     * caller receives the same value.
+     *
+     * @return the value associated with the key. This method never returns
+     *   {@code null}.
+     */
+    public V getOrCreate(K key, ValueFactory<? super K, ? extends V> factory) {
+        if (factory == null) throw new NullPointerException("factory");
+
+        V result = get(key);
+        if (result != null) {
+            return result;
+        }
+
+        synchronized (getCreateLock(key)) {
+            result = get(key);
+            if (result != null) {
+                return result;
+            }
+
+            V newValue = factory.create(key);
+            if (newValue == null) {
+                throw new NullPointerException("ValueFactory.create(" + key + ")");
+            }
+            return putIfAbsent(key, newValue);
+        }
+    }
+
+    /**
+     * Returns the number of entries in this map, including the entries whose
+     * values were garbage collected but not yet removed.
+     */
+    public int size() {
+        removeUnreferenced();
+        return wrappedMap.size();
+    }
+
+    public interface ValueFactory<K, V> {
+        /**
+         * Creates a new value for the given key. This method is called while
+         * holding a lock, so it must not wait for other threads accessing the
+         * same map.
+         *
+         * @return the new value. This method must never return {@code null}.
+         */
+        public V create(K key);
+    }
+
+    private static final class ValueRef<K, V> extends WeakReference<V> {
+        private final K key;
+
+        public ValueRef(K key, V value, ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+}
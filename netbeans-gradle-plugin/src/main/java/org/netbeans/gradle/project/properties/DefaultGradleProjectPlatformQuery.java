@@ -34,6 +34,8 @@ implements
             @Override
             public void propertyChange(PropertyChangeEvent evt) {
                 if (JavaPlatformManager.PROP_INSTALLED_PLATFORMS.equals(evt.getPropertyName())) {
+                    // The registry might not have been notified yet.
+                    JavaPlatformRegistry.DEFAULT.invalidate();
                     listener.run();
                 }
             }
@@ -65,7 +67,7 @@ implements
 
     @Override
     public Collection<ProjectPlatform> getAvailablePlatforms() {
-        JavaPlatform[] platforms = JavaPlatformManager.getDefault().getInstalledPlatforms();
+        JavaPlatform[] platforms = JavaPlatformRegistry.DEFAULT.getInstalledPlatforms();
         List<ProjectPlatform> result = new ArrayList<ProjectPlatform>(platforms.length);
 
         for (final JavaPlatform platform: platforms) {
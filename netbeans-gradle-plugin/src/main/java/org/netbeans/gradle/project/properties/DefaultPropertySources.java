@@ -47,7 +47,7 @@ public final class DefaultPropertySources {
     }
 
     public static JavaPlatform tryFindPlatform(String specName, String versionStr) {
-        return tryChooseFromPlatforms(specName, versionStr, JavaPlatformManager.getDefault().getInstalledPlatforms());
+        return JavaPlatformRegistry.DEFAULT.tryFindPlatform(specName, versionStr);
     }
 
 
@@ -157,8 +157,8 @@ public final class DefaultPropertySources {
             }
 
             @Override
-            protected JavaPlatform chooseFromPlatforms(JavaPlatform[] platforms) {
-                JavaPlatform bestMatch = tryChooseFromPlatforms(specName, versionStr, platforms);
+            public JavaPlatform getValue() {
+                JavaPlatform bestMatch = tryFindPlatform(specName, versionStr);
 
                 if (bestMatch == null) {
                     LOGGER.severe("Could not find any Java platform.");
@@ -186,19 +186,14 @@ public final class DefaultPropertySources {
                 @Override
                 public void propertyChange(PropertyChangeEvent evt) {
                     if (JavaPlatformManager.PROP_INSTALLED_PLATFORMS.equals(evt.getPropertyName())) {
+                        // The registry might not have been notified yet.
+                        JavaPlatformRegistry.DEFAULT.invalidate();
                         changes.fireChange();
                     }
                 }
             };
         }
 
-        protected abstract ValueType chooseFromPlatforms(JavaPlatform[] platforms);
-
-        @Override
-        public ValueType getValue() {
-            return chooseFromPlatforms(JavaPlatformManager.getDefault().getInstalledPlatforms());
-        }
-
         @Override
         public void addChangeListener(ChangeListener listener) {
             changesLock.lock();
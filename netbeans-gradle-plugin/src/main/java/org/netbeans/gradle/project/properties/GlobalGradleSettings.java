@@ -6,8 +6,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.prefs.PreferenceChangeEvent;
@@ -15,7 +15,6 @@ import java.util.prefs.PreferenceChangeListener;
 import java.util.prefs.Preferences;
 import javax.swing.event.ChangeListener;
 import org.netbeans.api.java.platform.JavaPlatform;
-import org.netbeans.api.java.platform.JavaPlatformManager;
 import org.netbeans.gradle.project.StringUtils;
 import org.openide.filesystems.FileObject;
 import org.openide.filesystems.FileUtil;
@@ -36,21 +35,55 @@ public final class GlobalGradleSettings {
     private static final StringBasedProperty<Boolean> OMIT_INIT_SCRIPT;
     private static final StringBasedProperty<Boolean> MAY_RELY_ON_JAVA_OF_SCRIPT;
     private static final StringBasedProperty<ModelLoadingStrategy> MODEL_LOADING_STRATEGY;
+    private static final StringBasedProperty<Boolean> PROFILE_BUILDS;
+    private static final StringBasedProperty<Boolean> BUILD_EVENTS;
+    private static final StringBasedProperty<Boolean> PREWARM_DAEMON;
+    private static final StringBasedProperty<Boolean> SPECULATIVE_MODEL_LOAD;
+    private static final StringBasedProperty<Integer> MAX_CONCURRENT_BUILDS;
+    private static final StringBasedProperty<Integer> OUTPUT_LINE_LIMIT;
+    private static final StringBasedProperty<Integer> PROPERTIES_SAVE_DELAY_MS;
 
     static {
         // "gradle-home" is probably not the best name but it must remain so
         // for backward compatibility reason.
-        GRADLE_LOCATION = new GlobalProperty<GradleLocation>("gradle-home", GradleLocationConverter.INSTANCE);
-        GRADLE_USER_HOME = new GlobalProperty<File>("gradle-user-home", FileConverter.INSTANCE);
-        GRADLE_JVM_ARGS = new GlobalProperty<List<String>>("gradle-jvm-args", StringToStringListConverter.INSTANCE);
-        GRADLE_JDK = new GlobalProperty<JavaPlatform>("gradle-jdk", JavaPlaformConverter.INSTANCE);
-        SKIP_TESTS = new GlobalProperty<Boolean>("skip-tests", new BooleanConverter(false));
-        PROJECT_CACHE_SIZE = new GlobalProperty<Integer>("project-cache-size", new IntegerConverter(1, Integer.MAX_VALUE, 100));
-        ALWAYS_CLEAR_OUTPUT = new GlobalProperty<Boolean>("always-clear-output", new BooleanConverter(false));
-        OMIT_INIT_SCRIPT = new GlobalProperty<Boolean>("omit-init-script", new BooleanConverter(false));
-        MAY_RELY_ON_JAVA_OF_SCRIPT = new GlobalProperty<Boolean>("rely-on-java-of-script", new BooleanConverter(false));
-        MODEL_LOADING_STRATEGY = new GlobalProperty<ModelLoadingStrategy>("model-load-strategy",
+        GRADLE_LOCATION = new GlobalProperty<GradleLocation>(getPreferences(), "gradle-home", GradleLocationConverter.INSTANCE);
+        GRADLE_USER_HOME = new GlobalProperty<File>(getPreferences(), "gradle-user-home", FileConverter.INSTANCE);
+        GRADLE_JVM_ARGS = new GlobalProperty<List<String>>(getPreferences(), "gradle-jvm-args", StringToStringListConverter.INSTANCE);
+        GRADLE_JDK = createPlatformProperty("gradle-jdk");
+        SKIP_TESTS = new GlobalProperty<Boolean>(getPreferences(), "skip-tests", new BooleanConverter(false));
+        PROJECT_CACHE_SIZE = new GlobalProperty<Integer>(getPreferences(), "project-cache-size", new IntegerConverter(1, Integer.MAX_VALUE, 100));
+        ALWAYS_CLEAR_OUTPUT = new GlobalProperty<Boolean>(getPreferences(), "always-clear-output", new BooleanConverter(false));
+        OMIT_INIT_SCRIPT = new GlobalProperty<Boolean>(getPreferences(), "omit-init-script", new BooleanConverter(false));
+        MAY_RELY_ON_JAVA_OF_SCRIPT = new GlobalProperty<Boolean>(getPreferences(), "rely-on-java-of-script", new BooleanConverter(false));
+        MODEL_LOADING_STRATEGY = new GlobalProperty<ModelLoadingStrategy>(getPreferences(), "model-load-strategy",
                 new EnumConverter<ModelLoadingStrategy>(ModelLoadingStrategy.NEWEST_POSSIBLE));
+        PROFILE_BUILDS = new GlobalProperty<Boolean>(getPreferences(), "profile-builds", new BooleanConverter(false));
+        BUILD_EVENTS = new GlobalProperty<Boolean>(getPreferences(), "build-events", new BooleanConverter(true));
+        PREWARM_DAEMON = new GlobalProperty<Boolean>(getPreferences(), "prewarm-daemon", new BooleanConverter(false));
+        SPECULATIVE_MODEL_LOAD = new GlobalProperty<Boolean>(getPreferences(), "speculative-model-load", new BooleanConverter(true));
+        MAX_CONCURRENT_BUILDS = new GlobalProperty<Integer>(getPreferences(), "max-concurrent-builds", new IntegerConverter(1, 64, 2));
+        OUTPUT_LINE_LIMIT = new GlobalProperty<Integer>(getPreferences(), "output-line-limit", new IntegerConverter(0, Integer.MAX_VALUE, 0));
+        PROPERTIES_SAVE_DELAY_MS = new GlobalProperty<Integer>(getPreferences(), "properties-save-delay-ms", new IntegerConverter(0, 60000, 500));
+    }
+
+    private static Preferences getPreferences() {
+        // Use GradleSettingsPanel.class for compatibility.
+        return NbPreferences.forModule(GradleSettingsPanel.class);
+    }
+
+    private static StringBasedProperty<JavaPlatform> createPlatformProperty(String settingsName) {
+        final GlobalProperty<JavaPlatform> result = new GlobalProperty<JavaPlatform>(
+                getPreferences(), settingsName, JavaPlaformConverter.INSTANCE);
+
+        // The value of the property depends on the installed platforms as
+        // well, so it has to be parsed again if they change.
+        JavaPlatformRegistry.DEFAULT.addInvalidationListener(new Runnable() {
+            @Override
+            public void run() {
+                result.settingChanged();
+            }
+        });
+        return result;
     }
 
     public static File getGradleInstallationAsFile() {
@@ -106,6 +139,34 @@ public final class GlobalGradleSettings {
         return MAY_RELY_ON_JAVA_OF_SCRIPT;
     }
 
+    public static StringBasedProperty<Boolean> getProfileBuilds() {
+        return PROFILE_BUILDS;
+    }
+
+    public static StringBasedProperty<Boolean> getBuildEvents() {
+        return BUILD_EVENTS;
+    }
+
+    public static StringBasedProperty<Boolean> getPrewarmDaemon() {
+        return PREWARM_DAEMON;
+    }
+
+    public static StringBasedProperty<Boolean> getSpeculativeModelLoad() {
+        return SPECULATIVE_MODEL_LOAD;
+    }
+
+    public static StringBasedProperty<Integer> getMaxConcurrentBuilds() {
+        return MAX_CONCURRENT_BUILDS;
+    }
+
+    public static StringBasedProperty<Integer> getOutputLineLimit() {
+        return OUTPUT_LINE_LIMIT;
+    }
+
+    public static StringBasedProperty<Integer> getPropertiesSaveDelayMs() {
+        return PROPERTIES_SAVE_DELAY_MS;
+    }
+
     public static FileObject getHomeFolder(JavaPlatform platform) {
         Collection<FileObject> installFolders = platform.getInstallFolders();
         int numberOfFolder = installFolders.size();
@@ -166,7 +227,7 @@ public final class GlobalGradleSettings {
         }
     }
 
-    private static class IntegerConverter implements ValueConverter<Integer> {
+    static final class IntegerConverter implements ValueConverter<Integer> {
         private final Integer defaultValue;
         private final int minValue;
         private final int maxValue;
@@ -288,7 +349,7 @@ public final class GlobalGradleSettings {
                 return JavaPlatform.getDefault();
             }
 
-            JavaPlatform[] platforms = JavaPlatformManager.getDefault().getInstalledPlatforms();
+            JavaPlatform[] platforms = JavaPlatformRegistry.DEFAULT.getInstalledPlatforms();
             for (JavaPlatform platform: platforms) {
                 if (strValue.equals(toString(platform))) {
                     return platform;
@@ -354,39 +415,81 @@ public final class GlobalGradleSettings {
         }
     }
 
-    private static interface ValueConverter<ValueType> {
+    static interface ValueConverter<ValueType> {
         public ValueType toValue(String strValue);
         public String toString(ValueType value);
     }
 
-    private static class GlobalProperty<ValueType> implements StringBasedProperty<ValueType> {
+    /**
+     * A setting stored in the given {@code Preferences}. The parsed value of
+     * the setting is cached until the setting is changed, so reading the
+     * value of the setting is usually only a volatile read.
+     * <P>
+     * The first read or the first added listener registers a
+     * {@code PreferenceChangeListener} with the preferences, which is never
+     * unregistered (not even if every listener is removed by
+     * {@link #removeChangeListener(ChangeListener) removeChangeListener}).
+     * Therefore the property cannot be garbage collected before its
+     * preferences, so it must only be used for settings living as long as
+     * the preferences (as the settings of {@link GlobalGradleSettings} do).
+     */
+    static final class GlobalProperty<ValueType> implements StringBasedProperty<ValueType> {
+        private final Preferences preferences;
         private final String settingsName;
         private final ValueConverter<ValueType> converter;
-        private final Lock changesLock;
         private final ChangeSupport changes;
-        private final PreferenceChangeListener changeForwarder;
+        private final AtomicBoolean listening;
+
+        // Every change of the setting increments this counter, so a cached
+        // value is only valid if it was parsed when the counter had the same
+        // value as now.
+        private final AtomicInteger modCount;
+        private volatile CachedValue<ValueType> cachedValue;
 
-        public GlobalProperty(String settingsName, ValueConverter<ValueType> converter) {
+        public GlobalProperty(Preferences preferences, String settingsName, ValueConverter<ValueType> converter) {
+            if (preferences == null) throw new NullPointerException("preferences");
             if (settingsName == null) throw new NullPointerException("settingsName");
             if (converter == null) throw new NullPointerException("converter");
 
+            this.preferences = preferences;
             this.settingsName = settingsName;
             this.converter = converter;
-            this.changesLock = new ReentrantLock();
             this.changes = new ChangeSupport(this);
-            this.changeForwarder = new PreferenceChangeListener() {
+            this.listening = new AtomicBoolean(false);
+            this.modCount = new AtomicInteger(0);
+            this.cachedValue = null;
+        }
+
+        private void startListening() {
+            if (!listening.compareAndSet(false, true)) {
+                return;
+            }
+
+            // The listener is registered before the value is first parsed
+            // and is never removed, so that external changes of the setting
+            // (e.g.: importing settings) invalidate the cached value.
+            preferences.addPreferenceChangeListener(new PreferenceChangeListener() {
                 @Override
                 public void preferenceChange(PreferenceChangeEvent evt) {
-                    if (GlobalProperty.this.settingsName.equals(evt.getKey())) {
-                        changes.fireChange();
+                    if (settingsName.equals(evt.getKey())) {
+                        settingChanged();
                     }
                 }
-            };
+            });
+        }
+
+        private void invalidateCache() {
+            modCount.incrementAndGet();
+            cachedValue = null;
         }
 
-        private static Preferences getPreferences() {
-            // Use GradleSettingsPanel.class for compatibility.
-            return NbPreferences.forModule(GradleSettingsPanel.class);
+        /**
+         * Forgets the cached value of this setting and notifies the
+         * listeners.
+         */
+        public void settingChanged() {
+            invalidateCache();
+            changes.fireChange();
         }
 
         @Override
@@ -404,7 +507,17 @@ public final class GlobalGradleSettings {
 
         @Override
         public ValueType getValue() {
-            return converter.toValue(getValueAsString());
+            CachedValue<ValueType> cached = cachedValue;
+            if (cached != null && cached.modCount == modCount.get()) {
+                return cached.value;
+            }
+
+            startListening();
+
+            int currentModCount = modCount.get();
+            ValueType result = converter.toValue(getValueAsString());
+            cachedValue = new CachedValue<ValueType>(currentModCount, result);
+            return result;
         }
 
         @Override
@@ -415,45 +528,42 @@ public final class GlobalGradleSettings {
 
         @Override
         public void addChangeListener(ChangeListener listener) {
-            changesLock.lock();
-            try {
-                boolean hasListeners = changes.hasListeners();
-                changes.addChangeListener(listener);
-                if (!hasListeners) {
-                    getPreferences().addPreferenceChangeListener(changeForwarder);
-                }
-            } finally {
-                changesLock.unlock();
-            }
+            startListening();
+            changes.addChangeListener(listener);
         }
 
         @Override
         public void removeChangeListener(ChangeListener listener) {
-            changesLock.lock();
-            try {
-                changes.removeChangeListener(listener);
-                boolean hasListeners = changes.hasListeners();
-                if (!hasListeners) {
-                    getPreferences().removePreferenceChangeListener(changeForwarder);
-                }
-            } finally {
-                changesLock.unlock();
-            }
+            changes.removeChangeListener(listener);
         }
 
         @Override
         public void setValueFromString(String strValue) {
             if (strValue != null) {
-                getPreferences().put(settingsName, strValue);
+                preferences.put(settingsName, strValue);
             }
             else {
-                getPreferences().remove(settingsName);
+                preferences.remove(settingsName);
             }
+
+            // Preference change events are delivered asynchronously, so the
+            // new value must be visible before the listeners are notified.
+            invalidateCache();
         }
 
         @Override
         public String getValueAsString() {
-            return getPreferences().get(settingsName, null);
+            return preferences.get(settingsName, null);
+        }
+    }
+
+    private static final class CachedValue<ValueType> {
+        public final int modCount;
+        public final ValueType value;
+
+        public CachedValue(int modCount, ValueType value) {
+            this.modCount = modCount;
+            this.value = value;
         }
     }
 
@@ -1,11 +1,17 @@
 package org.netbeans.gradle.project.properties;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
 import org.netbeans.gradle.project.NbGradleProject;
+import org.netbeans.gradle.project.persistent.AuxConfigFileStore;
 import org.netbeans.spi.project.AuxiliaryConfiguration;
 import org.w3c.dom.Element;
 
 public final class GradleAuxiliaryConfiguration implements AuxiliaryConfiguration {
+    private static final ConcurrentWeakValueMap<File, AuxConfigFileStore> PRIVATE_STORES
+            = new ConcurrentWeakValueMap<File, AuxConfigFileStore>();
+
     private final SingleStoreAuxConfig sharedConfig;
     private final SingleStoreAuxConfig privateConfig;
 
@@ -14,8 +20,37 @@ public final class GradleAuxiliaryConfiguration implements AuxiliaryConfiguratio
 
         this.sharedConfig = new SingleStoreAuxConfig(
                 new ProjectPropertiesStorage(getSharedProperties(project)));
-        this.privateConfig = new SingleStoreAuxConfig(
-                new ProjectPropertiesStorage(getPrivateProperties(project)));
+        // Private fragments are changed frequently (e.g.: on every caret
+        // move by some modules), so they are stored separately to avoid
+        // rewriting every fragment when one of them changes. The previous
+        // private property file is only used to read fragments not yet
+        // moved to the new store.
+        this.privateConfig = new SingleStoreAuxConfig(getPrivateStore(project));
+    }
+
+    private static File getCanonicalFile(File file) {
+        try {
+            return file.getCanonicalFile();
+        } catch (IOException ex) {
+            return file.getAbsoluteFile();
+        }
+    }
+
+    private static AuxConfigFileStore getPrivateStore(final NbGradleProject project) {
+        // Every project of a multi-project build uses the same directory, so
+        // they must share the same store as well.
+        File rootDir = SettingsFiles.getRootDirectory(project);
+        File storeDir = getCanonicalFile(SettingsFiles.getPrivateAuxConfigDir(rootDir));
+
+        return PRIVATE_STORES.getOrCreate(storeDir,
+                new ConcurrentWeakValueMap.ValueFactory<File, AuxConfigFileStore>() {
+            @Override
+            public AuxConfigFileStore create(File key) {
+                // The previous private property file is in the same
+                // directory for every project of the build as well.
+                return new AuxConfigFileStore(key, new ProjectPropertiesStorage(getPrivateProperties(project)));
+            }
+        });
     }
 
     private static ProjectProperties getSharedProperties(NbGradleProject project) {
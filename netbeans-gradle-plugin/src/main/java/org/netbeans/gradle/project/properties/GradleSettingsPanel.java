@@ -65,9 +65,16 @@ public class GradleSettingsPanel extends javax.swing.JPanel {
 
         jSkipTestsCheck.setSelected(GlobalGradleSettings.getSkipTests().getValue());
         jProjectCacheSize.setValue(GlobalGradleSettings.getProjectCacheSize().getValue());
+        jMaxConcurrentBuilds.setValue(GlobalGradleSettings.getMaxConcurrentBuilds().getValue());
+        jOutputLineLimit.setValue(GlobalGradleSettings.getOutputLineLimit().getValue());
+        jPropertiesSaveDelay.setValue(GlobalGradleSettings.getPropertiesSaveDelayMs().getValue());
         jAlwayClearOutput.setSelected(GlobalGradleSettings.getAlwaysClearOutput().getValue());
         jDontAddInitScriptCheck.setSelected(GlobalGradleSettings.getOmitInitScript().getValue());
         jReliableJavaVersionCheck.setSelected(GlobalGradleSettings.getMayRelyOnJavaOfScript().getValue());
+        jProfileBuildsCheck.setSelected(GlobalGradleSettings.getProfileBuilds().getValue());
+        jBuildEventsCheck.setSelected(GlobalGradleSettings.getBuildEvents().getValue());
+        jPrewarmDaemonCheck.setSelected(GlobalGradleSettings.getPrewarmDaemon().getValue());
+        jSpeculativeModelLoadCheck.setSelected(GlobalGradleSettings.getSpeculativeModelLoad().getValue());
         jModelLoadStrategy.setSelectedItem(new ModelLoadStrategyItem(
                 GlobalGradleSettings.getModelLoadingStrategy().getValue()));
 
@@ -81,9 +88,16 @@ public class GradleSettingsPanel extends javax.swing.JPanel {
         GlobalGradleSettings.getGradleJdk().setValue(getJdk());
         GlobalGradleSettings.getSkipTests().setValue(jSkipTestsCheck.isSelected());
         GlobalGradleSettings.getProjectCacheSize().setValue(getProjectCacheSize());
+        GlobalGradleSettings.getMaxConcurrentBuilds().setValue(getMaxConcurrentBuilds());
+        GlobalGradleSettings.getOutputLineLimit().setValue(getOutputLineLimit());
+        GlobalGradleSettings.getPropertiesSaveDelayMs().setValue(getPropertiesSaveDelay());
         GlobalGradleSettings.getAlwaysClearOutput().setValue(jAlwayClearOutput.isSelected());
         GlobalGradleSettings.getOmitInitScript().setValue(jDontAddInitScriptCheck.isSelected());
         GlobalGradleSettings.getMayRelyOnJavaOfScript().setValue(jReliableJavaVersionCheck.isSelected());
+        GlobalGradleSettings.getProfileBuilds().setValue(jProfileBuildsCheck.isSelected());
+        GlobalGradleSettings.getBuildEvents().setValue(jBuildEventsCheck.isSelected());
+        GlobalGradleSettings.getPrewarmDaemon().setValue(jPrewarmDaemonCheck.isSelected());
+        GlobalGradleSettings.getSpeculativeModelLoad().setValue(jSpeculativeModelLoadCheck.isSelected());
         GlobalGradleSettings.getGradleUserHomeDir().setValueFromString(getGradleUserHomeDir());
         GlobalGradleSettings.getModelLoadingStrategy().setValue(getModelLoadingStrategy());
     }
@@ -128,6 +142,42 @@ public class GradleSettingsPanel extends javax.swing.JPanel {
         return result > 0 ? result : 1;
     }
 
+    private int getMaxConcurrentBuilds() {
+        Object value = jMaxConcurrentBuilds.getValue();
+        int result;
+        if (value instanceof Number) {
+            result = ((Number)value).intValue();
+        }
+        else {
+            result = GlobalGradleSettings.getMaxConcurrentBuilds().getValue();
+        }
+        return result > 0 ? result : 1;
+    }
+
+    private int getOutputLineLimit() {
+        Object value = jOutputLineLimit.getValue();
+        int result;
+        if (value instanceof Number) {
+            result = ((Number)value).intValue();
+        }
+        else {
+            result = GlobalGradleSettings.getOutputLineLimit().getValue();
+        }
+        return result > 0 ? result : 0;
+    }
+
+    private int getPropertiesSaveDelay() {
+        Object value = jPropertiesSaveDelay.getValue();
+        int result;
+        if (value instanceof Number) {
+            result = ((Number)value).intValue();
+        }
+        else {
+            result = GlobalGradleSettings.getPropertiesSaveDelayMs().getValue();
+        }
+        return result > 0 ? result : 0;
+    }
+
     private static class JavaPlatformItem {
         private final JavaPlatform platform;
 
@@ -227,6 +277,16 @@ public class GradleSettingsPanel extends javax.swing.JPanel {
         jModelLoadStrategy = new javax.swing.JComboBox();
         jModelLoadStrategyLabel = new javax.swing.JLabel();
         jReadWikiButton = new javax.swing.JButton();
+        jSpeculativeModelLoadCheck = new javax.swing.JCheckBox();
+        jBuildEventsCheck = new javax.swing.JCheckBox();
+        jPropertiesSaveDelay = new javax.swing.JSpinner();
+        jPropertiesSaveDelayLabel = new javax.swing.JLabel();
+        jOutputLineLimit = new javax.swing.JSpinner();
+        jOutputLineLimitLabel = new javax.swing.JLabel();
+        jMaxConcurrentBuilds = new javax.swing.JSpinner();
+        jMaxConcurrentBuildsLabel = new javax.swing.JLabel();
+        jPrewarmDaemonCheck = new javax.swing.JCheckBox();
+        jProfileBuildsCheck = new javax.swing.JCheckBox();
 
         org.openide.awt.Mnemonics.setLocalizedText(jGradlePathCaption, org.openide.util.NbBundle.getMessage(GradleSettingsPanel.class, "GradleSettingsPanel.jGradlePathCaption.text")); // NOI18N
 
@@ -277,6 +337,20 @@ public class GradleSettingsPanel extends javax.swing.JPanel {
             }
         });
 
+        org.openide.awt.Mnemonics.setLocalizedText(jProfileBuildsCheck, org.openide.util.NbBundle.getMessage(GradleSettingsPanel.class, "GradleSettingsPanel.jProfileBuildsCheck.text")); // NOI18N
+
+        org.openide.awt.Mnemonics.setLocalizedText(jPrewarmDaemonCheck, org.openide.util.NbBundle.getMessage(GradleSettingsPanel.class, "GradleSettingsPanel.jPrewarmDaemonCheck.text")); // NOI18N
+
+        org.openide.awt.Mnemonics.setLocalizedText(jMaxConcurrentBuildsLabel, org.openide.util.NbBundle.getMessage(GradleSettingsPanel.class, "GradleSettingsPanel.jMaxConcurrentBuildsLabel.text")); // NOI18N
+
+        org.openide.awt.Mnemonics.setLocalizedText(jOutputLineLimitLabel, org.openide.util.NbBundle.getMessage(GradleSettingsPanel.class, "GradleSettingsPanel.jOutputLineLimitLabel.text")); // NOI18N
+
+        org.openide.awt.Mnemonics.setLocalizedText(jPropertiesSaveDelayLabel, org.openide.util.NbBundle.getMessage(GradleSettingsPanel.class, "GradleSettingsPanel.jPropertiesSaveDelayLabel.text")); // NOI18N
+
+        org.openide.awt.Mnemonics.setLocalizedText(jSpeculativeModelLoadCheck, org.openide.util.NbBundle.getMessage(GradleSettingsPanel.class, "GradleSettingsPanel.jSpeculativeModelLoadCheck.text")); // NOI18N
+
+        org.openide.awt.Mnemonics.setLocalizedText(jBuildEventsCheck, org.openide.util.NbBundle.getMessage(GradleSettingsPanel.class, "GradleSettingsPanel.jBuildEventsCheck.text")); // NOI18N
+
         javax.swing.GroupLayout layout = new javax.swing.GroupLayout(this);
         this.setLayout(layout);
         layout.setHorizontalGroup(
@@ -308,9 +382,25 @@ public class GradleSettingsPanel extends javax.swing.JPanel {
                                 .addComponent(jProjectCacheSizeLabel)
                                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
                                 .addComponent(jProjectCacheSize, javax.swing.GroupLayout.PREFERRED_SIZE, 95, javax.swing.GroupLayout.PREFERRED_SIZE))
+                            .addGroup(layout.createSequentialGroup()
+                                .addComponent(jPropertiesSaveDelayLabel)
+                                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                                .addComponent(jPropertiesSaveDelay, javax.swing.GroupLayout.PREFERRED_SIZE, 95, javax.swing.GroupLayout.PREFERRED_SIZE))
+                            .addGroup(layout.createSequentialGroup()
+                                .addComponent(jOutputLineLimitLabel)
+                                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                                .addComponent(jOutputLineLimit, javax.swing.GroupLayout.PREFERRED_SIZE, 95, javax.swing.GroupLayout.PREFERRED_SIZE))
+                            .addGroup(layout.createSequentialGroup()
+                                .addComponent(jMaxConcurrentBuildsLabel)
+                                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                                .addComponent(jMaxConcurrentBuilds, javax.swing.GroupLayout.PREFERRED_SIZE, 95, javax.swing.GroupLayout.PREFERRED_SIZE))
                             .addComponent(jAlwayClearOutput)
                             .addComponent(jDontAddInitScriptCheck)
                             .addComponent(jReliableJavaVersionCheck)
+                            .addComponent(jProfileBuildsCheck)
+                            .addComponent(jBuildEventsCheck)
+                            .addComponent(jPrewarmDaemonCheck)
+                            .addComponent(jSpeculativeModelLoadCheck)
                             .addComponent(jGradleJdkCaption)
                             .addComponent(jGradleUserHomeCaption))
                         .addGap(0, 114, Short.MAX_VALUE)))
@@ -352,11 +442,31 @@ public class GradleSettingsPanel extends javax.swing.JPanel {
                     .addComponent(jProjectCacheSizeLabel)
                     .addComponent(jProjectCacheSize, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(jPropertiesSaveDelayLabel)
+                    .addComponent(jPropertiesSaveDelay, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(jOutputLineLimitLabel)
+                    .addComponent(jOutputLineLimit, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(jMaxConcurrentBuildsLabel)
+                    .addComponent(jMaxConcurrentBuilds, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
                 .addComponent(jAlwayClearOutput)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
                 .addComponent(jDontAddInitScriptCheck)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
                 .addComponent(jReliableJavaVersionCheck)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                .addComponent(jProfileBuildsCheck)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                .addComponent(jBuildEventsCheck)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                .addComponent(jPrewarmDaemonCheck)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                .addComponent(jSpeculativeModelLoadCheck)
                 .addContainerGap(javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
         );
     }// </editor-fold>//GEN-END:initComponents
@@ -390,6 +500,7 @@ public class GradleSettingsPanel extends javax.swing.JPanel {
     private javax.swing.JCheckBox jAlwayClearOutput;
     private javax.swing.JButton jBrowsePathButton;
     private javax.swing.JButton jBrowseUserHomeDirButton;
+    private javax.swing.JCheckBox jBuildEventsCheck;
     private javax.swing.JCheckBox jDontAddInitScriptCheck;
     private javax.swing.JTextArea jGradleJVMArgs;
     private javax.swing.JLabel jGradleJdkCaption;
@@ -407,5 +518,14 @@ public class GradleSettingsPanel extends javax.swing.JPanel {
     private javax.swing.JCheckBox jReliableJavaVersionCheck;
     private javax.swing.JScrollPane jScrollPane1;
     private javax.swing.JCheckBox jSkipTestsCheck;
+    private javax.swing.JCheckBox jProfileBuildsCheck;
+    private javax.swing.JCheckBox jPrewarmDaemonCheck;
+    private javax.swing.JSpinner jMaxConcurrentBuilds;
+    private javax.swing.JLabel jMaxConcurrentBuildsLabel;
+    private javax.swing.JSpinner jOutputLineLimit;
+    private javax.swing.JLabel jOutputLineLimitLabel;
+    private javax.swing.JSpinner jPropertiesSaveDelay;
+    private javax.swing.JLabel jPropertiesSaveDelayLabel;
+    private javax.swing.JCheckBox jSpeculativeModelLoadCheck;
     // End of variables declaration//GEN-END:variables
 }
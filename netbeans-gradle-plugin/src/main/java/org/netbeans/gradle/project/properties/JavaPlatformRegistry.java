@@ -0,0 +1,206 @@
+package org.netbeans.gradle.project.properties;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.netbeans.api.java.platform.JavaPlatform;
+import org.netbeans.api.java.platform.JavaPlatformManager;
+import org.netbeans.api.java.platform.Specification;
+import org.openide.modules.SpecificationVersion;
+
+/**
+ * Caches the installed Java platforms and the platforms chosen for the
+ * requested specification names and versions. The cache is invalidated
+ * whenever the list of installed platforms changes.
+ * <P>
+ * The methods of this class are safe to be called from multiple threads
+ * concurrently.
+ */
+final class JavaPlatformRegistry {
+    public static final JavaPlatformRegistry DEFAULT = new JavaPlatformRegistry(new ManagerPlatformProvider());
+
+    private final PlatformProvider provider;
+    private final AtomicBoolean listening;
+    private final AtomicInteger generation;
+    private final List<Runnable> invalidationListeners;
+    private volatile PlatformIndex index;
+
+    public JavaPlatformRegistry(PlatformProvider provider) {
+        if (provider == null) throw new NullPointerException("provider");
+
+        this.provider = provider;
+        this.listening = new AtomicBoolean(false);
+        this.generation = new AtomicInteger(0);
+        this.invalidationListeners = new CopyOnWriteArrayList<Runnable>();
+        this.index = null;
+    }
+
+    private void startListening() {
+        if (listening.compareAndSet(false, true)) {
+            provider.addPlatformChangeListener(new Runnable() {
+                @Override
+                public void run() {
+                    invalidate();
+                }
+            });
+        }
+    }
+
+    /**
+     * Forgets the cached platforms, so that they are requested again from the
+     * platform provider the next time they are needed.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+
+        for (Runnable listener: invalidationListeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Registers a listener to be notified after the cached platforms were
+     * invalidated. The listener is never unregistered and might be notified
+     * on any thread.
+     */
+    public void addInvalidationListener(Runnable listener) {
+        if (listener == null) throw new NullPointerException("listener");
+        invalidationListeners.add(listener);
+    }
+
+    private PlatformIndex getIndex() {
+        startListening();
+
+        // The generation is read before reading the platforms, so if the
+        // platforms change concurrently, the new index will be considered
+        // outdated and will be recreated on the next call.
+        int currentGeneration = generation.get();
+        PlatformIndex result = index;
+        if (result == null || result.generation != currentGeneration) {
+            result = new PlatformIndex(currentGeneration, provider.getInstalledPlatforms());
+            index = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the installed platforms. The returned array is a copy, so it
+     * might be modified by the caller.
+     */
+    public JavaPlatform[] getInstalledPlatforms() {
+        return getIndex().platforms.clone();
+    }
+
+    /**
+     * Returns the platform with the given specification name and version or
+     * the best match, if there is no such platform. The best match is chosen
+     * as defined by {@link DefaultPropertySources#tryChooseFromPlatforms(String, String, JavaPlatform[]) }.
+     */
+    public JavaPlatform tryFindPlatform(String specName, String versionStr) {
+        if (specName == null) throw new NullPointerException("specName");
+        if (versionStr == null) throw new NullPointerException("versionStr");
+
+        return getIndex().tryFindPlatform(specName, versionStr);
+    }
+
+    private static String getKey(String specName, String versionStr) {
+        return specName.toLowerCase(Locale.ROOT) + "/" + versionStr;
+    }
+
+    private static String tryNormalizeVersion(String versionStr) {
+        try {
+            return new SpecificationVersion(versionStr).toString();
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    public interface PlatformProvider {
+        public JavaPlatform[] getInstalledPlatforms();
+
+        /**
+         * Registers a listener to be notified when the list of installed
+         * platforms changes. The listener is never unregistered.
+         */
+        public void addPlatformChangeListener(Runnable listener);
+    }
+
+    private static final class PlatformIndex {
+        public final int generation;
+        public final JavaPlatform[] platforms;
+        private final Map<String, JavaPlatform> exactPlatforms;
+        private final ConcurrentMap<String, JavaPlatform> chosenPlatforms;
+
+        public PlatformIndex(int generation, JavaPlatform[] platforms) {
+            this.generation = generation;
+            this.platforms = platforms.clone();
+            this.exactPlatforms = new HashMap<String, JavaPlatform>(2 * platforms.length);
+            this.chosenPlatforms = new ConcurrentHashMap<String, JavaPlatform>();
+
+            for (JavaPlatform platform: this.platforms) {
+                Specification specification = platform.getSpecification();
+                if (specification == null || specification.getName() == null) {
+                    continue;
+                }
+
+                SpecificationVersion version = specification.getVersion();
+                if (version == null) {
+                    continue;
+                }
+
+                String key = getKey(specification.getName(), version.toString());
+                // Keep the first one, like DefaultPropertySources.tryChooseFromPlatforms.
+                if (!exactPlatforms.containsKey(key)) {
+                    exactPlatforms.put(key, platform);
+                }
+            }
+        }
+
+        public JavaPlatform tryFindPlatform(String specName, String versionStr) {
+            String normalizedVersion = tryNormalizeVersion(versionStr);
+            if (normalizedVersion != null) {
+                JavaPlatform exactPlatform = exactPlatforms.get(getKey(specName, normalizedVersion));
+                if (exactPlatform != null) {
+                    return exactPlatform;
+                }
+            }
+
+            String key = getKey(specName, versionStr);
+            JavaPlatform result = chosenPlatforms.get(key);
+            if (result == null) {
+                result = DefaultPropertySources.tryChooseFromPlatforms(specName, versionStr, platforms);
+                if (result != null) {
+                    chosenPlatforms.putIfAbsent(key, result);
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class ManagerPlatformProvider implements PlatformProvider {
+        @Override
+        public JavaPlatform[] getInstalledPlatforms() {
+            return JavaPlatformManager.getDefault().getInstalledPlatforms();
+        }
+
+        @Override
+        public void addPlatformChangeListener(final Runnable listener) {
+            JavaPlatformManager.getDefault().addPropertyChangeListener(new PropertyChangeListener() {
+                @Override
+                public void propertyChange(PropertyChangeEvent evt) {
+                    if (JavaPlatformManager.PROP_INSTALLED_PLATFORMS.equals(evt.getPropertyName())) {
+                        listener.run();
+                    }
+                }
+            });
+        }
+    }
+}
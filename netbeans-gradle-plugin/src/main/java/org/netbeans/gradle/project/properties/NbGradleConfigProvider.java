@@ -13,15 +13,15 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.api.config.ProfileDef;
@@ -33,15 +33,17 @@ public final class NbGradleConfigProvider implements ProjectConfigurationProvide
 
     private static final String LAST_PROFILE_FILE = "last-profile";
 
-    private static final Lock CONFIG_PROVIDERS_LOCK = new ReentrantLock();
-    private static final Map<File, NbGradleConfigProvider> CONFIG_PROVIDERS
-            = new WeakValueHashMap<File, NbGradleConfigProvider>();
+    private static final ConcurrentWeakValueMap<File, NbGradleConfigProvider> CONFIG_PROVIDERS
+            = new ConcurrentWeakValueMap<File, NbGradleConfigProvider>();
 
     private final File rootDirectory;
+    private final ProfileIndex profileIndex;
     private final PropertyChangeSupport changeSupport;
     private final ChangeSupport activeConfigChanges;
     private final AtomicReference<List<NbGradleConfiguration>> configs;
     private final AtomicReference<NbGradleConfiguration> activeConfig;
+    private final AtomicReference<List<ProjectProperties>> activeProfileProperties;
+    private final AtomicReference<ProfileSwitchTracker> pendingSwitch;
     private final AtomicBoolean hasBeenUsed;
     private volatile boolean hasActiveBeenSet;
 
@@ -49,10 +51,14 @@ public final class NbGradleConfigProvider implements ProjectConfigurationProvide
         if (rootDirectory == null) throw new NullPointerException("rootDirectory");
 
         this.rootDirectory = rootDirectory;
+        this.profileIndex = SettingsFiles.getProfileIndex(rootDirectory);
         this.hasBeenUsed = new AtomicBoolean(false);
         this.changeSupport = new PropertyChangeSupport(this);
         this.activeConfigChanges = new ChangeSupport(this);
         this.activeConfig = new AtomicReference<NbGradleConfiguration>(NbGradleConfiguration.DEFAULT_CONFIG);
+        this.activeProfileProperties = new AtomicReference<List<ProjectProperties>>(
+                Collections.<ProjectProperties>emptyList());
+        this.pendingSwitch = new AtomicReference<ProfileSwitchTracker>(null);
         this.configs = new AtomicReference<List<NbGradleConfiguration>>(
                 Collections.singletonList(NbGradleConfiguration.DEFAULT_CONFIG));
         this.hasActiveBeenSet = false;
@@ -64,17 +70,13 @@ public final class NbGradleConfigProvider implements ProjectConfigurationProvide
         // TODO: Add configurations from enabled extensions.
         //   NbGradleConfigProvider is needed to be wrapped for this.
 
-        CONFIG_PROVIDERS_LOCK.lock();
-        try {
-            NbGradleConfigProvider result = CONFIG_PROVIDERS.get(rootDir);
-            if (result == null) {
-                result = new NbGradleConfigProvider(rootDir);
-                CONFIG_PROVIDERS.put(rootDir, result);
+        return CONFIG_PROVIDERS.getOrCreate(rootDir,
+                new ConcurrentWeakValueMap.ValueFactory<File, NbGradleConfigProvider>() {
+            @Override
+            public NbGradleConfigProvider create(File key) {
+                return new NbGradleConfigProvider(key);
             }
-            return result;
-        } finally {
-            CONFIG_PROVIDERS_LOCK.unlock();
-        }
+        });
     }
 
     private void removeFromConfig(NbGradleConfiguration config) {
@@ -121,6 +123,7 @@ public final class NbGradleConfigProvider implements ProjectConfigurationProvide
                         LOGGER.log(Level.INFO, "Profile was deleted but no profile file was found: {0}", profileFile);
                     }
                 }
+                profileIndex.refresh();
 
                 executeOnEdt(new Runnable() {
                     @Override
@@ -154,7 +157,7 @@ public final class NbGradleConfigProvider implements ProjectConfigurationProvide
     }
 
     public Collection<NbGradleConfiguration> findAndUpdateConfigurations(boolean mayRemove) {
-        Collection<ProfileDef> profileDefs = SettingsFiles.getAvailableProfiles(rootDirectory);
+        Collection<ProfileDef> profileDefs = profileIndex.getProfiles();
         List<NbGradleConfiguration> currentConfigs
                 = new ArrayList<NbGradleConfiguration>(profileDefs.size() + 1);
 
@@ -276,6 +279,18 @@ public final class NbGradleConfigProvider implements ProjectConfigurationProvide
                     readAndUpdateDefaultProfile();
                 }
             });
+
+            profileIndex.addChangeListener(new ChangeListener() {
+                @Override
+                public void stateChanged(ChangeEvent e) {
+                    NbGradleProject.PROJECT_PROCESSOR.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            findAndUpdateConfigurations(false);
+                        }
+                    });
+                }
+            });
         }
     }
 
@@ -300,6 +315,47 @@ public final class NbGradleConfigProvider implements ProjectConfigurationProvide
         return activeConfig.get();
     }
 
+    /**
+     * Starts loading the property files of the given configuration before the
+     * projects of this root directory are notified of the configuration
+     * change. The properties of these files are shared by all the projects of
+     * the root directory, so they are only loaded once regardless of the number
+     * of projects. The loaded properties of the active configuration are kept
+     * referenced, so that they are not reloaded by every project.
+     * <P>
+     * The time until the properties are loaded and every project was
+     * notified of the change (by the next
+     * {@link #setActiveConfiguration(NbGradleConfiguration) setActiveConfiguration})
+     * is logged at FINE level.
+     *
+     * @param project the project whose settings are used when the loaded
+     *   properties are saved. This project must be in this root directory.
+     */
+    public void preloadConfiguration(NbGradleProject project, final NbGradleConfiguration configuration) {
+        if (project == null) throw new NullPointerException("project");
+        if (configuration == null) throw new NullPointerException("configuration");
+
+        File[] files = SettingsFiles.getFilesForProfile(rootDirectory, configuration.getProfileDef());
+
+        // Every file must be loaded and the projects must be notified.
+        final ProfileSwitchTracker switchTracker = new ProfileSwitchTracker(configuration, files.length + 1);
+        pendingSwitch.set(switchTracker);
+
+        PropertiesLoadListener loadListener = new PropertiesLoadListener() {
+            @Override
+            public void loadedProperties(ProjectProperties properties) {
+                switchTracker.stepCompleted();
+            }
+        };
+
+        List<ProjectProperties> loadedProperties = new ArrayList<ProjectProperties>(files.length);
+        for (File file: files) {
+            ProjectPropertySource source = ProjectPropertiesManager.getFilePropertySource(project, file);
+            loadedProperties.add(source.load(loadListener));
+        }
+        activeProfileProperties.set(Collections.unmodifiableList(loadedProperties));
+    }
+
     @Override
     public void setActiveConfiguration(final NbGradleConfiguration configuration) {
         if (configuration == null) {
@@ -309,13 +365,25 @@ public final class NbGradleConfigProvider implements ProjectConfigurationProvide
 
         hasActiveBeenSet = true;
 
+        final ProfileSwitchTracker switchTracker = pendingSwitch.getAndSet(null);
         final NbGradleConfiguration prevConfig = activeConfig.getAndSet(configuration);
         if (!prevConfig.equals(configuration)) {
             executeOnEdt(new Runnable() {
                 @Override
                 public void run() {
-                    changeSupport.firePropertyChange(PROP_CONFIGURATION_ACTIVE, prevConfig, configuration);
-                    activeConfigChanges.fireChange();
+                    // Every project of this root reloads its properties, so
+                    // their listeners are notified in a single batch after
+                    // all the projects were updated.
+                    PropertyTransaction transaction = PropertyTransaction.begin();
+                    try {
+                        changeSupport.firePropertyChange(PROP_CONFIGURATION_ACTIVE, prevConfig, configuration);
+                        activeConfigChanges.fireChange();
+                    } finally {
+                        transaction.commit();
+                        if (switchTracker != null) {
+                            switchTracker.stepCompleted();
+                        }
+                    }
                 }
             });
         }
@@ -353,4 +421,24 @@ public final class NbGradleConfigProvider implements ProjectConfigurationProvide
     public void removeActiveConfigChangeListener(ChangeListener listener) {
         activeConfigChanges.removeChangeListener(listener);
     }
+
+    private final class ProfileSwitchTracker {
+        private final NbGradleConfiguration configuration;
+        private final long startTime;
+        private final AtomicInteger remainingStepCount;
+
+        public ProfileSwitchTracker(NbGradleConfiguration configuration, int stepCount) {
+            this.configuration = configuration;
+            this.startTime = System.nanoTime();
+            this.remainingStepCount = new AtomicInteger(stepCount);
+        }
+
+        public void stepCompleted() {
+            if (remainingStepCount.decrementAndGet() == 0 && LOGGER.isLoggable(Level.FINE)) {
+                long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                LOGGER.log(Level.FINE, "Switched to profile {0} in {1} in {2} ms.",
+                        new Object[]{configuration.getDisplayName(), rootDirectory, elapsedMs});
+            }
+        }
+    }
 }
@@ -97,6 +97,9 @@ implements
 
     @Override
     public void setActiveConfiguration(NbGradleConfiguration configuration) throws IOException {
+        if (configuration != null && !configuration.equals(commonConfig.getActiveConfiguration())) {
+            commonConfig.preloadConfiguration(project, configuration);
+        }
         commonConfig.setActiveConfiguration(configuration);
     }
 
@@ -0,0 +1,212 @@
+package org.netbeans.gradle.project.properties;
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.event.ChangeListener;
+import org.netbeans.gradle.project.api.config.ProfileDef;
+import org.openide.filesystems.FileAttributeEvent;
+import org.openide.filesystems.FileChangeListener;
+import org.openide.filesystems.FileEvent;
+import org.openide.filesystems.FileRenameEvent;
+import org.openide.filesystems.FileUtil;
+import org.openide.util.ChangeSupport;
+import org.openide.util.Utilities;
+
+/**
+ * Maintains the list of profiles available in a profile directory, so that
+ * the list of profiles can be retrieved without accessing the file system.
+ * The directory is listed when the profiles are first requested and then
+ * listed again only if a file in the directory is created, deleted or
+ * renamed.
+ * <P>
+ * The methods of this class are safe to be called from multiple threads
+ * concurrently.
+ */
+final class ProfileIndex {
+    private static final Logger LOGGER = Logger.getLogger(ProfileIndex.class.getName());
+
+    private final File profileDir;
+    private final String profileFileSuffix;
+    private final FileChangeListener dirListener;
+    private final ChangeSupport changes;
+
+    private final Object refreshLock;
+    private volatile Collection<ProfileDef> profiles;
+
+    public ProfileIndex(File profileDir, String profileFileSuffix) {
+        if (profileDir == null) throw new NullPointerException("profileDir");
+        if (profileFileSuffix == null) throw new NullPointerException("profileFileSuffix");
+
+        this.profileDir = profileDir;
+        this.profileFileSuffix = profileFileSuffix.toLowerCase(Locale.ROOT);
+        this.dirListener = new ProfileDirListener();
+        this.changes = new ChangeSupport(this);
+        this.refreshLock = new Object();
+        this.profiles = null;
+    }
+
+    private void startListening() {
+        try {
+            // This method allows to listen for a directory which does not
+            // exist yet and continues to listen after it was recreated. The
+            // listener is only weakly referenced, so that this index can be
+            // garbage collected when it is no longer used.
+            FileChangeListener weakListener = FileUtil.weakFileChangeListener(dirListener, null);
+            FileUtil.addFileChangeListener(weakListener, profileDir);
+            ListenerRemover.removeAfterCollected(this, weakListener, profileDir);
+        } catch (IllegalArgumentException ex) {
+            LOGGER.log(Level.INFO, "Cannot listen for changes in the profile directory: " + profileDir, ex);
+        }
+    }
+
+    /**
+     * Returns the profiles found in the profile directory. Only the first call
+     * of this method accesses the file system. The returned collection is an
+     * immutable snapshot.
+     */
+    public Collection<ProfileDef> getProfiles() {
+        Collection<ProfileDef> result = profiles;
+        if (result == null) {
+            synchronized (refreshLock) {
+                result = profiles;
+                if (result == null) {
+                    startListening();
+                    result = listProfiles();
+                    profiles = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Lists the profile directory again. This method only needs to be called
+     * if the content of the profile directory was modified through
+     * {@code java.io.File} (i.e., not through the file system API of
+     * NetBeans) and the change has to be visible immediately.
+     */
+    public void refresh() {
+        Collection<ProfileDef> prevProfiles;
+        Collection<ProfileDef> newProfiles;
+
+        synchronized (refreshLock) {
+            prevProfiles = profiles;
+            if (prevProfiles == null) {
+                // The profiles were never requested, so they will be read
+                // when they are first requested.
+                return;
+            }
+
+            newProfiles = listProfiles();
+            profiles = newProfiles;
+        }
+
+        if (!prevProfiles.equals(newProfiles)) {
+            changes.fireChange();
+        }
+    }
+
+    /**
+     * Registers a listener to be notified after the list of profiles has
+     * changed. The listener might be notified on any thread.
+     */
+    public void addChangeListener(ChangeListener listener) {
+        changes.addChangeListener(listener);
+    }
+
+    public void removeChangeListener(ChangeListener listener) {
+        changes.removeChangeListener(listener);
+    }
+
+    private Collection<ProfileDef> listProfiles() {
+        String[] fileNames = profileDir.list();
+        if (fileNames == null) {
+            return Collections.emptyList();
+        }
+
+        List<ProfileDef> result = new ArrayList<ProfileDef>(fileNames.length);
+        int suffixLength = profileFileSuffix.length();
+        for (String fileName: fileNames) {
+            if (fileName.toLowerCase(Locale.ROOT).endsWith(profileFileSuffix)) {
+                String profileName = fileName.substring(0, fileName.length() - suffixLength);
+                result.add(new ProfileDef(null, fileName, profileName));
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Removes the weak listener of a collected index from the file system.
+     * The weak listener cannot remove itself because it would need the
+     * directory to be removed from.
+     */
+    private static final class ListenerRemover extends WeakReference<ProfileIndex> implements Runnable {
+        // The references must be reachable until they are enqueued.
+        private static final Set<ListenerRemover> PENDING_REMOVERS
+                = Collections.newSetFromMap(new ConcurrentHashMap<ListenerRemover, Boolean>());
+
+        private final FileChangeListener listener;
+        private final File dir;
+
+        private ListenerRemover(ProfileIndex index, FileChangeListener listener, File dir) {
+            super(index, Utilities.activeReferenceQueue());
+            this.listener = listener;
+            this.dir = dir;
+        }
+
+        public static void removeAfterCollected(ProfileIndex index, FileChangeListener listener, File dir) {
+            PENDING_REMOVERS.add(new ListenerRemover(index, listener, dir));
+        }
+
+        @Override
+        public void run() {
+            PENDING_REMOVERS.remove(this);
+            try {
+                FileUtil.removeFileChangeListener(listener, dir);
+            } catch (IllegalArgumentException ex) {
+                LOGGER.log(Level.FINE, "The listener of the profile directory was already removed: " + dir, ex);
+            }
+        }
+    }
+
+    private final class ProfileDirListener implements FileChangeListener {
+        @Override
+        public void fileFolderCreated(FileEvent fe) {
+            refresh();
+        }
+
+        @Override
+        public void fileDataCreated(FileEvent fe) {
+            refresh();
+        }
+
+        @Override
+        public void fileChanged(FileEvent fe) {
+            // Modifying the content of a profile does not change the list of
+            // profiles.
+        }
+
+        @Override
+        public void fileDeleted(FileEvent fe) {
+            refresh();
+        }
+
+        @Override
+        public void fileRenamed(FileRenameEvent fe) {
+            refresh();
+        }
+
+        @Override
+        public void fileAttributeChanged(FileAttributeEvent fe) {
+        }
+    }
+}
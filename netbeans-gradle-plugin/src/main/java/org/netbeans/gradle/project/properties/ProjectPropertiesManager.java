@@ -7,9 +7,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
@@ -20,49 +18,39 @@ import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 import org.netbeans.api.java.platform.JavaPlatform;
 import org.netbeans.gradle.project.NbGradleProject;
-import org.netbeans.gradle.project.WaitableSignal;
 import org.netbeans.gradle.project.api.config.ProfileDef;
 import org.netbeans.gradle.project.api.entry.ProjectPlatform;
+import org.netbeans.gradle.project.persistent.DelayedSaveTask;
 import org.netbeans.gradle.project.persistent.PropertiesPersister;
 import org.netbeans.gradle.project.persistent.XmlPropertiesPersister;
 
 public final class ProjectPropertiesManager {
     private static final Logger LOGGER = Logger.getLogger(ProjectPropertiesManager.class.getName());
 
-    private static final Lock MAIN_LOCK = new ReentrantLock();
     // Don't forget that the value can't be wrapped, it must be the one to be
     // returned, otherwise it might get garbage collected.
-    private static final Map<ProjectPropertySource, CachedProperties> PROPERTIES
-            = new WeakValueHashMap<ProjectPropertySource, CachedProperties>();
-
-    private static void saveIfRequired(
-            final NbGradleProject project,
-            final AtomicBoolean saveQueued,
-            final ProjectProperties properties,
-            final PropertiesPersister persister) {
-
-        if (saveQueued.compareAndSet(false, true)) {
-            PropertiesPersister.PERSISTER_PROCESSOR.execute(new Runnable() {
-                @Override
-                public void run() {
-                    saveQueued.set(false);
-                    persister.save(project, properties, null);
-                }
-            });
-        }
-    }
+    private static final ConcurrentWeakValueMap<ProjectPropertySource, CachedProperties> PROPERTIES
+            = new ConcurrentWeakValueMap<ProjectPropertySource, CachedProperties>();
 
     private static void setSaveOnChange(
             final NbGradleProject project,
             final ProjectProperties properties,
             final PropertiesPersister persister) {
 
-        final AtomicBoolean saveQueued = new AtomicBoolean(false);
+        // Rescheduling the save task on every change delays the save until
+        // the properties were not changed for the configured period, so that
+        // consecutive changes are saved at once.
+        final DelayedSaveTask saveTask = new DelayedSaveTask(new Runnable() {
+            @Override
+            public void run() {
+                persister.save(project, properties, null);
+            }
+        });
 
         ChangeListener saveIfRequiredTask = new ChangeListener() {
             @Override
             public void stateChanged(ChangeEvent e) {
-                saveIfRequired(project, saveQueued, properties, persister);
+                saveTask.requestSave();
             }
         };
 
@@ -71,18 +59,6 @@ public final class ProjectPropertiesManager {
         }
     }
 
-    public static ProjectProperties getProperties(
-            NbGradleProject project,
-            final WaitableSignal loadedSignal) {
-        if (loadedSignal == null) throw new NullPointerException("loadedSignal");
-        return getPropertySourceForProject(project).load(new PropertiesLoadListener() {
-            @Override
-            public void loadedProperties(ProjectProperties properties) {
-                loadedSignal.signal();
-            }
-        });
-    }
-
     public static ProjectPropertySource getPropertySourceForProject(
             NbGradleProject project, ProfileDef profileDef) {
         return new NbProfileProjectPropertySource(project, profileDef);
@@ -159,30 +135,13 @@ public final class ProjectPropertiesManager {
 
         @Override
         public ProjectProperties load(PropertiesLoadListener onLoadTask) {
-            CachedProperties result;
-            MAIN_LOCK.lock();
-            try {
-                result = PROPERTIES.get(this);
-            } finally {
-                MAIN_LOCK.unlock();
-            }
-
-            if (result == null) {
-                final CachedProperties newProperties = loadPropertiesAlways(project, propertiesFile);
-
-                MAIN_LOCK.lock();
-                try {
-                    result = PROPERTIES.get(this);
-                    if (result == null) {
-                        PROPERTIES.put(this, newProperties);
-                        result = newProperties;
-                    }
-                } finally {
-                    MAIN_LOCK.unlock();
+            CachedProperties result = PROPERTIES.getOrCreate(this,
+                    new ConcurrentWeakValueMap.ValueFactory<ProjectPropertySource, CachedProperties>() {
+                @Override
+                public CachedProperties create(ProjectPropertySource key) {
+                    return loadPropertiesAlways(project, propertiesFile);
                 }
-            }
-
-            assert result != null;
+            });
 
             if (onLoadTask != null) {
                 result.notifyOnLoad(onLoadTask);
@@ -220,14 +179,7 @@ public final class ProjectPropertiesManager {
 
         @Override
         public ProjectProperties load(final PropertiesLoadListener onLoadTask) {
-            CachedProperties result;
-            MAIN_LOCK.lock();
-            try {
-                result = PROPERTIES.get(this);
-            } finally {
-                MAIN_LOCK.unlock();
-            }
-
+            CachedProperties result = PROPERTIES.get(this);
             if (result == null) {
                 final AtomicReference<CachedProperties> resultRef
                         = new AtomicReference<CachedProperties>(null);
@@ -266,17 +218,10 @@ public final class ProjectPropertiesManager {
                     newProperties = new FallbackProjectProperties(mainProperties, fallbackProperties);
                 }
 
-                CachedProperties cachedNewProperties = new CachedProperties(newProperties);
-                MAIN_LOCK.lock();
-                try {
-                    result = PROPERTIES.get(this);
-                    if (result == null) {
-                        PROPERTIES.put(this, cachedNewProperties);
-                        result = cachedNewProperties;
-                    }
-                } finally {
-                    MAIN_LOCK.unlock();
-                }
+                // The properties are not created while holding the lock of
+                // PROPERTIES (i.e., by getOrCreate) because loading the
+                // combined sources accesses PROPERTIES as well.
+                result = PROPERTIES.putIfAbsent(this, new CachedProperties(newProperties));
 
                 resultRef.set(result);
                 resultForwarder.loadedProperties(result);
@@ -303,15 +303,21 @@ public class ProjectPropertiesPanel extends javax.swing.JPanel {
 
     public void saveProperties() {
         saveShownProfile();
-        for (Map.Entry<ProfileItem, ProjectProperties> entry: storeForProperties.entrySet()) {
-            ProjectProperties src = entry.getValue();
-            ProjectProperties dest = project.getPropertiesForProfile(entry.getKey().getProfileDef(), false, null);
-
-            copyProperty(src.getScriptPlatform(), dest.getScriptPlatform());
-            copyProperty(src.getGradleLocation(), dest.getGradleLocation());
-            copyProperty(src.getPlatform(), dest.getPlatform());
-            copyProperty(src.getSourceEncoding(), dest.getSourceEncoding());
-            copyProperty(src.getSourceLevel(), dest.getSourceLevel());
+
+        PropertyTransaction transaction = PropertyTransaction.begin();
+        try {
+            for (Map.Entry<ProfileItem, ProjectProperties> entry: storeForProperties.entrySet()) {
+                ProjectProperties src = entry.getValue();
+                ProjectProperties dest = project.getPropertiesForProfile(entry.getKey().getProfileDef(), false, null);
+
+                copyProperty(src.getScriptPlatform(), dest.getScriptPlatform());
+                copyProperty(src.getGradleLocation(), dest.getGradleLocation());
+                copyProperty(src.getPlatform(), dest.getPlatform());
+                copyProperty(src.getSourceEncoding(), dest.getSourceEncoding());
+                copyProperty(src.getSourceLevel(), dest.getSourceLevel());
+            }
+        } finally {
+            transaction.commit();
         }
     }
 
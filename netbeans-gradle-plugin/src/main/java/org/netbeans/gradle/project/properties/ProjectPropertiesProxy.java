@@ -3,10 +3,12 @@ package org.netbeans.gradle.project.properties;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
@@ -41,6 +43,7 @@ public final class ProjectPropertiesProxy extends AbstractProjectProperties {
     private final ConcurrentMap<String, MutablePropertyProxy<PredefinedTask>> builtInTasks;
     private final ConcurrentMap<DomElementKey, AuxConfigProperty> auxProperties;
     private final WaitableSignal loadedSignal;
+    private final ConcurrentLinkedQueue<Runnable> loadedTasks;
 
     public ProjectPropertiesProxy(NbGradleProject project) {
         if (project == null) throw new NullPointerException("project");
@@ -48,6 +51,7 @@ public final class ProjectPropertiesProxy extends AbstractProjectProperties {
         this.propertiesRef = new AtomicReference<ProjectProperties>(null);
         this.changes = new ChangeSupport(this);
         this.loadedSignal = new WaitableSignal();
+        this.loadedTasks = new ConcurrentLinkedQueue<Runnable>();
 
         this.auxProperties = new ConcurrentHashMap<DomElementKey, AuxConfigProperty>();
         this.auxConfigListener = new MutablePropertyProxy<Void>(new ProjectMutablePropertyRef<Void>(this) {
@@ -102,6 +106,16 @@ public final class ProjectPropertiesProxy extends AbstractProjectProperties {
         this.builtInTasks = new ConcurrentHashMap<String, MutablePropertyProxy<PredefinedTask>>();
     }
 
+    /**
+     * Returns {@code true} if the properties have already been loaded. This
+     * method never waits for the properties to be loaded but starts loading
+     * them if they were not requested yet.
+     */
+    public boolean isLoaded() {
+        getProperties();
+        return loadedSignal.isSignaled();
+    }
+
     public boolean tryWaitForLoaded() {
         // Attempting to call this method from any of the threads below could
         // cause a dead-lock.
@@ -116,16 +130,63 @@ public final class ProjectPropertiesProxy extends AbstractProjectProperties {
         return loadedSignal.tryWaitForSignal();
     }
 
+    /**
+     * Executes the given task once the properties have been loaded, that is,
+     * when {@link #isLoaded()} would return {@code true}. If the properties
+     * have already been loaded, the task is executed immediately in the
+     * calling thread. This method does not wait for the properties to be
+     * loaded but starts loading them if they were not requested yet.
+     */
+    public void runWhenLoaded(Runnable task) {
+        if (task == null) throw new NullPointerException("task");
+
+        loadedTasks.add(task);
+        if (isLoaded()) {
+            runLoadedTasks();
+        }
+    }
+
+    private void runLoadedTasks() {
+        Runnable task = loadedTasks.poll();
+        while (task != null) {
+            try {
+                task.run();
+            } catch (Throwable ex) {
+                LOGGER.log(Level.SEVERE, "Unexpected failure after loading the properties.", ex);
+            }
+            task = loadedTasks.poll();
+        }
+    }
+
+    private ProjectProperties loadProperties() {
+        return ProjectPropertiesManager.getPropertySourceForProject(project).load(new PropertiesLoadListener() {
+            @Override
+            public void loadedProperties(ProjectProperties properties) {
+                loadedSignal.signal();
+                runLoadedTasks();
+            }
+        });
+    }
+
     private ProjectProperties getProperties() {
         ProjectProperties properties = propertiesRef.get();
         if (properties == null) {
-            properties = ProjectPropertiesManager.getProperties(project, loadedSignal);
+            properties = loadProperties();
             if (propertiesRef.compareAndSet(null, properties)) {
                 ChangeListener reloadTask = new ChangeListener() {
                     @Override
                     public void stateChanged(ChangeEvent e) {
-                        propertiesRef.set(ProjectPropertiesManager.getProperties(project, loadedSignal));
-                        changes.fireChange();
+                        propertiesRef.set(loadProperties());
+
+                        // Every property might have changed, so notify the
+                        // listeners registered with multiple properties only
+                        // once.
+                        PropertyTransaction transaction = PropertyTransaction.begin();
+                        try {
+                            changes.fireChange();
+                        } finally {
+                            transaction.commit();
+                        }
                     }
                 };
 
@@ -279,6 +340,16 @@ public final class ProjectPropertiesProxy extends AbstractProjectProperties {
         }
     }
 
+    private static void fireChange(ChangeEvent event, List<ChangeListener> listeners) {
+        for (ChangeListener listener: listeners) {
+            try {
+                PropertyTransaction.fireChange(event, Collections.singleton(listener));
+            } catch (Throwable ex) {
+                LOGGER.log(Level.SEVERE, "Unexpected exception in a listener.", ex);
+            }
+        }
+    }
+
     private static class MutablePropertyProxy<ValueType> implements MutableProperty<ValueType> {
         private final MutablePropertyRef<ValueType> propertyRef;
 
@@ -306,13 +377,7 @@ public final class ProjectPropertiesProxy extends AbstractProjectProperties {
                     }
 
                     if (listenersCopy != null) {
-                        for (ChangeListener listener: listenersCopy) {
-                            try {
-                                listener.stateChanged(e);
-                            } catch (Throwable ex) {
-                                LOGGER.log(Level.SEVERE, "Unexpected exception in a listener.", ex);
-                            }
-                        }
+                        fireChange(e, listenersCopy);
                     }
                 }
             };
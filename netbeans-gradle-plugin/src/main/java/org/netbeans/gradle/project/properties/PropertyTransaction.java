@@ -0,0 +1,135 @@
+package org.netbeans.gradle.project.properties;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+/**
+ * Groups changes of {@link MutableProperty} instances, so that the change
+ * listeners of the properties are notified only once after all the changes
+ * were done. That is, a listener registered with multiple properties modified
+ * within the same transaction is notified only once, when the transaction is
+ * committed.
+ * <P>
+ * Transactions are bound to the thread starting them (which is usually the
+ * EDT, since properties must be set on the EDT). Transactions started while
+ * another transaction is active on the same thread join the outer
+ * transaction, so listeners are only notified when the outermost
+ * transaction is committed.
+ * <P>
+ * Only the notifications are delayed, the new values of the properties are
+ * visible immediately. Transactions are intended to be used as follows:
+ * <pre>
+ * PropertyTransaction transaction = PropertyTransaction.begin();
+ * try {
+ *     properties.getSourceLevel().setValue(...);
+ *     properties.getPlatform().setValue(...);
+ * } finally {
+ *     transaction.commit();
+ * }
+ * </pre>
+ */
+public final class PropertyTransaction {
+    private static final Logger LOGGER = Logger.getLogger(PropertyTransaction.class.getName());
+
+    private static final ThreadLocal<PropertyTransaction> CURRENT = new ThreadLocal<PropertyTransaction>();
+
+    // These fields are only accessed by the thread which started this
+    // transaction.
+    private final Map<ChangeListener, ChangeEvent> pendingNotifications;
+    private int depth;
+    private boolean notifying;
+
+    private PropertyTransaction() {
+        this.pendingNotifications = new LinkedHashMap<ChangeListener, ChangeEvent>();
+        this.depth = 0;
+        this.notifying = false;
+    }
+
+    /**
+     * Starts a new transaction or joins the transaction already active on
+     * the calling thread. The returned transaction must be committed by the
+     * same thread.
+     */
+    public static PropertyTransaction begin() {
+        PropertyTransaction result = CURRENT.get();
+        if (result == null) {
+            result = new PropertyTransaction();
+            CURRENT.set(result);
+        }
+
+        result.depth++;
+        return result;
+    }
+
+    /**
+     * Ends this transaction and notifies the listeners of the properties
+     * changed in this transaction, unless this transaction was joined to an
+     * outer transaction. Every listener is notified at most once, even if
+     * it was registered with multiple changed properties.
+     * <P>
+     * Listeners notified in this method might change properties as well.
+     * Listeners of these properties are notified after every listener was
+     * notified of the previous changes (again, each of them at most once).
+     */
+    public void commit() {
+        if (CURRENT.get() != this || depth <= 0) {
+            throw new IllegalStateException("The transaction is not active on the calling thread.");
+        }
+
+        depth--;
+        if (depth > 0 || notifying) {
+            return;
+        }
+
+        notifying = true;
+        try {
+            // Keep this transaction active, so that the changes done by the
+            // notified listeners are collected as well.
+            while (!pendingNotifications.isEmpty()) {
+                List<Map.Entry<ChangeListener, ChangeEvent>> notifications
+                        = new ArrayList<Map.Entry<ChangeListener, ChangeEvent>>(pendingNotifications.entrySet());
+                pendingNotifications.clear();
+
+                for (Map.Entry<ChangeListener, ChangeEvent> notification: notifications) {
+                    try {
+                        notification.getKey().stateChanged(notification.getValue());
+                    } catch (Throwable ex) {
+                        LOGGER.log(Level.SEVERE, "Unexpected exception in a listener.", ex);
+                    }
+                }
+            }
+        } finally {
+            pendingNotifications.clear();
+            notifying = false;
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Notifies the given listeners of a change, or delays the notification
+     * until the commit of the transaction active on the calling thread (if
+     * there is one).
+     */
+    static void fireChange(ChangeEvent event, Collection<? extends ChangeListener> listeners) {
+        PropertyTransaction transaction = CURRENT.get();
+        if (transaction == null) {
+            for (ChangeListener listener: listeners) {
+                listener.stateChanged(event);
+            }
+            return;
+        }
+
+        for (ChangeListener listener: listeners) {
+            if (!transaction.pendingNotifications.containsKey(listener)) {
+                transaction.pendingNotifications.put(listener, event);
+            }
+        }
+    }
+}
@@ -1,12 +1,7 @@
 package org.netbeans.gradle.project.properties;
 
 import java.io.File;
-import java.io.FilenameFilter;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
-import java.util.Locale;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.api.config.ProfileDef;
 import org.netbeans.gradle.project.model.NbGradleModel;
@@ -17,38 +12,39 @@ public final class SettingsFiles {
     private static final String SETTINGS_DIR_NAME = ".nb-gradle";
     private static final String PROFILE_DIRECTORY = "profiles";
     private static final String PRIVATE_SETTINGS_DIR = "private";
+    private static final String AUX_CONFIG_DIR = "aux-config";
+
+    private static final ConcurrentWeakValueMap<File, ProfileIndex> PROFILE_INDEXES
+            = new ConcurrentWeakValueMap<File, ProfileIndex>();
 
     public static File getPrivateSettingsDir(File rootDir) {
         return new File(getSettingsDir(rootDir), PRIVATE_SETTINGS_DIR);
     }
 
-    public static Collection<ProfileDef> getAvailableProfiles(File rootDir) {
-        File profileDir = getProfileDirectory(rootDir);
-        if (!profileDir.isDirectory()) {
-            return Collections.emptySet();
-        }
+    /**
+     * Returns the directory where the private auxiliary configuration
+     * fragments are stored (one file for each fragment).
+     */
+    public static File getPrivateAuxConfigDir(File rootDir) {
+        return new File(getPrivateSettingsDir(rootDir), AUX_CONFIG_DIR);
+    }
 
-        File[] profileFiles = profileDir.listFiles(new FilenameFilter() {
+    /**
+     * Returns the index of the profiles available for the given root
+     * directory. The same index is returned for the same directory as long as
+     * the index is referenced.
+     */
+    static ProfileIndex getProfileIndex(File rootDir) {
+        return PROFILE_INDEXES.getOrCreate(rootDir, new ConcurrentWeakValueMap.ValueFactory<File, ProfileIndex>() {
             @Override
-            public boolean accept(File dir, String name) {
-                return name.toLowerCase(Locale.ROOT).endsWith(PROFILE_FILE_NAME_SUFFIX);
+            public ProfileIndex create(File key) {
+                return new ProfileIndex(getProfileDirectory(key), PROFILE_FILE_NAME_SUFFIX);
             }
         });
+    }
 
-        if (profileFiles == null) {
-            return Collections.emptySet();
-        }
-
-        List<ProfileDef> result = new ArrayList<ProfileDef>(profileFiles.length);
-        int suffixLength = PROFILE_FILE_NAME_SUFFIX.length();
-        for (File profileFile: profileFiles) {
-            String fileName = profileFile.getName();
-            if (fileName.length() >= suffixLength) {
-                String profileName = fileName.substring(0, fileName.length() - suffixLength);
-                result.add(new ProfileDef(null, fileName, profileName));
-            }
-        }
-        return result;
+    public static Collection<ProfileDef> getAvailableProfiles(File rootDir) {
+        return getProfileIndex(rootDir).getProfiles();
     }
 
     public static ProfileDef getStandardProfileDef(String profileName) {
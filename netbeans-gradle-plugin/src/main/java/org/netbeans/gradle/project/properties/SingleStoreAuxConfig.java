@@ -48,12 +48,25 @@ public final class SingleStoreAuxConfig {
         SwingUtilities.invokeLater(new Runnable() {
             @Override
             public void run() {
-                storage.getAuxConfig(elementName, namespace).getProperty().setValue(newElementRef.element);
+                setIfChanged(storage.getAuxConfig(elementName, namespace).getProperty(), newElementRef.element);
                 temporaryStore.remove(key, newElementRef);
             }
         });
     }
 
+    // Setting a property causes the properties containing it to be saved,
+    // so fragments put again with the same content are ignored.
+    private static void setIfChanged(MutableProperty<Element> property, Element newValue) {
+        Element currentValue = property.getValue();
+        boolean unchanged = currentValue != null && newValue != null
+                ? currentValue.isEqualNode(newValue)
+                : currentValue == newValue;
+
+        if (!unchanged) {
+            property.setValue(newValue);
+        }
+    }
+
     public boolean removeConfigurationFragment(final String elementName, final String namespace) {
         DomElementKey key = new DomElementKey(elementName, namespace);
         temporaryStore.remove(key);
@@ -61,7 +74,7 @@ public final class SingleStoreAuxConfig {
         SwingUtilities.invokeLater(new Runnable() {
             @Override
             public void run() {
-                storage.getAuxConfig(elementName, namespace).getProperty().setValue(null);
+                setIfChanged(storage.getAuxConfig(elementName, namespace).getProperty(), null);
             }
         });
         return true;
@@ -15,6 +15,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -33,7 +35,10 @@ import org.netbeans.gradle.project.api.task.CommandCompleteListener;
 import org.netbeans.gradle.project.api.task.TaskVariable;
 import org.netbeans.gradle.project.api.task.TaskVariableMap;
 import org.netbeans.gradle.project.model.GradleModelLoader;
+import org.netbeans.gradle.project.output.AsyncOutputForwarder;
 import org.netbeans.gradle.project.output.BuildErrorConsumer;
+import org.netbeans.gradle.project.output.BuildOutputLog;
+import org.netbeans.gradle.project.output.FileExistenceCache;
 import org.netbeans.gradle.project.output.FileLineConsumer;
 import org.netbeans.gradle.project.output.IOTabRef;
 import org.netbeans.gradle.project.output.IOTabs;
@@ -48,6 +53,7 @@ import org.netbeans.gradle.project.output.WriterOutputStream;
 import org.netbeans.gradle.project.properties.GlobalGradleSettings;
 import org.openide.LifecycleManager;
 import org.openide.util.RequestProcessor;
+import org.openide.windows.OutputListener;
 import org.openide.windows.OutputWriter;
 
 public final class AsyncGradleTask implements Runnable {
@@ -148,6 +154,8 @@ public final class AsyncGradleTask implements Runnable {
             BuildLauncher buildLauncher,
             GradleTaskDef taskDef,
             List<StringAsFileRef> initScripts,
+            BuildProfileSession profileSession,
+            BuildEventSession eventSession,
             final ProgressHandle progress) {
 
         File javaHome = GradleModelLoader.getScriptJavaHome(project);
@@ -168,6 +176,14 @@ public final class AsyncGradleTask implements Runnable {
             arguments.add(initScript.getFile().getPath());
         }
 
+        if (profileSession != null) {
+            arguments.addAll(profileSession.getArguments());
+        }
+
+        if (eventSession != null) {
+            arguments.addAll(eventSession.getArguments());
+        }
+
         if (!arguments.isEmpty()) {
             buildLauncher.withArguments(arguments.toArray(new String[arguments.size()]));
         }
@@ -186,35 +202,60 @@ public final class AsyncGradleTask implements Runnable {
             NbGradleProject project,
             GradleTaskDef taskDef,
             BuildLauncher buildLauncher,
-            TaskIOTab tab) {
+            TaskIOTab tab,
+            BuildEventSession eventSession,
+            BuildEventHandler eventHandler) {
+
+        // Shared by the consumers of both stdout and stderr because they
+        // often refer to the same files.
+        FileExistenceCache fileCache = new FileExistenceCache();
 
         List<SmartOutputHandler.Consumer> consumers = new LinkedList<SmartOutputHandler.Consumer>();
         consumers.add(new StackTraceConsumer(project));
         consumers.add(new OutputUrlConsumer());
-        consumers.add(new ProjectFileConsumer(project));
+        consumers.add(new ProjectFileConsumer(project, fileCache));
 
         List<SmartOutputHandler.Consumer> outputConsumers = new LinkedList<SmartOutputHandler.Consumer>();
+        if (eventSession != null) {
+            outputConsumers.add(new FailedTestConsumer(project, eventSession, eventHandler));
+        }
         outputConsumers.addAll(consumers);
 
+        int outputLineLimit = GlobalGradleSettings.getOutputLineLimit().getValue();
+        BuildOutputLog outputLog = outputLineLimit > 0
+                ? BuildOutputLog.tryCreate(outputLineLimit)
+                : null;
+
         List<SmartOutputHandler.Consumer> errorConsumers = new LinkedList<SmartOutputHandler.Consumer>();
         errorConsumers.add(new BuildErrorConsumer());
         errorConsumers.addAll(consumers);
-        errorConsumers.add(new FileLineConsumer());
+        errorConsumers.add(new FileLineConsumer(fileCache));
 
+        // The characters are counted after folding the output, so only the
+        // printed lines are counted.
         Writer forwardedStdOut = new LineOutputWriter(new SmartOutputHandler(
-                tab.getIo().getOutRef(),
+                tab.countWrittenChars(tab.getIo().getOutRef()),
                 Arrays.asList(taskDef.getStdOutListener()),
-                outputConsumers));
+                outputConsumers,
+                outputLog));
         Writer forwardedStdErr = new LineOutputWriter(new SmartOutputHandler(
-                tab.getIo().getErrRef(),
+                tab.countWrittenChars(tab.getIo().getErrRef()),
                 Arrays.asList(taskDef.getStdErrListener()),
-                errorConsumers));
-
-        buildLauncher.setStandardOutput(new WriterOutputStream(forwardedStdOut));
-        buildLauncher.setStandardError(new WriterOutputStream(forwardedStdErr));
+                errorConsumers,
+                outputLog));
+
+        // Decoding the output and printing it to the output window is done
+        // on a background thread, so that a slow output window does not slow
+        // down the build.
+        AsyncOutputForwarder outputForwarder = new AsyncOutputForwarder(
+                new WriterOutputStream(forwardedStdOut),
+                new WriterOutputStream(forwardedStdErr));
+
+        buildLauncher.setStandardOutput(outputForwarder.getStream(0));
+        buildLauncher.setStandardError(outputForwarder.getStream(1));
         buildLauncher.setStandardInput(new ReaderInputStream(tab.getIo().getInRef()));
 
-        return new OutputRef(forwardedStdOut, forwardedStdErr);
+        return new OutputRef(outputForwarder, outputLog);
     }
 
     private void doGradleTasksWithProgress(
@@ -249,8 +290,17 @@ public final class AsyncGradleTask implements Runnable {
 
             BuildLauncher buildLauncher = projectConnection.newBuild();
             List<StringAsFileRef> initScripts = getAllInitScriptFiles(project);
+            boolean omitInitScript = GlobalGradleSettings.getOmitInitScript().getValue();
+            BuildProfileSession profileSession = !omitInitScript && GlobalGradleSettings.getProfileBuilds().getValue()
+                    ? BuildProfileSession.tryStart()
+                    : null;
+            BuildEventHandler eventHandler = new BuildEventHandler(progress);
+            BuildEventSession eventSession = !omitInitScript && GlobalGradleSettings.getBuildEvents().getValue()
+                    ? BuildEventSession.tryStart(eventHandler)
+                    : null;
             try {
-                configureBuildLauncher(project, buildLauncher, taskDef, initScripts, progress);
+                configureBuildLauncher(project, buildLauncher, taskDef,
+                        initScripts, profileSession, eventSession, progress);
 
                 TaskOutputDef outputDef = taskDef.getOutputDef();
 
@@ -260,6 +310,7 @@ public final class AsyncGradleTask implements Runnable {
                 try {
                     TaskIOTab tab = ioRef.getTab();
                     tab.setLastTask(commandSpec.getSource(), adjust(taskDef));
+                    tab.setLastProfile(null);
                     tab.taskStarted();
 
                     try {
@@ -267,23 +318,34 @@ public final class AsyncGradleTask implements Runnable {
                         if (GlobalGradleSettings.getAlwaysClearOutput().getValue()
                                 || taskDef.isCleanOutput()) {
                             buildOutput.reset();
+                            tab.outputCleared();
                             // There is no need to reset buildErrOutput,
                             // at least this is what NetBeans tells you in its
                             // logs if you do.
                         }
                         printCommand(buildOutput, command, taskDef);
 
-                        OutputRef outputRef = configureOutput(project, taskDef, buildLauncher, tab);
+                        OutputRef outputRef = configureOutput(project, taskDef, buildLauncher, tab,
+                                eventSession, eventHandler);
                         try {
                             tab.getIo().getIo().select();
-                            buildLauncher.run();
+                            try {
+                                buildLauncher.run();
+                            } finally {
+                                GradleDaemonWarmer.daemonUsed(project, taskDef.getJvmArguments());
+                            }
+
+                            // Let the output of the build be printed before
+                            // anything printed by the finalizer.
+                            outputRef.flush();
 
                             taskDef.getCommandFinalizer().finalizeSuccessfulCommand(
                                     buildOutput,
                                     tab.getIo().getErrRef());
                         } finally {
-                            // This close method will only forward the last lines
-                            // if they were not terminated with a line separator.
+                            // This close method waits until the output is
+                            // printed and forwards the last lines if they
+                            // were not terminated with a line separator.
                             outputRef.close();
                         }
                     } catch (Throwable ex) {
@@ -300,12 +362,21 @@ public final class AsyncGradleTask implements Runnable {
                         project.displayError(buildFailureMessage, ex, false);
                     }
 
+                    if (profileSession != null) {
+                        tab.setLastProfile(profileSession.tryReadProfile());
+                    }
                     tab.taskCompleted();
                 } finally {
                     ioRef.close();
                 }
             } finally {
                 closeAll(initScripts);
+                if (profileSession != null) {
+                    closeAll(Collections.singletonList(profileSession));
+                }
+                if (eventSession != null) {
+                    closeAll(Collections.singletonList(eventSession));
+                }
             }
         } finally {
             if (projectConnection != null) {
@@ -443,12 +514,14 @@ public final class AsyncGradleTask implements Runnable {
                 String caption = NbStrings.getExecuteTasksText(taskName);
                 boolean nonBlocking = taskDef.isNonBlocking();
 
+                Object buildKey = GradleDaemonManager.getBuildKey(project.getAvailableModel());
+
                 return new DaemonTaskDef(caption, nonBlocking, new DaemonTask() {
                     @Override
                     public void run(ProgressHandle progress) {
                         doGradleTasksWithProgress(progress, project, processedCommand);
                     }
-                });
+                }, buildKey);
             }
         };
 
@@ -492,20 +565,121 @@ public final class AsyncGradleTask implements Runnable {
         }
     }
 
-    private static class OutputRef implements Closeable {
-        private final Writer[] writers;
+    private static String getTestId(String className, String testName) {
+        // This is how Gradle identifies the tests in its output.
+        return className + " > " + testName;
+    }
+
+    private static final class BuildEventHandler implements BuildEventListener {
+        private final ProgressHandle progress;
+        private final ConcurrentMap<String, BuildEvent> failedTests;
+
+        public BuildEventHandler(ProgressHandle progress) {
+            this.progress = progress;
+            this.failedTests = new ConcurrentHashMap<String, BuildEvent>();
+        }
+
+        @Override
+        public void onEvent(BuildEvent event) {
+            switch (event.getKind()) {
+                case TASK_STARTED:
+                    progress.progress(event.getTaskPath());
+                    break;
+                case TEST_FAILED:
+                    failedTests.put(getTestId(event.getTestClassName(), event.getTestName()), event);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        public BuildEvent tryGetFailedTest(String testId) {
+            return failedTests.get(testId);
+        }
+    }
+
+    /**
+     * Links the lines Gradle prints about failed tests (e.g.:
+     * "org.test.MyTest > testMethod FAILED") to the failing line of the test,
+     * as reported by the build events.
+     */
+    private static final class FailedTestConsumer implements SmartOutputHandler.Consumer {
+        private static final String FAILED_SUFFIX = " FAILED";
+
+        private final BuildEventSession eventSession;
+        private final BuildEventHandler eventHandler;
+        // Only used to find the source files of the test classes.
+        private final StackTraceConsumer sourceFinder;
+
+        public FailedTestConsumer(
+                NbGradleProject project,
+                BuildEventSession eventSession,
+                BuildEventHandler eventHandler) {
+            this.eventSession = eventSession;
+            this.eventHandler = eventHandler;
+            this.sourceFinder = new StackTraceConsumer(project);
+        }
+
+        private BuildEvent tryGetFailedTest(String line) {
+            if (!line.endsWith(FAILED_SUFFIX)) {
+                return null;
+            }
+
+            String testId = line.substring(0, line.length() - FAILED_SUFFIX.length()).trim();
+            BuildEvent result = eventHandler.tryGetFailedTest(testId);
+            if (result == null) {
+                // The event might have been written but not yet polled.
+                eventSession.readNewEvents();
+                result = eventHandler.tryGetFailedTest(testId);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean tryConsumeLine(String line, OutputWriter output) throws IOException {
+            BuildEvent failedTest = tryGetFailedTest(line);
+            if (failedTest == null) {
+                return false;
+            }
+
+            OutputListener listener = sourceFinder.tryCreateSourceListener(
+                    failedTest.getTestClassName(),
+                    failedTest.getTestLineNumber());
+            if (listener == null) {
+                return false;
+            }
+
+            output.println(line, listener, false);
+            return true;
+        }
+    }
+
+    private static final class OutputRef implements Closeable {
+        private final AsyncOutputForwarder outputForwarder;
+        private final BuildOutputLog outputLog;
 
-        public OutputRef(Writer... writers) {
-            this.writers = writers.clone();
-            for (Writer writer: this.writers) {
-                if (writer == null) throw new NullPointerException("writer");
+        public OutputRef(AsyncOutputForwarder outputForwarder, BuildOutputLog outputLog) {
+            if (outputForwarder == null) throw new NullPointerException("outputForwarder");
+
+            this.outputForwarder = outputForwarder;
+            this.outputLog = outputLog;
+        }
+
+        public void flush() throws IOException {
+            outputForwarder.flush();
+            if (outputLog != null) {
+                outputLog.flush();
             }
         }
 
         @Override
         public void close() throws IOException {
-            for (Writer writer: writers) {
-                writer.close();
+            try {
+                outputForwarder.close();
+            } finally {
+                if (outputLog != null) {
+                    outputLog.close();
+                }
             }
         }
     }
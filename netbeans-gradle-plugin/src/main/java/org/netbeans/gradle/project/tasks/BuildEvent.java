@@ -0,0 +1,172 @@
+package org.netbeans.gradle.project.tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Defines an event of a build, as reported by the build events init script
+ * (nb-build-events-init-script.gradle).
+ * <P>
+ * Instances of this class are immutable and as such are safe to be accessed
+ * concurrently from multiple threads.
+ */
+final class BuildEvent {
+    public enum Kind {
+        TASK_STARTED(1),
+        TASK_FINISHED(2),
+        TEST_FAILED(4);
+
+        private final int fieldCount;
+
+        private Kind(int fieldCount) {
+            this.fieldCount = fieldCount;
+        }
+    }
+
+    private final Kind kind;
+    private final String name;
+    private final String testName;
+    private final String detail;
+    private final int lineNumber;
+
+    private BuildEvent(Kind kind, String name, String testName, String detail, int lineNumber) {
+        this.kind = kind;
+        this.name = name;
+        this.testName = testName;
+        this.detail = detail;
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Parses a single record (without the line separator) written by the
+     * init script.
+     *
+     * @return the event defined by the record or {@code null} if the record
+     *   is not recognized
+     */
+    public static BuildEvent tryParse(String record) {
+        List<String> fields = splitFields(record);
+        if (fields.isEmpty()) {
+            return null;
+        }
+
+        Kind kind;
+        try {
+            kind = Kind.valueOf(fields.get(0));
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+
+        if (fields.size() < kind.fieldCount + 1) {
+            return null;
+        }
+
+        switch (kind) {
+            case TASK_STARTED:
+                return new BuildEvent(kind, fields.get(1), "", "", -1);
+            case TASK_FINISHED:
+                return new BuildEvent(kind, fields.get(1), "", fields.get(2), -1);
+            case TEST_FAILED:
+                return new BuildEvent(kind, fields.get(1), fields.get(2), fields.get(3), parseLineNumber(fields.get(4)));
+            default:
+                throw new AssertionError(kind.name());
+        }
+    }
+
+    private static int parseLineNumber(String str) {
+        try {
+            return Integer.parseInt(str);
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private static List<String> splitFields(String record) {
+        List<String> result = new ArrayList<String>();
+        StringBuilder field = new StringBuilder();
+
+        int length = record.length();
+        for (int i = 0; i < length; i++) {
+            char ch = record.charAt(i);
+            if (ch == '\t') {
+                result.add(field.toString());
+                field.setLength(0);
+            }
+            else if (ch == '\\' && i + 1 < length) {
+                i++;
+                char escaped = record.charAt(i);
+                switch (escaped) {
+                    case 't':
+                        field.append('\t');
+                        break;
+                    case 'n':
+                        field.append('\n');
+                        break;
+                    case 'r':
+                        field.append('\r');
+                        break;
+                    default:
+                        field.append(escaped);
+                        break;
+                }
+            }
+            else {
+                field.append(ch);
+            }
+        }
+
+        if (length > 0) {
+            result.add(field.toString());
+        }
+        return result;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the path of the task for task events.
+     */
+    public String getTaskPath() {
+        return name;
+    }
+
+    /**
+     * Returns the outcome of the task for {@link Kind#TASK_FINISHED} events.
+     * E.g.: "EXECUTED", "UP_TO_DATE", "SKIPPED" or "FAILED".
+     */
+    public String getTaskOutcome() {
+        return detail;
+    }
+
+    /**
+     * Returns the fully qualified name of the test class for
+     * {@link Kind#TEST_FAILED} events.
+     */
+    public String getTestClassName() {
+        return name;
+    }
+
+    public String getTestName() {
+        return testName;
+    }
+
+    public String getTestMessage() {
+        return detail;
+    }
+
+    /**
+     * Returns the line number (starting from one) of the test class where
+     * the test failed or -1 if it is not known.
+     */
+    public int getTestLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public String toString() {
+        return "BuildEvent{" + "kind=" + kind + ", name=" + name + ", testName=" + testName
+                + ", detail=" + detail + ", lineNumber=" + lineNumber + '}';
+    }
+}
@@ -0,0 +1,11 @@
+package org.netbeans.gradle.project.tasks;
+
+/**
+ * Defines a listener to be notified about the events of a build as reported
+ * by the build events init script.
+ * <P>
+ * Listeners are notified on a background thread but never concurrently.
+ */
+interface BuildEventListener {
+    public void onEvent(BuildEvent event);
+}
@@ -0,0 +1,91 @@
+package org.netbeans.gradle.project.tasks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads the records appended to the file written by the build events init
+ * script since the previous read. Only complete records (terminated by a
+ * line feed) are processed, the bytes of the last incomplete record are kept
+ * until the record is completed.
+ * <P>
+ * Instances of this class are not safe to be used concurrently by multiple
+ * threads.
+ */
+final class BuildEventReader {
+    private static final Logger LOGGER = Logger.getLogger(BuildEventReader.class.getName());
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final File file;
+    private final BuildEventListener listener;
+    private final byte[] buffer;
+    private final ByteArrayOutputStream incompleteRecord;
+    private long position;
+
+    public BuildEventReader(File file, BuildEventListener listener) {
+        if (file == null) throw new NullPointerException("file");
+        if (listener == null) throw new NullPointerException("listener");
+
+        this.file = file;
+        this.listener = listener;
+        this.buffer = new byte[8 * 1024];
+        this.incompleteRecord = new ByteArrayOutputStream(256);
+        this.position = 0;
+    }
+
+    /**
+     * Notifies the listener about the records appended to the file since the
+     * last call of this method.
+     */
+    public void readNewEvents() throws IOException {
+        if (file.length() <= position) {
+            return;
+        }
+
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+            input.seek(position);
+
+            int readCount = input.read(buffer);
+            while (readCount > 0) {
+                position += readCount;
+                processBytes(readCount);
+                readCount = input.read(buffer);
+            }
+        } finally {
+            input.close();
+        }
+    }
+
+    private void processBytes(int length) {
+        int recordStart = 0;
+        for (int i = 0; i < length; i++) {
+            if (buffer[i] == '\n') {
+                incompleteRecord.write(buffer, recordStart, i - recordStart);
+                processRecord(new String(incompleteRecord.toByteArray(), UTF8));
+                incompleteRecord.reset();
+                recordStart = i + 1;
+            }
+        }
+        incompleteRecord.write(buffer, recordStart, length - recordStart);
+    }
+
+    private void processRecord(String record) {
+        BuildEvent event = BuildEvent.tryParse(record);
+        if (event == null) {
+            LOGGER.log(Level.INFO, "Unexpected build event record: {0}", record);
+            return;
+        }
+
+        try {
+            listener.onEvent(event);
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.SEVERE, "Unexpected exception in a build event listener.", ex);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.netbeans.gradle.project.tasks;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.netbeans.api.annotations.common.StaticResource;
+import org.netbeans.gradle.model.util.StringAsFileRef;
+import org.netbeans.gradle.project.StringUtils;
+import org.openide.util.RequestProcessor;
+
+/**
+ * Injects the build events init script into a build and forwards the events
+ * written by the init script to a {@link BuildEventListener} while the build
+ * is running.
+ * <P>
+ * The events are exchanged through a temporary file which is polled on a
+ * background thread.
+ */
+final class BuildEventSession implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(BuildEventSession.class.getName());
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final RequestProcessor EVENT_PROCESSOR
+            = new RequestProcessor("Gradle-Build-Event-Processor", 4, true);
+
+    @StaticResource
+    private static final String EVENTS_INIT_SCRIPT_PATH = "org/netbeans/gradle/project/resources/nb-build-events-init-script.gradle";
+    private static final String OUTPUT_PROPERTY_NAME = "org.netbeans.gradle.buildEvents";
+    private static final int POLL_INTERVAL_MS = 250;
+
+    private final StringAsFileRef initScript;
+    private final File outputFile;
+    private final BuildEventReader reader;
+    private final RequestProcessor.Task pollTask;
+    private volatile boolean finished;
+
+    private BuildEventSession(StringAsFileRef initScript, File outputFile, BuildEventListener listener) {
+        this.initScript = initScript;
+        this.outputFile = outputFile;
+        this.reader = new BuildEventReader(outputFile, listener);
+        this.finished = false;
+        this.pollTask = EVENT_PROCESSOR.create(new Runnable() {
+            @Override
+            public void run() {
+                readNewEvents();
+                if (!finished) {
+                    pollTask.schedule(POLL_INTERVAL_MS);
+                }
+            }
+        });
+    }
+
+    /**
+     * Prepares the init script and starts polling for the events of the
+     * build.
+     *
+     * @return the new session or {@code null} if the init script could not be
+     *   prepared
+     */
+    public static BuildEventSession tryStart(BuildEventListener listener) {
+        if (listener == null) throw new NullPointerException("listener");
+
+        try {
+            String scriptContent = StringUtils.getResourceAsString(EVENTS_INIT_SCRIPT_PATH, UTF8);
+            StringAsFileRef initScript = StringAsFileRef.createRef("events-init-script", scriptContent, UTF8);
+
+            File outputFile;
+            try {
+                outputFile = File.createTempFile("nb-gradle-events", ".txt");
+            } catch (IOException ex) {
+                initScript.close();
+                throw ex;
+            }
+
+            BuildEventSession result = new BuildEventSession(initScript, outputFile, listener);
+            result.pollTask.schedule(POLL_INTERVAL_MS);
+            return result;
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to prepare the build events init script.", ex);
+            return null;
+        }
+    }
+
+    public List<String> getArguments() {
+        return Arrays.asList(
+                "--init-script",
+                initScript.getFile().getPath(),
+                "-D" + OUTPUT_PROPERTY_NAME + "=" + outputFile.getPath());
+    }
+
+    /**
+     * Forwards the events written since the last read to the listener. This
+     * method is called periodically but can be called any time when the
+     * caller needs the most recent events.
+     */
+    public void readNewEvents() {
+        synchronized (reader) {
+            try {
+                reader.readNewEvents();
+            } catch (IOException ex) {
+                LOGGER.log(Level.INFO, "Failed to read the build events: " + outputFile, ex);
+            }
+        }
+    }
+
+    /**
+     * Stops polling for events and forwards the events not yet forwarded to
+     * the listener. This method must be called after the build completed and
+     * may be called multiple times.
+     */
+    public void finish() {
+        finished = true;
+        pollTask.cancel();
+        pollTask.waitFinished();
+
+        readNewEvents();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        try {
+            initScript.close();
+        } finally {
+            if (!outputFile.delete() && outputFile.exists()) {
+                outputFile.deleteOnExit();
+            }
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package org.netbeans.gradle.project.tasks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.netbeans.gradle.model.util.CollectionUtils;
+
+/**
+ * Defines the timing information collected by the profiling init script
+ * during a single Gradle build.
+ */
+public final class BuildProfile {
+    private static final Logger LOGGER = Logger.getLogger(BuildProfile.class.getName());
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    public enum EntryKind {
+        CONFIGURATION,
+        TASK
+    }
+
+    public enum Outcome {
+        NONE,
+        EXECUTED,
+        UP_TO_DATE,
+        SKIPPED,
+        FAILED
+    }
+
+    public static final class Entry {
+        private final EntryKind kind;
+        private final String name;
+        private final long startTime;
+        private final long endTime;
+        private final Outcome outcome;
+
+        public Entry(EntryKind kind, String name, long startTime, long endTime, Outcome outcome) {
+            if (kind == null) throw new NullPointerException("kind");
+            if (name == null) throw new NullPointerException("name");
+            if (outcome == null) throw new NullPointerException("outcome");
+
+            this.kind = kind;
+            this.name = name;
+            this.startTime = startTime;
+            this.endTime = Math.max(startTime, endTime);
+            this.outcome = outcome;
+        }
+
+        public EntryKind getKind() {
+            return kind;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getStartTime() {
+            return startTime;
+        }
+
+        public long getEndTime() {
+            return endTime;
+        }
+
+        public long getDurationMillis() {
+            return endTime - startTime;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" + kind + ": " + name + ", " + getDurationMillis() + " ms, " + outcome + '}';
+        }
+    }
+
+    private final long buildStartTime;
+    private final long buildEndTime;
+    private final List<Entry> entries;
+
+    public BuildProfile(long buildStartTime, long buildEndTime, Collection<? extends Entry> entries) {
+        this.buildStartTime = buildStartTime;
+        this.buildEndTime = Math.max(buildStartTime, buildEndTime);
+        this.entries = CollectionUtils.copyNullSafeList(entries);
+    }
+
+    public static BuildProfile parse(File profileFile) throws IOException {
+        InputStream input = new FileInputStream(profileFile);
+        try {
+            return parse(new InputStreamReader(input, UTF8));
+        } finally {
+            input.close();
+        }
+    }
+
+    public static BuildProfile parse(Reader input) throws IOException {
+        BufferedReader reader = new BufferedReader(input);
+
+        long buildStartTime = Long.MAX_VALUE;
+        long buildEndTime = Long.MIN_VALUE;
+        boolean hasBuildRecord = false;
+
+        List<Entry> entries = new ArrayList<Entry>();
+
+        String line = reader.readLine();
+        while (line != null) {
+            String[] fields = line.split("\t", -1);
+            try {
+                if (fields.length == 3 && "BUILD".equals(fields[0])) {
+                    buildStartTime = Long.parseLong(fields[1]);
+                    buildEndTime = Long.parseLong(fields[2]);
+                    hasBuildRecord = true;
+                }
+                else if (fields.length == 4 && "CONFIG".equals(fields[0])) {
+                    entries.add(new Entry(EntryKind.CONFIGURATION,
+                            fields[1],
+                            Long.parseLong(fields[2]),
+                            Long.parseLong(fields[3]),
+                            Outcome.NONE));
+                }
+                else if (fields.length == 5 && "TASK".equals(fields[0])) {
+                    entries.add(new Entry(EntryKind.TASK,
+                            fields[1],
+                            Long.parseLong(fields[2]),
+                            Long.parseLong(fields[3]),
+                            parseOutcome(fields[4])));
+                }
+                else if (!line.isEmpty()) {
+                    LOGGER.log(Level.INFO, "Unexpected line in the build profile: {0}", line);
+                }
+            } catch (NumberFormatException ex) {
+                LOGGER.log(Level.INFO, "Invalid line in the build profile: " + line, ex);
+            }
+
+            line = reader.readLine();
+        }
+
+        if (!hasBuildRecord) {
+            for (Entry entry: entries) {
+                buildStartTime = Math.min(buildStartTime, entry.getStartTime());
+                buildEndTime = Math.max(buildEndTime, entry.getEndTime());
+            }
+            if (entries.isEmpty()) {
+                buildStartTime = 0;
+                buildEndTime = 0;
+            }
+        }
+
+        return new BuildProfile(buildStartTime, buildEndTime, entries);
+    }
+
+    private static Outcome parseOutcome(String outcomeStr) {
+        try {
+            return Outcome.valueOf(outcomeStr);
+        } catch (IllegalArgumentException ex) {
+            return Outcome.NONE;
+        }
+    }
+
+    public long getBuildStartTime() {
+        return buildStartTime;
+    }
+
+    public long getBuildEndTime() {
+        return buildEndTime;
+    }
+
+    public long getBuildDurationMillis() {
+        return buildEndTime - buildStartTime;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public List<Entry> getSlowestFirst() {
+        List<Entry> result = new ArrayList<Entry>(entries);
+        Collections.sort(result, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry o1, Entry o2) {
+                long duration1 = o1.getDurationMillis();
+                long duration2 = o2.getDurationMillis();
+                if (duration1 == duration2) {
+                    return o1.getName().compareTo(o2.getName());
+                }
+                return duration1 > duration2 ? -1 : 1;
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Writes the entries of this profile in the Trace Event Format understood
+     * by the "chrome://tracing" page of Chrome. Entries overlapping in time
+     * (e.g., tasks of a parallel build) are placed on different threads of the
+     * trace.
+     */
+    public void writeChromeTrace(Writer output) throws IOException {
+        List<Entry> sortedEntries = new ArrayList<Entry>(entries);
+        Collections.sort(sortedEntries, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry o1, Entry o2) {
+                long start1 = o1.getStartTime();
+                long start2 = o2.getStartTime();
+                if (start1 == start2) {
+                    return 0;
+                }
+                return start1 < start2 ? -1 : 1;
+            }
+        });
+
+        List<Long> laneEndTimes = new ArrayList<Long>();
+
+        output.write("{\"traceEvents\":[");
+        boolean first = true;
+        for (Entry entry: sortedEntries) {
+            int lane = selectLane(laneEndTimes, entry);
+
+            if (!first) {
+                output.write(',');
+            }
+            first = false;
+
+            output.write("\n{\"name\":");
+            writeJsonString(entry.getName(), output);
+            output.write(",\"cat\":");
+            writeJsonString(entry.getKind() == EntryKind.TASK ? "task" : "configuration", output);
+            output.write(",\"ph\":\"X\",\"pid\":1,\"tid\":");
+            output.write(Integer.toString(lane + 1));
+            output.write(",\"ts\":");
+            output.write(Long.toString((entry.getStartTime() - buildStartTime) * 1000L));
+            output.write(",\"dur\":");
+            output.write(Long.toString(entry.getDurationMillis() * 1000L));
+            output.write(",\"args\":{\"outcome\":");
+            writeJsonString(entry.getOutcome().name(), output);
+            output.write("}}");
+        }
+        output.write("\n],\"displayTimeUnit\":\"ms\"}\n");
+        output.flush();
+    }
+
+    private static int selectLane(List<Long> laneEndTimes, Entry entry) {
+        int laneCount = laneEndTimes.size();
+        for (int i = 0; i < laneCount; i++) {
+            if (laneEndTimes.get(i) <= entry.getStartTime()) {
+                laneEndTimes.set(i, entry.getEndTime());
+                return i;
+            }
+        }
+
+        laneEndTimes.add(entry.getEndTime());
+        return laneCount;
+    }
+
+    private static void writeJsonString(String str, Writer output) throws IOException {
+        output.write('"');
+
+        int length = str.length();
+        for (int i = 0; i < length; i++) {
+            char ch = str.charAt(i);
+            switch (ch) {
+                case '"':
+                    output.write("\\\"");
+                    break;
+                case '\\':
+                    output.write("\\\\");
+                    break;
+                case '\n':
+                    output.write("\\n");
+                    break;
+                case '\r':
+                    output.write("\\r");
+                    break;
+                case '\t':
+                    output.write("\\t");
+                    break;
+                default:
+                    if (ch < 0x20) {
+                        String hex = Integer.toHexString(ch);
+                        output.write("\\u");
+                        for (int padding = hex.length(); padding < 4; padding++) {
+                            output.write('0');
+                        }
+                        output.write(hex);
+                    }
+                    else {
+                        output.write(ch);
+                    }
+                    break;
+            }
+        }
+
+        output.write('"');
+    }
+}
@@ -0,0 +1,81 @@
+package org.netbeans.gradle.project.tasks;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.netbeans.api.annotations.common.StaticResource;
+import org.netbeans.gradle.model.util.StringAsFileRef;
+import org.netbeans.gradle.project.StringUtils;
+
+final class BuildProfileSession implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(BuildProfileSession.class.getName());
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    @StaticResource
+    private static final String PROFILE_INIT_SCRIPT_PATH = "org/netbeans/gradle/project/resources/nb-profile-init-script.gradle";
+    private static final String OUTPUT_PROPERTY_NAME = "org.netbeans.gradle.profileOutput";
+
+    private final StringAsFileRef initScript;
+    private final File outputFile;
+
+    private BuildProfileSession(StringAsFileRef initScript, File outputFile) {
+        this.initScript = initScript;
+        this.outputFile = outputFile;
+    }
+
+    public static BuildProfileSession tryStart() {
+        try {
+            String scriptContent = StringUtils.getResourceAsString(PROFILE_INIT_SCRIPT_PATH, UTF8);
+            StringAsFileRef initScript = StringAsFileRef.createRef("profile-init-script", scriptContent, UTF8);
+
+            File outputFile;
+            try {
+                outputFile = File.createTempFile("nb-gradle-profile", ".txt");
+            } catch (IOException ex) {
+                initScript.close();
+                throw ex;
+            }
+
+            return new BuildProfileSession(initScript, outputFile);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to prepare the profiling init script.", ex);
+            return null;
+        }
+    }
+
+    public List<String> getArguments() {
+        return Arrays.asList(
+                "--init-script",
+                initScript.getFile().getPath(),
+                "-D" + OUTPUT_PROPERTY_NAME + "=" + outputFile.getPath());
+    }
+
+    public BuildProfile tryReadProfile() {
+        if (outputFile.length() == 0) {
+            return null;
+        }
+
+        try {
+            return BuildProfile.parse(outputFile);
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to read the build profile: " + outputFile, ex);
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            initScript.close();
+        } finally {
+            if (!outputFile.delete() && outputFile.exists()) {
+                outputFile.deleteOnExit();
+            }
+        }
+    }
+}
@@ -4,14 +4,29 @@ public final class DaemonTaskDef {
     private final String caption;
     private final boolean nonBlocking;
     private final DaemonTask task;
+    private final Object buildKey;
 
     public DaemonTaskDef(String caption, boolean nonBlocking, DaemonTask task) {
+        this(caption, nonBlocking, task, GradleDaemonManager.DEFAULT_BUILD_KEY);
+    }
+
+    /**
+     * Creates a new task definition which executes in the lane of the given
+     * build. Tasks with the same build key are executed in the order they
+     * were submitted, while tasks of different builds might be executed
+     * concurrently.
+     *
+     * @see GradleDaemonManager#getBuildKey(java.io.File)
+     */
+    public DaemonTaskDef(String caption, boolean nonBlocking, DaemonTask task, Object buildKey) {
         if (caption == null) throw new NullPointerException("caption");
         if (task == null) throw new NullPointerException("task");
+        if (buildKey == null) throw new NullPointerException("buildKey");
 
         this.caption = caption;
         this.nonBlocking = nonBlocking;
         this.task = task;
+        this.buildKey = buildKey;
     }
 
     public String getCaption() {
@@ -25,4 +40,8 @@ public final class DaemonTaskDef {
     public DaemonTask getTask() {
         return task;
     }
+
+    public Object getBuildKey() {
+        return buildKey;
+    }
 }
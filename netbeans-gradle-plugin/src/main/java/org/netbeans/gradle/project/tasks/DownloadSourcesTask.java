@@ -26,7 +26,8 @@ public final class DownloadSourcesTask implements DaemonTask {
         return new DaemonTaskDef(
                 NbStrings.getDownloadSourcesProgressCaption(),
                 true,
-                new DownloadSourcesTask(project));
+                new DownloadSourcesTask(project),
+                GradleDaemonManager.getBuildKey(project.getAvailableModel()));
     }
 
     @Override
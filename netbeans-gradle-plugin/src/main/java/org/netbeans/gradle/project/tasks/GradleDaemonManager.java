@@ -1,45 +1,179 @@
 package org.netbeans.gradle.project.tasks;
 
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 import org.netbeans.api.progress.ProgressHandle;
 import org.netbeans.api.progress.ProgressHandleFactory;
 import org.netbeans.gradle.project.api.task.CommandCompleteListener;
+import org.netbeans.gradle.project.model.NbGradleModel;
+import org.netbeans.gradle.project.properties.GlobalGradleSettings;
 import org.openide.util.Cancellable;
 
+// Tasks are executed in lanes: There is a separate lane for each root build
+// (identified by the build key of the task). Non-blocking tasks of the same
+// lane are executed one after another in the order they were submitted, while
+// non-blocking tasks of different lanes may run concurrently (limited by the
+// "max-concurrent-builds" global setting). Blocking tasks only wait for the
+// pending non-blocking tasks of their own lane.
 public final class GradleDaemonManager {
     private static final Logger LOGGER = Logger.getLogger(GradleDaemonManager.class.getName());
 
-    private static final ReentrantLock QUEUE_LOCK = new ReentrantLock(true);
+    static final Object DEFAULT_BUILD_KEY = new Object();
+
+    // Guarded by the monitor of the map. Lanes are removed when there are
+    // no more tasks using them.
+    private static final Map<Object, Lane> LANES = new HashMap<Object, Lane>();
+    private static final ThreadLocal<Integer> HELD_LANE_COUNT = new ThreadLocal<Integer>();
+
+    private static final ConcurrencyLimiter BUILD_LIMITER = new ConcurrencyLimiter();
+
+    static {
+        GlobalGradleSettings.getMaxConcurrentBuilds().addChangeListener(new ChangeListener() {
+            @Override
+            public void stateChanged(ChangeEvent e) {
+                BUILD_LIMITER.limitChanged();
+            }
+        });
+    }
+
+    /**
+     * Returns the key identifying the lane of tasks executed for the project
+     * in the given directory. The key is the directory of the root project
+     * (i.e., the directory containing the settings.gradle file), so every
+     * project of a multi-project build share the same key.
+     */
+    public static Object getBuildKey(File projectDir) {
+        if (projectDir == null) throw new NullPointerException("projectDir");
+
+        File settingsFile = NbGradleModel.findSettingsGradle(projectDir);
+        File rootDir = settingsFile != null ? settingsFile.getParentFile() : null;
+        return rootDir != null ? rootDir : projectDir;
+    }
+
+    /**
+     * Returns the key identifying the lane of tasks executed for the project
+     * of the given model. This method is equivalent to
+     * {@link #getBuildKey(File) getBuildKey(model.getProjectDir())} but does
+     * not need to look for the settings.gradle file because the model has
+     * already found it.
+     */
+    public static Object getBuildKey(NbGradleModel model) {
+        if (model == null) throw new NullPointerException("model");
+        return model.getRootProjectDir();
+    }
+
+    private static Lane acquireLane(Object buildKey) {
+        synchronized (LANES) {
+            Lane result = LANES.get(buildKey);
+            if (result == null) {
+                result = new Lane();
+                LANES.put(buildKey, result);
+            }
+            result.useCount++;
+            return result;
+        }
+    }
+
+    private static void releaseLane(Object buildKey, Lane lane) {
+        synchronized (LANES) {
+            lane.useCount--;
+            if (lane.useCount <= 0) {
+                LANES.remove(buildKey);
+            }
+        }
+    }
+
+    private static void enterLane() {
+        Integer heldCount = HELD_LANE_COUNT.get();
+        HELD_LANE_COUNT.set(heldCount != null ? heldCount + 1 : 1);
+    }
+
+    private static void exitLane() {
+        Integer heldCount = HELD_LANE_COUNT.get();
+        if (heldCount == null || heldCount <= 1) {
+            HELD_LANE_COUNT.remove();
+        }
+        else {
+            HELD_LANE_COUNT.set(heldCount - 1);
+        }
+    }
+
+    private static void runNonBlockingGradleTask(
+            Object buildKey,
+            DaemonTask task,
+            ProgressHandle progress) throws InterruptedException {
+        Lane lane = acquireLane(buildKey);
+        try {
+            runNonBlockingGradleTask(lane.lock, task, progress);
+        } finally {
+            releaseLane(buildKey, lane);
+        }
+    }
+
+    private static void runNonBlockingGradleTask(
+            ReentrantLock laneLock,
+            DaemonTask task,
+            ProgressHandle progress) throws InterruptedException {
+        // A task submitted from an other non-blocking task already has a
+        // permit from the limiter through its caller. Waiting for a new
+        // permit could dead-lock if the limit is reached.
+        boolean needPermit = !isRunningExclusiveTask();
 
-    private static void runNonBlockingGradleTask(DaemonTask task, ProgressHandle progress) throws InterruptedException {
         progress.suspend("");
-        QUEUE_LOCK.lockInterruptibly();
+        laneLock.lockInterruptibly();
         try {
-            progress.switchToIndeterminate();
-            task.run(progress);
-        } finally{
-            QUEUE_LOCK.unlock();
+            if (needPermit) {
+                BUILD_LIMITER.acquire();
+            }
+            try {
+                enterLane();
+                try {
+                    progress.switchToIndeterminate();
+                    task.run(progress);
+                } finally {
+                    exitLane();
+                }
+            } finally {
+                if (needPermit) {
+                    BUILD_LIMITER.release();
+                }
+            }
+        } finally {
+            laneLock.unlock();
         }
     }
 
-    private static void runBlockingGradleTask(DaemonTask task, ProgressHandle progress) throws InterruptedException {
+    private static void runBlockingGradleTask(
+            Object buildKey,
+            DaemonTask task,
+            ProgressHandle progress) throws InterruptedException {
         progress.suspend("");
 
-        // This lock/unlock is here only to wait for pending non-blocking tasks.
-        QUEUE_LOCK.lockInterruptibly();
-        QUEUE_LOCK.unlock();
+        Lane lane = acquireLane(buildKey);
+        try {
+            // This lock/unlock is here only to wait for pending non-blocking tasks.
+            lane.lock.lockInterruptibly();
+            lane.lock.unlock();
+        } finally {
+            releaseLane(buildKey, lane);
+        }
 
         progress.switchToIndeterminate();
         task.run(progress);
     }
 
     public static boolean isRunningExclusiveTask() {
-        return QUEUE_LOCK.isHeldByCurrentThread();
+        return HELD_LANE_COUNT.get() != null;
     }
 
     public static void submitGradleTask(
@@ -51,6 +185,16 @@ public final class GradleDaemonManager {
         submitGradleTask(executor, new DaemonTaskDef(caption, nonBlocking, task), listener);
     }
 
+    public static void submitGradleTask(
+            Executor executor,
+            String caption,
+            DaemonTask task,
+            boolean nonBlocking,
+            Object buildKey,
+            CommandCompleteListener listener) {
+        submitGradleTask(executor, new DaemonTaskDef(caption, nonBlocking, task, buildKey), listener);
+    }
+
     public static void submitGradleTask(
             Executor executor,
             final DaemonTaskDef taskDef,
@@ -89,6 +233,7 @@ public final class GradleDaemonManager {
                 String displayName = taskDef.getCaption();
                 boolean nonBlocking = taskDef.isNonBlocking();
                 DaemonTask task = taskDef.getTask();
+                Object buildKey = taskDef.getBuildKey();
 
                 final ThreadInterrupter interrupter = new ThreadInterrupter(Thread.currentThread());
                 ProgressHandle progress = ProgressHandleFactory.createHandle(displayName, new Cancellable() {
@@ -102,10 +247,10 @@ public final class GradleDaemonManager {
                 progress.start();
                 try {
                     if (nonBlocking) {
-                        runNonBlockingGradleTask(task, progress);
+                        runNonBlockingGradleTask(buildKey, task, progress);
                     }
                     else {
-                        runBlockingGradleTask(task, progress);
+                        runBlockingGradleTask(buildKey, task, progress);
                     }
                 } catch (InterruptedException ex) {
                     // We must hide InterruptedException because we use it
@@ -136,6 +281,65 @@ public final class GradleDaemonManager {
         });
     }
 
+    private static final class Lane {
+        public final ReentrantLock lock;
+        // Guarded by the monitor of LANES.
+        public int useCount;
+
+        public Lane() {
+            this.lock = new ReentrantLock(true);
+            this.useCount = 0;
+        }
+    }
+
+    private static final class ConcurrencyLimiter {
+        private final Lock mainLock;
+        private final Condition permitReleasedSignal;
+        private int runningCount;
+
+        public ConcurrencyLimiter() {
+            this.mainLock = new ReentrantLock();
+            this.permitReleasedSignal = mainLock.newCondition();
+            this.runningCount = 0;
+        }
+
+        private static int getLimit() {
+            Integer limit = GlobalGradleSettings.getMaxConcurrentBuilds().getValue();
+            return limit != null && limit > 0 ? limit : 1;
+        }
+
+        public void acquire() throws InterruptedException {
+            mainLock.lockInterruptibly();
+            try {
+                while (runningCount >= getLimit()) {
+                    permitReleasedSignal.await();
+                }
+                runningCount++;
+            } finally {
+                mainLock.unlock();
+            }
+        }
+
+        public void release() {
+            mainLock.lock();
+            try {
+                runningCount--;
+                permitReleasedSignal.signalAll();
+            } finally {
+                mainLock.unlock();
+            }
+        }
+
+        public void limitChanged() {
+            mainLock.lock();
+            try {
+                permitReleasedSignal.signalAll();
+            } finally {
+                mainLock.unlock();
+            }
+        }
+    }
+
     private static final class ThreadInterrupter {
         private final Lock mainLock;
         private Thread thread;
@@ -0,0 +1,227 @@
+package org.netbeans.gradle.project.tasks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.gradle.tooling.BuildLauncher;
+import org.gradle.tooling.GradleConnector;
+import org.gradle.tooling.ProjectConnection;
+import org.netbeans.api.progress.ProgressHandle;
+import org.netbeans.gradle.project.NbGradleProject;
+import org.netbeans.gradle.project.NbStrings;
+import org.netbeans.gradle.project.model.GradleModelLoader;
+import org.netbeans.gradle.project.model.ModelLoadSettings;
+import org.netbeans.gradle.project.properties.AbstractProjectProperties;
+import org.netbeans.gradle.project.properties.GlobalGradleSettings;
+import org.netbeans.gradle.project.properties.GradleLocation;
+import org.netbeans.gradle.project.properties.ProjectProperties;
+import org.openide.util.RequestProcessor;
+import org.openide.util.Utilities;
+
+/**
+ * Starts a Gradle daemon in the background (by running the "help" task) when
+ * a project is opened, so that the first command or model load of the user
+ * does not have to wait for the daemon to start.
+ * <P>
+ * Warming up is skipped if a daemon was recently used with the same Gradle
+ * distribution, JDK and JVM arguments because such daemon is most likely
+ * still running.
+ */
+public final class GradleDaemonWarmer {
+    private static final Logger LOGGER = Logger.getLogger(GradleDaemonWarmer.class.getName());
+
+    private static final RequestProcessor DAEMON_WARMER
+            = new RequestProcessor("Gradle-Daemon-Warmer", 1, true);
+
+    // The Gradle daemon stops after being idle for 3 hours. We assume that
+    // a daemon is gone well before that to be on the safe side.
+    private static final long DAEMON_ASSUMED_ALIVE_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final ConcurrentMap<DaemonKey, Long> KNOWN_DAEMONS
+            = new ConcurrentHashMap<DaemonKey, Long>();
+
+    private static final Executor LOW_PRIORITY_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            DAEMON_WARMER.post(command, 0, Thread.MIN_PRIORITY);
+        }
+    };
+
+    /**
+     * Notifies this class that a daemon was used to load a model with the
+     * given settings and the global JVM arguments. The settings must be the
+     * ones the model was actually loaded with, because the properties of the
+     * project might not have been loaded when the model was loaded.
+     */
+    public static void daemonUsed(ModelLoadSettings settings) {
+        try {
+            DaemonKey key = DaemonKey.forSettings(settings, GlobalGradleSettings.getGradleJvmArgs().getValue());
+            KNOWN_DAEMONS.put(key, System.currentTimeMillis());
+        } catch (Throwable ex) {
+            LOGGER.log(Level.INFO, "Failed to determine the daemon settings of " + settings, ex);
+        }
+    }
+
+    /**
+     * Notifies this class that a daemon was used with the settings of the
+     * given project and the given JVM arguments (i.e., a command was
+     * executed). The JVM arguments must be the ones the command was actually
+     * executed with because the daemon cannot be reused with different JVM
+     * arguments.
+     */
+    public static void daemonUsed(NbGradleProject project, List<String> jvmArgs) {
+        try {
+            KNOWN_DAEMONS.put(DaemonKey.forProject(project, jvmArgs), System.currentTimeMillis());
+        } catch (Throwable ex) {
+            LOGGER.log(Level.INFO, "Failed to determine the daemon settings of " + project.getName(), ex);
+        }
+    }
+
+    private static boolean hasCompatibleDaemon(DaemonKey key) {
+        Long lastUseTime = KNOWN_DAEMONS.get(key);
+        if (lastUseTime == null) {
+            return false;
+        }
+
+        return System.currentTimeMillis() - lastUseTime < DAEMON_ASSUMED_ALIVE_MILLIS;
+    }
+
+    public static void warmUpIfEnabled(NbGradleProject project) {
+        if (GlobalGradleSettings.getPrewarmDaemon().getValue()) {
+            warmUp(project);
+        }
+    }
+
+    public static void warmUp(final NbGradleProject project) {
+        if (project == null) throw new NullPointerException("project");
+
+        String caption = NbStrings.getWarmingUpDaemonText(project.getName());
+        DaemonTaskDef taskDef = new DaemonTaskDef(caption, false, new DaemonTask() {
+            @Override
+            public void run(ProgressHandle progress) {
+                DaemonKey key = DaemonKey.forProject(project,
+                        GlobalGradleSettings.getGradleJvmArgs().getValue());
+                if (hasCompatibleDaemon(key)) {
+                    LOGGER.log(Level.FINE, "Skipping daemon warm-up, daemon is already running for {0}", key);
+                    return;
+                }
+
+                runWarmUpBuild(project, key);
+            }
+        }, GradleDaemonManager.getBuildKey(project.getAvailableModel()));
+
+        GradleDaemonManager.submitGradleTask(LOW_PRIORITY_EXECUTOR, taskDef, GradleTasks.projectTaskCompleteListener(project));
+    }
+
+    private static void runWarmUpBuild(NbGradleProject project, DaemonKey key) {
+        LOGGER.log(Level.INFO, "Warming up the Gradle daemon for {0}", project.getProjectDirectoryAsFile());
+
+        GradleConnector gradleConnector = GradleModelLoader.createGradleConnector(project);
+        gradleConnector.forProjectDirectory(project.getProjectDirectoryAsFile());
+        ProjectConnection projectConnection = null;
+        try {
+            projectConnection = gradleConnector.connect();
+
+            BuildLauncher buildLauncher = projectConnection.newBuild();
+            if (key.javaHome != null) {
+                buildLauncher.setJavaHome(key.javaHome);
+            }
+            if (!key.jvmArgs.isEmpty()) {
+                buildLauncher.setJvmArguments(key.jvmArgs.toArray(new String[key.jvmArgs.size()]));
+            }
+            buildLauncher.forTasks("help");
+            buildLauncher.run();
+
+            KNOWN_DAEMONS.put(key, System.currentTimeMillis());
+        } catch (RuntimeException ex) {
+            // This is only an optimization, so we don't bother the user
+            // with the failure.
+            LOGGER.log(Level.INFO, "Failed to warm up the Gradle daemon.", ex);
+        } finally {
+            if (projectConnection != null) {
+                projectConnection.close();
+            }
+        }
+    }
+
+    private static final class DaemonKey {
+        private final String gradleLocation;
+        private final File gradleUserHome;
+        private final File javaHome;
+        private final List<String> jvmArgs;
+
+        public DaemonKey(String gradleLocation, File gradleUserHome, File javaHome, List<String> jvmArgs) {
+            this.gradleLocation = gradleLocation;
+            this.gradleUserHome = gradleUserHome;
+            this.javaHome = javaHome;
+            this.jvmArgs = jvmArgs;
+        }
+
+        public static DaemonKey forProject(NbGradleProject project, List<String> jvmArgs) {
+            ProjectProperties properties = project.tryGetLoadedProperties();
+            GradleLocation location = properties != null
+                    ? properties.getGradleLocation().getValue()
+                    : GlobalGradleSettings.getGradleHome().getValue();
+
+            return create(location, GradleModelLoader.getScriptJavaHome(project), jvmArgs);
+        }
+
+        public static DaemonKey forSettings(ModelLoadSettings settings, List<String> jvmArgs) {
+            return create(
+                    settings.getGradleLocation(),
+                    GradleModelLoader.getJavaHome(settings.getScriptPlatform()),
+                    jvmArgs);
+        }
+
+        private static DaemonKey create(GradleLocation location, File javaHome, List<String> jvmArgs) {
+            return new DaemonKey(
+                    AbstractProjectProperties.gradleLocationToString(location),
+                    GlobalGradleSettings.getGradleUserHomeDir().getValue(),
+                    javaHome,
+                    jvmArgs != null
+                            ? Collections.unmodifiableList(new ArrayList<String>(jvmArgs))
+                            : Collections.<String>emptyList());
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 41 * hash + (gradleLocation != null ? gradleLocation.hashCode() : 0);
+            hash = 41 * hash + (gradleUserHome != null ? gradleUserHome.hashCode() : 0);
+            hash = 41 * hash + (javaHome != null ? javaHome.hashCode() : 0);
+            hash = 41 * hash + jvmArgs.hashCode();
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == null) return false;
+            if (obj == this) return true;
+            if (getClass() != obj.getClass()) return false;
+
+            final DaemonKey other = (DaemonKey)obj;
+            return Utilities.compareObjects(this.gradleLocation, other.gradleLocation)
+                    && Utilities.compareObjects(this.gradleUserHome, other.gradleUserHome)
+                    && Utilities.compareObjects(this.javaHome, other.javaHome)
+                    && this.jvmArgs.equals(other.jvmArgs);
+        }
+
+        @Override
+        public String toString() {
+            return "DaemonKey{" + "gradleLocation=" + gradleLocation
+                    + ", javaHome=" + javaHome
+                    + ", jvmArgs=" + jvmArgs + '}';
+        }
+    }
+
+    private GradleDaemonWarmer() {
+        throw new AssertionError();
+    }
+}
@@ -10,7 +10,6 @@ import org.netbeans.api.java.project.JavaProjectConstants;
 import org.netbeans.api.project.ProjectUtils;
 import org.netbeans.api.project.SourceGroup;
 import org.netbeans.gradle.project.NbGradleProject;
-import org.netbeans.gradle.project.StringUtils;
 import org.netbeans.gradle.project.api.task.TaskVariable;
 import org.netbeans.gradle.project.api.task.TaskVariableMap;
 import org.openide.filesystems.FileObject;
@@ -162,39 +161,11 @@ public enum StandardTaskVariable {
             TaskVariableMap varReplaceMap,
             List<? super DisplayedTaskVariable> collectedVariables) {
 
-        StringBuilder result = new StringBuilder(str.length() * 2);
-
-        int index = 0;
-        while (index < str.length()) {
-            char ch = str.charAt(index);
-            if (ch == '$') {
-                int varStart = str.indexOf('{', index + 1);
-                int varEnd = varStart >= 0
-                        ? StringUtils.unescapedIndexOf(str, varStart + 1, '}')
-                        : -1;
-                if (varStart >= 0 && varEnd >= varStart) {
-                    String varDef = str.substring(varStart + 1, varEnd);
-                    DisplayedTaskVariable taskVar = DisplayedTaskVariable.tryParseTaskVariable(varDef);
-
-                    if (taskVar != null) {
-                        if (collectedVariables != null) {
-                            collectedVariables.add(taskVar);
-                        }
-
-                        String value = varReplaceMap.tryGetValueForVariable(taskVar.getVariable());
-                        if (value != null) {
-                            result.append(value);
-                            index = varEnd + 1;
-                            continue;
-                        }
-                    }
-                }
-            }
-
-            result.append(ch);
-            index++;
+        TaskVariableTemplate template = TaskVariableTemplate.getTemplate(str);
+        if (collectedVariables != null) {
+            template.collectVariables(collectedVariables);
         }
-        return result.toString();
+        return template.render(varReplaceMap);
     }
 
     private final TaskVariable variable;
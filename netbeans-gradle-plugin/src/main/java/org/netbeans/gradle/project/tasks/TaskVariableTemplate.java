@@ -0,0 +1,210 @@
+package org.netbeans.gradle.project.tasks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.netbeans.gradle.project.StringUtils;
+import org.netbeans.gradle.project.api.task.TaskVariableMap;
+
+/**
+ * Defines a string which might contain task variable references in the form
+ * "${variable-name}" (see {@link DisplayedTaskVariable#tryParseTaskVariable(String)}
+ * for the exact format). The string is parsed only once, when the template
+ * is created, so replacing the variables only needs to concatenate the
+ * literal parts with the values of the variables.
+ * <P>
+ * References whose value is unknown (i.e., the {@code TaskVariableMap}
+ * returns {@code null} for them) are left in the output as they were in the
+ * source string. Strings starting with "${" which are not valid variable
+ * references are not considered to be references at all.
+ * <P>
+ * Instances of this class are immutable and as such are safe to be accessed
+ * concurrently from multiple threads.
+ */
+public final class TaskVariableTemplate {
+    private static final int MAX_CACHED_TEMPLATE_COUNT = 512;
+    private static final ConcurrentMap<String, TaskVariableTemplate> TEMPLATE_CACHE
+            = new ConcurrentHashMap<String, TaskVariableTemplate>();
+
+    private final String source;
+    private final List<Token> tokens;
+    private final int literalLength;
+
+    private TaskVariableTemplate(String source, List<Token> tokens) {
+        this.source = source;
+        this.tokens = tokens;
+
+        int length = 0;
+        for (Token token: tokens) {
+            if (token.variable == null) {
+                length += token.text.length();
+            }
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Returns the template of the given string. Templates of recently used
+     * strings are cached, so calling this method repeatedly with the same
+     * strings does not need to parse them again.
+     *
+     * @param str the string to be parsed. This argument cannot be
+     *   {@code null}.
+     * @return the template of the given string. This method never returns
+     *   {@code null}.
+     */
+    public static TaskVariableTemplate getTemplate(String str) {
+        if (str == null) throw new NullPointerException("str");
+
+        TaskVariableTemplate result = TEMPLATE_CACHE.get(str);
+        if (result == null) {
+            result = compile(str);
+
+            // The strings come from the command definitions of the user and
+            // of extensions, so there should not be too many distinct
+            // templates. Just don't let the cache grow indefinitely.
+            if (TEMPLATE_CACHE.size() >= MAX_CACHED_TEMPLATE_COUNT) {
+                TEMPLATE_CACHE.clear();
+            }
+            TEMPLATE_CACHE.put(str, result);
+        }
+        return result;
+    }
+
+    /**
+     * Parses the given string without looking it up in the cache of
+     * templates.
+     *
+     * @param str the string to be parsed. This argument cannot be
+     *   {@code null}.
+     * @return the template of the given string. This method never returns
+     *   {@code null}.
+     */
+    public static TaskVariableTemplate compile(String str) {
+        if (str == null) throw new NullPointerException("str");
+
+        int firstRefIndex = str.indexOf("${");
+        if (firstRefIndex < 0) {
+            return new TaskVariableTemplate(str, Collections.singletonList(new Token(str, null)));
+        }
+
+        List<Token> tokens = new ArrayList<Token>();
+
+        int literalStart = 0;
+        int index = firstRefIndex;
+        while (index >= 0) {
+            int varStart = index + 1;
+            int varEnd = StringUtils.unescapedIndexOf(str, varStart + 1, '}');
+            if (varEnd < 0) {
+                break;
+            }
+
+            String varDef = str.substring(varStart + 1, varEnd);
+            DisplayedTaskVariable taskVar = DisplayedTaskVariable.tryParseTaskVariable(varDef);
+            if (taskVar != null) {
+                if (literalStart < index) {
+                    tokens.add(new Token(str.substring(literalStart, index), null));
+                }
+                tokens.add(new Token(str.substring(index, varEnd + 1), taskVar));
+
+                literalStart = varEnd + 1;
+                index = str.indexOf("${", literalStart);
+            }
+            else {
+                index = str.indexOf("${", index + 1);
+            }
+        }
+
+        if (literalStart < str.length()) {
+            tokens.add(new Token(str.substring(literalStart), null));
+        }
+
+        return new TaskVariableTemplate(str, Collections.unmodifiableList(tokens));
+    }
+
+    /**
+     * Returns the string this template was created from.
+     *
+     * @return the string this template was created from. This method never
+     *   returns {@code null}.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Returns {@code true} if the source string contains at least one
+     * variable reference.
+     *
+     * @return {@code true} if the source string contains at least one
+     *   variable reference, {@code false} otherwise
+     */
+    public boolean hasVariables() {
+        return tokens.size() > 1 || tokens.get(0).variable != null;
+    }
+
+    /**
+     * Adds the variables referenced by this template to the given list in
+     * the order they appear in the source string (including duplicates).
+     *
+     * @param result the list to which the variables are added. This
+     *   argument cannot be {@code null}.
+     */
+    public void collectVariables(List<? super DisplayedTaskVariable> result) {
+        if (result == null) throw new NullPointerException("result");
+
+        for (Token token: tokens) {
+            if (token.variable != null) {
+                result.add(token.variable);
+            }
+        }
+    }
+
+    /**
+     * Returns the source string with the variable references replaced with
+     * their values.
+     *
+     * @param varReplaceMap the map providing the values of the variables.
+     *   This argument cannot be {@code null}.
+     * @return the source string with the variable references replaced with
+     *   their values. This method never returns {@code null}.
+     */
+    public String render(TaskVariableMap varReplaceMap) {
+        if (varReplaceMap == null) throw new NullPointerException("varReplaceMap");
+
+        if (!hasVariables()) {
+            return source;
+        }
+
+        StringBuilder result = new StringBuilder(literalLength + 32 * tokens.size());
+        for (Token token: tokens) {
+            if (token.variable != null) {
+                String value = varReplaceMap.tryGetValueForVariable(token.variable.getVariable());
+                result.append(value != null ? value : token.text);
+            }
+            else {
+                result.append(token.text);
+            }
+        }
+        return result.toString();
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    private static final class Token {
+        // For variables, this is the text of the reference in the source
+        // string.
+        public final String text;
+        public final DisplayedTaskVariable variable;
+
+        public Token(String text, DisplayedTaskVariable variable) {
+            this.text = text;
+            this.variable = variable;
+        }
+    }
+}
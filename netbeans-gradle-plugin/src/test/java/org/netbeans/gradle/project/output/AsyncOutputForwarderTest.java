@@ -0,0 +1,157 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AsyncOutputForwarderTest {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static void write(OutputStream output, String str) throws IOException {
+        output.write(str.getBytes(UTF8));
+    }
+
+    @Test
+    public void testOrderAcrossStreamsIsKept() throws IOException {
+        ByteArrayOutputStream combined = new ByteArrayOutputStream();
+        AsyncOutputForwarder forwarder = new AsyncOutputForwarder(16, executor, combined, combined);
+
+        for (int i = 0; i < 100; i++) {
+            write(forwarder.getStream(i % 2), "[" + i + "]");
+        }
+        forwarder.close();
+
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            expected.append("[").append(i).append("]");
+        }
+        assertEquals(expected.toString(), new String(combined.toByteArray(), UTF8));
+    }
+
+    @Test
+    public void testWriteLargerThanCapacity() throws IOException {
+        byte[] data = new byte[10000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte)i;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        AsyncOutputForwarder forwarder = new AsyncOutputForwarder(100, executor, out, err);
+
+        forwarder.getStream(0).write(data);
+        forwarder.getStream(1).write(data, 1, 5);
+        forwarder.close();
+
+        assertArrayEquals(data, out.toByteArray());
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, err.toByteArray());
+    }
+
+    @Test(timeout = 10000)
+    public void testWriterDoesNotWaitForSlowTarget() throws Exception {
+        final CountDownLatch releaseTarget = new CountDownLatch(1);
+        final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        OutputStream slowTarget = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte)b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                try {
+                    releaseTarget.await();
+                } catch (InterruptedException ex) {
+                    throw new IOException(ex);
+                }
+                written.write(b, off, len);
+            }
+        };
+
+        AsyncOutputForwarder forwarder = new AsyncOutputForwarder(1024, executor, slowTarget);
+        write(forwarder.getStream(0), "first line\n");
+        write(forwarder.getStream(0), "second line\n");
+
+        releaseTarget.countDown();
+        forwarder.flush();
+        assertEquals("first line\nsecond line\n", new String(written.toByteArray(), UTF8));
+
+        forwarder.close();
+    }
+
+    @Test
+    public void testFailureIsReported() throws Exception {
+        OutputStream failingTarget = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Test failure");
+            }
+        };
+
+        AsyncOutputForwarder forwarder = new AsyncOutputForwarder(1024, executor, failingTarget);
+        write(forwarder.getStream(0), "x");
+
+        try {
+            forwarder.close();
+            fail("Expected IOException.");
+        } catch (IOException ex) {
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test(timeout = 10000)
+    public void testErrorOfTargetDoesNotBlockWriters() throws Exception {
+        OutputStream failingTarget = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new AssertionError("Test failure");
+            }
+        };
+
+        AsyncOutputForwarder forwarder = new AsyncOutputForwarder(16, executor, failingTarget);
+        try {
+            for (int i = 0; i < 100; i++) {
+                write(forwarder.getStream(0), "line " + i + "\n");
+            }
+        } catch (IOException ex) {
+            // Writers may be notified about the failure.
+        }
+
+        try {
+            forwarder.close();
+            fail("Expected IOException.");
+        } catch (IOException ex) {
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testWriteAfterClose() throws IOException {
+        AsyncOutputForwarder forwarder = new AsyncOutputForwarder(1024, executor, new ByteArrayOutputStream());
+        forwarder.close();
+        write(forwarder.getStream(0), "x");
+    }
+}
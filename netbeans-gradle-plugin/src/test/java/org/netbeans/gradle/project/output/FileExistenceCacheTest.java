@@ -0,0 +1,61 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.File;
+import java.io.IOException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FileExistenceCacheTest {
+    private File tempFile;
+
+    @Before
+    public void setUp() throws IOException {
+        tempFile = File.createTempFile("file-existence-cache", ".txt");
+    }
+
+    @After
+    public void tearDown() {
+        if (tempFile != null) {
+            tempFile.delete();
+        }
+    }
+
+    @Test
+    public void testExistingFile() {
+        FileExistenceCache cache = new FileExistenceCache();
+        assertTrue(cache.isFile(tempFile.getPath()));
+        assertFalse(cache.isFile(tempFile.getParent()));
+        assertFalse(cache.isFile(tempFile.getPath() + ".missing"));
+    }
+
+    @Test
+    public void testResultIsCached() {
+        FileExistenceCache cache = new FileExistenceCache();
+        String path = tempFile.getPath();
+        assertTrue(cache.isFile(path));
+
+        assertTrue(tempFile.delete());
+        assertTrue(cache.isFile(path));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsRemoved() {
+        FileExistenceCache cache = new FileExistenceCache(2);
+        String path = tempFile.getPath();
+        assertTrue(cache.isFile(path));
+
+        cache.isFile(path + ".missing1");
+        cache.isFile(path + ".missing2");
+
+        assertTrue(tempFile.delete());
+        assertFalse(cache.isFile(path));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalCapacity() {
+        new FileExistenceCache(0);
+    }
+}
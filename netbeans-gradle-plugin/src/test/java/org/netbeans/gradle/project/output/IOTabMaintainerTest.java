@@ -25,13 +25,25 @@ public class IOTabMaintainerTest {
     public void tearDown() {
     }
 
-    private static IOTabMaintainer<Integer, Tab> create() {
-        return new IOTabMaintainer<Integer, Tab>(new IOTabFactory<Tab>() {
+    private static IOTabFactory<Tab> tabFactory() {
+        return tabFactory(true);
+    }
+
+    private static IOTabFactory<Tab> tabFactory(final boolean closeOnRelease) {
+        return new IOTabFactory<Tab>() {
             @Override
             public Tab create(String caption) {
-                return new Tab(caption);
+                return new Tab(caption, closeOnRelease);
             }
-        });
+        };
+    }
+
+    private static IOTabMaintainer<Integer, Tab> create() {
+        return new IOTabMaintainer<Integer, Tab>(tabFactory());
+    }
+
+    private static IOTabMaintainer<Integer, Tab> create(int maxIdleTabCount, long maxRetainedCharCount) {
+        return new IOTabMaintainer<Integer, Tab>(tabFactory(), maxIdleTabCount, maxRetainedCharCount);
     }
 
     @Test
@@ -164,13 +176,125 @@ public class IOTabMaintainerTest {
         assertEquals("tab1 #2", tabRef2.getTab().caption);
     }
 
+    @Test
+    public void testLeastRecentlyUsedIdleTabIsReleased() {
+        IOTabMaintainer<Integer, Tab> maintainer = create(2, Long.MAX_VALUE);
+
+        IOTabRef<Tab> tabRef1 = maintainer.getTab(1, "tab1");
+        IOTabRef<Tab> tabRef2 = maintainer.getTab(2, "tab2");
+        IOTabRef<Tab> tabRef3 = maintainer.getTab(3, "tab3");
+
+        tabRef2.close();
+        tabRef1.close();
+        assertFalse(tabRef1.getTab().isClosed());
+        assertFalse(tabRef2.getTab().isClosed());
+
+        tabRef3.close();
+        assertTrue(tabRef2.getTab().isClosed());
+        assertFalse(tabRef1.getTab().isClosed());
+        assertFalse(tabRef3.getTab().isClosed());
+
+        IOTabRef<Tab> newTabRef2 = maintainer.getTab(2, "tab2");
+        assertNotSame(tabRef2.getTab(), newTabRef2.getTab());
+    }
+
+    @Test
+    public void testTabsInUseAreNotReleased() {
+        IOTabMaintainer<Integer, Tab> maintainer = create(0, 0);
+
+        IOTabRef<Tab> tabRef1 = maintainer.getTab(1, "tab1");
+        IOTabRef<Tab> tabRef2 = maintainer.getTab(2, "tab2");
+        tabRef1.getTab().retainedCharCount = 100;
+        tabRef2.getTab().retainedCharCount = 100;
+
+        tabRef1.close();
+        assertTrue(tabRef1.getTab().isClosed());
+        assertFalse(tabRef2.getTab().isClosed());
+    }
+
+    @Test
+    public void testOldestContentIsReleasedFirst() {
+        IOTabMaintainer<Integer, Tab> maintainer = create(10, 250);
+
+        IOTabRef<Tab> tabRef1 = maintainer.getTab(1, "tab1");
+        IOTabRef<Tab> tabRef2 = maintainer.getTab(2, "tab2");
+        IOTabRef<Tab> tabRef3 = maintainer.getTab(3, "tab3");
+        tabRef1.getTab().retainedCharCount = 100;
+        tabRef2.getTab().retainedCharCount = 100;
+
+        tabRef1.close();
+        tabRef2.close();
+        assertFalse(tabRef1.getTab().isClosed());
+        assertFalse(tabRef2.getTab().isClosed());
+
+        tabRef3.getTab().retainedCharCount = 100;
+        tabRef3.close();
+        assertTrue(tabRef1.getTab().isClosed());
+        assertFalse(tabRef2.getTab().isClosed());
+        assertFalse(tabRef3.getTab().isClosed());
+    }
+
+    @Test
+    public void testClosedTabsAreNotCounted() {
+        IOTabMaintainer<Integer, Tab> maintainer = create(10, 150);
+
+        IOTabRef<Tab> tabRef1 = maintainer.getTab(1, "tab1");
+        IOTabRef<Tab> tabRef2 = maintainer.getTab(2, "tab2");
+        tabRef1.getTab().retainedCharCount = 100;
+        tabRef2.getTab().retainedCharCount = 100;
+
+        // Closed by the user while still in use.
+        tabRef1.getTab().close();
+
+        tabRef2.close();
+        assertFalse(tabRef2.getTab().isClosed());
+        assertEquals(0, tabRef2.getTab().releaseCount);
+    }
+
+    @Test
+    public void testReleasedTabIsReused() {
+        IOTabMaintainer<Integer, Tab> maintainer
+                = new IOTabMaintainer<Integer, Tab>(tabFactory(false), 0, Long.MAX_VALUE);
+
+        IOTabRef<Tab> tabRef1 = maintainer.getTab(1, "tab1");
+        Tab tab1 = tabRef1.getTab();
+        tab1.retainedCharCount = 100;
+        tabRef1.close();
+
+        assertEquals(1, tab1.releaseCount);
+        assertFalse(tab1.isClosed());
+
+        IOTabRef<Tab> tabRef2 = maintainer.getTab(1, "tab1");
+        assertSame(tab1, tabRef2.getTab());
+    }
+
     private static final class Tab implements IOTabDef {
         public final String caption;
+        private final boolean closeOnRelease;
         private volatile boolean closed;
+        public volatile long retainedCharCount;
+        public volatile int releaseCount;
 
-        public Tab(String caption) {
+        public Tab(String caption, boolean closeOnRelease) {
             this.caption = caption;
+            this.closeOnRelease = closeOnRelease;
             this.closed = false;
+            this.retainedCharCount = 0;
+            this.releaseCount = 0;
+        }
+
+        @Override
+        public long getRetainedCharCount() {
+            return retainedCharCount;
+        }
+
+        @Override
+        public void release() {
+            releaseCount++;
+            retainedCharCount = 0;
+            if (closeOnRelease) {
+                close();
+            }
         }
 
         public void close() {
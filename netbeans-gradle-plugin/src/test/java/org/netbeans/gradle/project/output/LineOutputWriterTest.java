@@ -0,0 +1,98 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LineOutputWriterTest {
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    private static List<String> writeInChunks(String text, int chunkSize) throws IOException {
+        CollectingHandler handler = new CollectingHandler();
+        LineOutputWriter writer = new LineOutputWriter(handler);
+
+        char[] chars = text.toCharArray();
+        for (int offset = 0; offset < chars.length; offset += chunkSize) {
+            writer.write(chars, offset, Math.min(chunkSize, chars.length - offset));
+        }
+        writer.close();
+
+        return handler.lines;
+    }
+
+    private static void testAllChunkSizes(String text, String... expectedLines) throws IOException {
+        for (int chunkSize = 1; chunkSize <= text.length(); chunkSize++) {
+            assertEquals("Chunk size: " + chunkSize,
+                    Arrays.asList(expectedLines),
+                    writeInChunks(text, chunkSize));
+        }
+    }
+
+    @Test
+    public void testLineFeed() throws IOException {
+        testAllChunkSizes("line1\nline2\n\nline4", "line1", "line2", "", "line4");
+    }
+
+    @Test
+    public void testCarriageReturn() throws IOException {
+        testAllChunkSizes("line1\rline2\r\rline4", "line1", "line2", "", "line4");
+    }
+
+    @Test
+    public void testCarriageReturnLineFeed() throws IOException {
+        testAllChunkSizes("line1\r\nline2\r\n\r\nline4\r\n", "line1", "line2", "", "line4", "");
+    }
+
+    @Test
+    public void testMixedSeparators() throws IOException {
+        testAllChunkSizes("a\n\rb\r\n\nc", "a", "", "b", "", "c");
+    }
+
+    @Test
+    public void testEmptyWrite() throws IOException {
+        CollectingHandler handler = new CollectingHandler();
+        LineOutputWriter writer = new LineOutputWriter(handler);
+
+        writer.write(new char[0], 0, 0);
+        writer.write("abc");
+        writer.write(new char[]{'x'}, 1, 0);
+        writer.write("def\n");
+
+        assertEquals(Arrays.asList("abcdef"), handler.lines);
+    }
+
+    private static final class CollectingHandler implements LineOutputWriter.Handler {
+        public final List<String> lines = new ArrayList<String>();
+
+        @Override
+        public void writeLine(String line) {
+            lines.add(line);
+        }
+
+        @Override
+        public void flush() {
+        }
+    }
+}
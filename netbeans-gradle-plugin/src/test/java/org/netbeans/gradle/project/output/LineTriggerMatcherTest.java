@@ -0,0 +1,76 @@
+package org.netbeans.gradle.project.output;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LineTriggerMatcherTest {
+    private static LineTriggerMatcher create(List<?>... triggersOfConsumers) {
+        List<List<LineTrigger>> triggers = new ArrayList<List<LineTrigger>>();
+        for (List<?> consumerTriggers: triggersOfConsumers) {
+            @SuppressWarnings("unchecked")
+            List<LineTrigger> typedTriggers = (List<LineTrigger>)consumerTriggers;
+            triggers.add(typedTriggers);
+        }
+        return new LineTriggerMatcher(triggers);
+    }
+
+    @Test
+    public void testNoTriggers() {
+        LineTriggerMatcher matcher = create();
+        assertEquals(0L, matcher.findTriggered("anything"));
+    }
+
+    @Test
+    public void testMatchesConsumersSeparately() {
+        LineTriggerMatcher matcher = create(
+                Collections.singletonList(LineTrigger.contains(".java:")),
+                Arrays.asList(LineTrigger.contains("http://"), LineTrigger.contains("https://")),
+                null,
+                Collections.singletonList(LineTrigger.contains("/")));
+
+        assertEquals(0L, matcher.findTriggered(":compileJava UP-TO-DATE"));
+        assertEquals(1L, matcher.findTriggered("\tat pkg.Cls.method(Cls.java:10)"));
+        assertEquals(2L | 8L, matcher.findTriggered("See https://gradle.org"));
+        assertEquals(1L | 8L, matcher.findTriggered("/home/user/src/Cls.java:12: error"));
+        assertEquals(8L, matcher.findTriggered("/"));
+        assertEquals(0L, matcher.findTriggered(""));
+    }
+
+    @Test
+    public void testTriggerAtEndOfLine() {
+        LineTriggerMatcher matcher = create(Collections.singletonList(LineTrigger.contains("abc")));
+
+        assertEquals(1L, matcher.findTriggered("xxabc"));
+        assertEquals(0L, matcher.findTriggered("xxab"));
+    }
+
+    @Test
+    public void testIgnoreCase() {
+        LineTriggerMatcher matcher = create(
+                Collections.singletonList(LineTrigger.containsIgnoreCase("MyProject")),
+                Collections.singletonList(LineTrigger.contains("MyProject")));
+
+        assertEquals(3L, matcher.findTriggered("/home/MyProject/build.gradle"));
+        assertEquals(1L, matcher.findTriggered("/home/myproject/build.gradle"));
+        assertEquals(1L, matcher.findTriggered("C:\\MYPROJECT\\build.gradle"));
+        assertEquals(0L, matcher.findTriggered("C:\\OtherProject\\build.gradle"));
+    }
+
+    @Test
+    public void testIgnoreCaseWithNonAsciiEquivalent() {
+        LineTriggerMatcher matcher = create(Collections.singletonList(LineTrigger.containsIgnoreCase("k")));
+
+        // The Kelvin sign is equal to 'k' when ignoring case.
+        assertEquals(1L, matcher.findTriggered("\u212A"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyTrigger() {
+        LineTrigger.contains("");
+    }
+}
@@ -0,0 +1,137 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openide.windows.OutputListener;
+import org.openide.windows.OutputWriter;
+
+import static org.junit.Assert.*;
+
+public class OutputFolderTest {
+    private File logFile;
+    private BuildOutputLog log;
+
+    @Before
+    public void setUp() throws IOException {
+        logFile = File.createTempFile("output-folder", ".log");
+        log = new BuildOutputLog(logFile, 1);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        log.close();
+        logFile.delete();
+    }
+
+    private static List<String> foldLines(OutputFolder folder, OutputWriter output, String... lines) throws IOException {
+        List<String> result = new ArrayList<String>();
+        for (String line: lines) {
+            result.addAll(folder.foldLine(line, output));
+        }
+        return result;
+    }
+
+    @Test
+    public void testTaskHeadersAreSummaryLines() {
+        assertTrue(OutputFolder.isSummaryLine(":compileJava"));
+        assertTrue(OutputFolder.isSummaryLine(":sub:test UP-TO-DATE"));
+        assertTrue(OutputFolder.isSummaryLine(":sub:javadoc SKIPPED"));
+        assertTrue(OutputFolder.isSummaryLine("> Task :sub:test"));
+    }
+
+    @Test
+    public void testFailuresAndWarningsAreSummaryLines() {
+        assertTrue(OutputFolder.isSummaryLine("BUILD FAILED"));
+        assertTrue(OutputFolder.isSummaryLine("BUILD SUCCESSFUL"));
+        assertTrue(OutputFolder.isSummaryLine("FAILURE: Build failed with an exception."));
+        assertTrue(OutputFolder.isSummaryLine("* What went wrong:"));
+        assertTrue(OutputFolder.isSummaryLine("Total time: 1 mins 3.2 secs"));
+        assertTrue(OutputFolder.isSummaryLine("org.test.MyTest > testMethod FAILED"));
+        assertTrue(OutputFolder.isSummaryLine("/src/Test.java:10: warning: [unchecked] unchecked call"));
+        assertTrue(OutputFolder.isSummaryLine("/src/Test.java:12: error: cannot find symbol"));
+    }
+
+    @Test
+    public void testOtherLinesAreNotSummaryLines() {
+        assertFalse(OutputFolder.isSummaryLine(""));
+        assertFalse(OutputFolder.isSummaryLine("Downloading https://repo/artifact.jar"));
+        assertFalse(OutputFolder.isSummaryLine("\tat org.test.MyTest.testMethod(MyTest.java:10)"));
+        assertFalse(OutputFolder.isSummaryLine(": not a task header"));
+        assertFalse(OutputFolder.isSummaryLine("Test output: something happened"));
+    }
+
+    @Test
+    public void testTailIsPrintedBeforeFollowingSummaryLines() throws IOException {
+        TestOutputWriter output = new TestOutputWriter();
+        OutputFolder folder = new OutputFolder(log);
+
+        List<String> printed = foldLines(folder, output,
+                "first line", ":compileJava", "some output", "BUILD FAILED", "Total time: 1 secs");
+        printed.addAll(folder.removeTail(output));
+
+        assertEquals(
+                Arrays.asList("first line", ":compileJava", "some output", "BUILD FAILED", "Total time: 1 secs"),
+                printed);
+    }
+
+    @Test
+    public void testFoldNoticeIsPrintedOncePerLog() throws IOException {
+        TestOutputWriter output = new TestOutputWriter();
+        OutputFolder stdOutFolder = new OutputFolder(log);
+        OutputFolder stdErrFolder = new OutputFolder(log);
+
+        foldLines(stdOutFolder, output, "line1", "line2", "line3");
+        foldLines(stdErrFolder, output, "line4", "line5");
+
+        assertEquals(1, output.getLinkedLineCount());
+    }
+
+    @Test
+    public void testFoldingStopsWhenTheLogFails() throws IOException {
+        TestOutputWriter output = new TestOutputWriter();
+        OutputFolder folder = new OutputFolder(log);
+
+        List<String> printed = foldLines(folder, output, "first line", "kept line");
+        // Closing the log makes subsequent writes to it fail.
+        log.close();
+        printed.addAll(foldLines(folder, output, "after failure", "last line"));
+
+        assertTrue(log.isFailed());
+        assertEquals(Arrays.asList("first line", "kept line", "after failure", "last line"), printed);
+    }
+
+    private static final class TestOutputWriter extends OutputWriter {
+        private int linkedLineCount;
+
+        public TestOutputWriter() {
+            super(new StringWriter());
+            this.linkedLineCount = 0;
+        }
+
+        public int getLinkedLineCount() {
+            return linkedLineCount;
+        }
+
+        @Override
+        public void println(String s, OutputListener l) throws IOException {
+            println(s, l, false);
+        }
+
+        @Override
+        public void println(String s, OutputListener l, boolean important) throws IOException {
+            linkedLineCount++;
+            println(s);
+        }
+
+        @Override
+        public void reset() throws IOException {
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.File;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OutputPathsTest {
+    private static boolean isAbsolutePath(String path) {
+        return OutputPaths.isAbsolutePath(path, 0, path.length());
+    }
+
+    @Test
+    public void testAbsolutePaths() {
+        assertTrue(isAbsolutePath("/home/user/Test.java"));
+        assertTrue(isAbsolutePath("  /home/user/Test.java"));
+        assertTrue(isAbsolutePath("C:\\dir\\Test.java"));
+        assertTrue(isAbsolutePath("c:/dir/Test.java"));
+        assertTrue(isAbsolutePath("\\\\server\\share\\Test.java"));
+    }
+
+    @Test
+    public void testNotAbsolutePaths() {
+        assertFalse(isAbsolutePath(""));
+        assertFalse(isAbsolutePath("   "));
+        assertFalse(isAbsolutePath("C"));
+        assertFalse(isAbsolutePath("C:"));
+        assertFalse(isAbsolutePath("warning"));
+        assertFalse(isAbsolutePath("dir/Test.java"));
+        assertFalse(isAbsolutePath("1:/dir"));
+    }
+
+    @Test
+    public void testAbsolutePathInRange() {
+        String line = "error: /dir/Test.java";
+        assertFalse(OutputPaths.isAbsolutePath(line, 0, 5));
+        assertTrue(OutputPaths.isAbsolutePath(line, 6, line.length()));
+    }
+
+    @Test
+    public void testIndexOfPathIgnoreCase() {
+        assertEquals(7, OutputPaths.indexOfPathIgnoreCase("Error: /Home/User/Project/Test.java", "/home/user/project"));
+        assertEquals(0, OutputPaths.indexOfPathIgnoreCase("/home/user/project", "/home/user/project"));
+        assertEquals(-1, OutputPaths.indexOfPathIgnoreCase("/home/user/proj", "/home/user/project"));
+        assertEquals(-1, OutputPaths.indexOfPathIgnoreCase("/home/other/project", "/home/user/project"));
+    }
+
+    @Test
+    public void testIndexOfPathWithSystemSeparator() {
+        String line = "x " + "C:" + File.separator + "Project" + File.separator + "Test.java";
+        assertEquals(2, OutputPaths.indexOfPathIgnoreCase(line, "c:/project"));
+    }
+
+    @Test
+    public void testLastIndexOfSeparator() {
+        assertEquals(4, OutputPaths.lastIndexOfSeparator("/dir/Test.java:10"));
+        assertEquals(-1, OutputPaths.lastIndexOfSeparator("Test.java:10"));
+    }
+}
@@ -0,0 +1,107 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ReaderInputStreamTest {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    // Contains 1, 2, 3 and 4 byte long characters in UTF-8.
+    private static final String MULTIBYTE_TEXT = "a\u00E9\u20AC\uD83D\uDE00b\u00E1rv\u00EDzt\u0171r\u0151 \u4E2D\u6587\n";
+
+    private static byte[] readAll(ReaderInputStream input, int chunkSize) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        byte[] buffer = new byte[chunkSize];
+
+        int readCount = input.read(buffer);
+        while (readCount >= 0) {
+            assertTrue(readCount > 0);
+            result.write(buffer, 0, readCount);
+            readCount = input.read(buffer);
+        }
+        return result.toByteArray();
+    }
+
+    private static String repeat(String str, int count) {
+        StringBuilder result = new StringBuilder(str.length() * count);
+        for (int i = 0; i < count; i++) {
+            result.append(str);
+        }
+        return result.toString();
+    }
+
+    @Test
+    public void testBulkRead() throws IOException {
+        ReaderInputStream input = new ReaderInputStream(new StringReader(MULTIBYTE_TEXT), UTF8);
+        assertArrayEquals(MULTIBYTE_TEXT.getBytes(UTF8), readAll(input, 1024));
+    }
+
+    @Test
+    public void testReadInSmallChunks() throws IOException {
+        for (int chunkSize = 1; chunkSize <= 5; chunkSize++) {
+            ReaderInputStream input = new ReaderInputStream(new StringReader(MULTIBYTE_TEXT), UTF8);
+            assertArrayEquals(MULTIBYTE_TEXT.getBytes(UTF8), readAll(input, chunkSize));
+        }
+    }
+
+    @Test
+    public void testSingleByteRead() throws IOException {
+        byte[] expected = MULTIBYTE_TEXT.getBytes(UTF8);
+        ReaderInputStream input = new ReaderInputStream(new StringReader(MULTIBYTE_TEXT), UTF8);
+
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i] & 0xFF, input.read());
+        }
+        assertEquals(-1, input.read());
+        assertEquals(-1, input.read());
+    }
+
+    @Test
+    public void testLongInput() throws IOException {
+        String text = repeat(MULTIBYTE_TEXT, 2000);
+        ReaderInputStream input = new ReaderInputStream(new StringReader(text), UTF8);
+        assertArrayEquals(text.getBytes(UTF8), readAll(input, 1000));
+    }
+
+    @Test
+    public void testSurrogatePairSplitBetweenReads() throws IOException {
+        final String text = "x\uD83D\uDE00y";
+        // Returns a single character on each read.
+        Reader reader = new StringReader(text) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(len, 1));
+            }
+        };
+
+        ReaderInputStream input = new ReaderInputStream(reader, UTF8);
+        assertArrayEquals(text.getBytes(UTF8), readAll(input, 3));
+    }
+
+    @Test
+    public void testAvailable() throws IOException {
+        ReaderInputStream input = new ReaderInputStream(new StringReader("abcd"), UTF8);
+        assertEquals(0, input.available());
+
+        assertEquals('a', input.read());
+        assertEquals(3, input.available());
+
+        byte[] buffer = new byte[10];
+        assertEquals(3, input.read(buffer));
+        assertEquals(0, input.available());
+        assertEquals(-1, input.read(buffer));
+    }
+
+    @Test
+    public void testEmptyInput() throws IOException {
+        ReaderInputStream input = new ReaderInputStream(new StringReader(""), UTF8);
+        assertEquals(-1, input.read(new byte[10]));
+        assertEquals(0, input.read(new byte[10], 0, 0));
+    }
+}
@@ -0,0 +1,123 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class WriterOutputStreamTest {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    // Contains 1, 2, 3 and 4 byte long characters in UTF-8.
+    private static final String MULTIBYTE_TEXT = "a\u00E9\u20AC\uD83D\uDE00b\u00E1rv\u00EDzt\u0171r\u0151 \u4E2D\u6587\n";
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    private static String writeInChunks(byte[] bytes, int... splitPositions) throws IOException {
+        StringWriter result = new StringWriter();
+        WriterOutputStream output = new WriterOutputStream(result, UTF8);
+
+        int offset = 0;
+        for (int splitPos: splitPositions) {
+            output.write(bytes, offset, splitPos - offset);
+            offset = splitPos;
+        }
+        output.write(bytes, offset, bytes.length - offset);
+        output.close();
+
+        return result.toString();
+    }
+
+    @Test
+    public void testSingleWrite() throws IOException {
+        byte[] bytes = MULTIBYTE_TEXT.getBytes(UTF8);
+        assertEquals(MULTIBYTE_TEXT, writeInChunks(bytes));
+    }
+
+    @Test
+    public void testSplitAtEveryPosition() throws IOException {
+        byte[] bytes = MULTIBYTE_TEXT.getBytes(UTF8);
+        for (int splitPos = 0; splitPos <= bytes.length; splitPos++) {
+            assertEquals("Split at " + splitPos, MULTIBYTE_TEXT, writeInChunks(bytes, splitPos));
+        }
+    }
+
+    @Test
+    public void testSplitTwiceWithinCharacter() throws IOException {
+        byte[] bytes = "\uD83D\uDE00".getBytes(UTF8);
+        assertEquals(4, bytes.length);
+        assertEquals("\uD83D\uDE00", writeInChunks(bytes, 1, 3));
+    }
+
+    @Test
+    public void testWriteByteByByte() throws IOException {
+        byte[] bytes = MULTIBYTE_TEXT.getBytes(UTF8);
+
+        StringWriter result = new StringWriter();
+        WriterOutputStream output = new WriterOutputStream(result, UTF8);
+        for (byte b: bytes) {
+            output.write(b);
+        }
+
+        assertEquals(MULTIBYTE_TEXT, result.toString());
+        output.close();
+    }
+
+    @Test
+    public void testCharsAreForwardedWithoutClose() throws IOException {
+        StringWriter result = new StringWriter();
+        WriterOutputStream output = new WriterOutputStream(result, UTF8);
+
+        byte[] bytes = "abc\u20AC".getBytes(UTF8);
+        output.write(bytes, 0, bytes.length - 1);
+        assertEquals("abc", result.toString());
+
+        output.write(bytes, bytes.length - 1, 1);
+        assertEquals("abc\u20AC", result.toString());
+    }
+
+    @Test
+    public void testLongInput() throws IOException {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 100 * 1024) {
+            text.append(MULTIBYTE_TEXT);
+        }
+        String expected = text.toString();
+        byte[] bytes = expected.getBytes(UTF8);
+
+        assertEquals(expected, writeInChunks(bytes, 1000, 1001, 50001));
+    }
+
+    @Test
+    public void testIncompleteCharacterAtClose() throws IOException {
+        byte[] bytes = "a\u20AC".getBytes(UTF8);
+        String result = writeInChunks(new byte[]{bytes[0], bytes[1], bytes[2]});
+        assertEquals("a\uFFFD", result);
+    }
+
+    @Test
+    public void testMalformedInputIsReplaced() throws IOException {
+        String result = writeInChunks(new byte[]{'a', (byte)0xFF, 'b'}, 2);
+        assertEquals("a\uFFFDb", result);
+    }
+}
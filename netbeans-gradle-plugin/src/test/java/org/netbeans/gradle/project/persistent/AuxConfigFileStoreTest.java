@@ -0,0 +1,190 @@
+package org.netbeans.gradle.project.persistent;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.netbeans.gradle.project.properties.AuxConfigProperty;
+import org.netbeans.gradle.project.properties.DomElementKey;
+import org.netbeans.gradle.project.properties.DomElementProperty;
+import org.netbeans.gradle.project.properties.SingleStoreAuxConfig;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import static org.junit.Assert.*;
+
+public class AuxConfigFileStoreTest {
+    private static final String NAMESPACE = "http://www.netbeans.org/ns/test-config/1";
+
+    private File tempDir;
+    private TestFallbackStorage fallback;
+    private AuxConfigFileStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        tempDir = File.createTempFile("aux-config-store", "");
+        assertTrue(tempDir.delete());
+        assertTrue(tempDir.mkdir());
+
+        fallback = new TestFallbackStorage();
+        store = new AuxConfigFileStore(tempDir, fallback);
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = tempDir.listFiles();
+        if (files != null) {
+            for (File file: files) {
+                file.delete();
+            }
+        }
+        tempDir.delete();
+    }
+
+    private static Element createElement(String name, String namespace, String content) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        Document document = factory.newDocumentBuilder().newDocument();
+
+        Element result = document.createElementNS(namespace, name);
+        result.setTextContent(content);
+        return result;
+    }
+
+    private static void writeFile(File file, String content) throws IOException {
+        OutputStream output = new FileOutputStream(file);
+        try {
+            output.write(content.getBytes("UTF-8"));
+        } finally {
+            output.close();
+        }
+    }
+
+    @Test
+    public void testFileNameRoundTrip() {
+        DomElementKey[] keys = {
+            new DomElementKey("config-data", NAMESPACE),
+            new DomElementKey("config-data", null),
+            new DomElementKey("name@with.special/chars", "urn:x@y"),
+        };
+
+        for (DomElementKey key: keys) {
+            String fileName = AuxConfigFileStore.getFileName(key);
+            assertEquals(-1, fileName.indexOf('/'));
+            assertEquals(-1, fileName.indexOf(':'));
+            assertEquals(key, AuxConfigFileStore.tryGetKey(fileName));
+        }
+    }
+
+    @Test
+    public void testIgnoresUnknownFiles() {
+        assertNull(AuxConfigFileStore.tryGetKey("readme.txt"));
+        assertNull(AuxConfigFileStore.tryGetKey("no-separator.xml"));
+    }
+
+    @Test
+    public void testReadsFragmentFromFile() throws Exception {
+        DomElementKey key = new DomElementKey("config-data", NAMESPACE);
+        writeFile(new File(tempDir, AuxConfigFileStore.getFileName(key)),
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<config-data xmlns=\"" + NAMESPACE + "\">stored</config-data>\n");
+
+        Element value = store.getAuxConfig(key.getName(), key.getNamespace()).getProperty().getValue();
+        assertNotNull(value);
+        assertEquals("stored", value.getTextContent());
+        assertEquals(NAMESPACE, value.getNamespaceURI());
+        assertEquals(0, fallback.getQueryCount());
+
+        Collection<AuxConfigProperty> allConfigs = store.getAllAuxConfigs();
+        assertEquals(1, allConfigs.size());
+        assertEquals(key, allConfigs.iterator().next().getKey());
+    }
+
+    @Test
+    public void testFallsBackToPreviousStorage() throws Exception {
+        DomElementKey key = new DomElementKey("config-data", NAMESPACE);
+        fallback.getAuxConfig(key.getName(), key.getNamespace()).getProperty()
+                .setValue(createElement(key.getName(), key.getNamespace(), "previous"));
+
+        Element value = store.getAuxConfig(key.getName(), key.getNamespace()).getProperty().getValue();
+        assertNotNull(value);
+        assertEquals("previous", value.getTextContent());
+
+        Set<DomElementKey> keys = new HashSet<DomElementKey>();
+        for (AuxConfigProperty property: store.getAllAuxConfigs()) {
+            keys.add(property.getKey());
+        }
+        assertEquals(1, keys.size());
+        assertTrue(keys.contains(key));
+    }
+
+    @Test
+    public void testFragmentIsLoadedLazily() {
+        store.getAuxConfig("config-data", NAMESPACE);
+        assertEquals(0, fallback.getQueryCount());
+
+        assertNull(store.getAuxConfig("config-data", NAMESPACE).getProperty().getValue());
+        assertEquals(1, fallback.getQueryCount());
+
+        assertNull(store.getAuxConfig("config-data", NAMESPACE).getProperty().getValue());
+        assertEquals(1, fallback.getQueryCount());
+    }
+
+    @Test
+    public void testFlushWritesChangedFragment() throws Exception {
+        DomElementKey key = new DomElementKey("config-data", NAMESPACE);
+        fallback.getAuxConfig(key.getName(), key.getNamespace()).getProperty()
+                .setValue(createElement(key.getName(), key.getNamespace(), "previous"));
+
+        store.getAuxConfig(key.getName(), key.getNamespace()).getProperty()
+                .setValue(createElement(key.getName(), key.getNamespace(), "changed"));
+        assertNull(fallback.getAuxConfig(key.getName(), key.getNamespace()).getProperty().getValue());
+
+        DelayedSaveTask.flushAll(10000);
+        assertTrue(new File(tempDir, AuxConfigFileStore.getFileName(key)).isFile());
+
+        AuxConfigFileStore reopenedStore = new AuxConfigFileStore(tempDir, new TestFallbackStorage());
+        Element value = reopenedStore.getAuxConfig(key.getName(), key.getNamespace()).getProperty().getValue();
+        assertNotNull(value);
+        assertEquals("changed", value.getTextContent());
+    }
+
+    private static final class TestFallbackStorage implements SingleStoreAuxConfig.AuxConfigStorage {
+        private final List<AuxConfigProperty> properties = new ArrayList<AuxConfigProperty>();
+        private int queryCount = 0;
+
+        public synchronized int getQueryCount() {
+            return queryCount;
+        }
+
+        @Override
+        public synchronized AuxConfigProperty getAuxConfig(String elementName, String namespace) {
+            queryCount++;
+
+            DomElementKey key = new DomElementKey(elementName, namespace);
+            for (AuxConfigProperty property: properties) {
+                if (property.getKey().equals(key)) {
+                    return property;
+                }
+            }
+
+            AuxConfigProperty result = new AuxConfigProperty(key, new DomElementProperty());
+            properties.add(result);
+            return result;
+        }
+
+        @Override
+        public synchronized Collection<AuxConfigProperty> getAllAuxConfigs() {
+            return new ArrayList<AuxConfigProperty>(properties);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.netbeans.gradle.project.persistent;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PropertyFileWriterTest {
+    private static final long OLD_LAST_MODIFIED = 1000000000000L;
+
+    private File tempDir;
+
+    @Before
+    public void setUp() throws IOException {
+        tempDir = File.createTempFile("property-file-writer", "");
+        assertTrue(tempDir.delete());
+        assertTrue(tempDir.mkdir());
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = tempDir.listFiles();
+        if (files != null) {
+            for (File file: files) {
+                file.delete();
+            }
+        }
+        tempDir.delete();
+    }
+
+    private static byte[] bytes(String str) throws IOException {
+        return str.getBytes("UTF-8");
+    }
+
+    private static void writeFile(File file, byte[] content) throws IOException {
+        OutputStream output = new FileOutputStream(file);
+        try {
+            output.write(content);
+        } finally {
+            output.close();
+        }
+    }
+
+    private static String readFile(File file) throws IOException {
+        byte[] content = new byte[(int)file.length()];
+        InputStream input = new FileInputStream(file);
+        try {
+            int offset = 0;
+            while (offset < content.length) {
+                int readCount = input.read(content, offset, content.length - offset);
+                assertTrue(readCount > 0);
+                offset += readCount;
+            }
+        } finally {
+            input.close();
+        }
+        return new String(content, "UTF-8");
+    }
+
+    @Test
+    public void testWritesNewFile() throws IOException {
+        File file = new File(tempDir, "properties.xml");
+
+        PropertyFileWriter writer = new PropertyFileWriter(16);
+        assertTrue(writer.writeIfChanged(file, bytes("content")));
+        assertEquals("content", readFile(file));
+        assertEquals(1, tempDir.listFiles().length);
+    }
+
+    @Test
+    public void testSkipsUnchangedContent() throws IOException {
+        File file = new File(tempDir, "properties.xml");
+
+        PropertyFileWriter writer = new PropertyFileWriter(16);
+        assertTrue(writer.writeIfChanged(file, bytes("content")));
+        assertTrue(file.setLastModified(OLD_LAST_MODIFIED));
+        long lastModified = file.lastModified();
+
+        assertFalse(writer.writeIfChanged(file, bytes("content")));
+        assertEquals(lastModified, file.lastModified());
+    }
+
+    @Test
+    public void testSkipsUnchangedContentWrittenByOthers() throws IOException {
+        File file = new File(tempDir, "properties.xml");
+        writeFile(file, bytes("content"));
+        assertTrue(file.setLastModified(OLD_LAST_MODIFIED));
+        long lastModified = file.lastModified();
+
+        PropertyFileWriter writer = new PropertyFileWriter(16);
+        assertFalse(writer.writeIfChanged(file, bytes("content")));
+        assertEquals(lastModified, file.lastModified());
+    }
+
+    @Test
+    public void testWritesChangedContent() throws IOException {
+        File file = new File(tempDir, "properties.xml");
+
+        PropertyFileWriter writer = new PropertyFileWriter(16);
+        assertTrue(writer.writeIfChanged(file, bytes("content1")));
+        assertTrue(writer.writeIfChanged(file, bytes("content2")));
+        assertEquals("content2", readFile(file));
+        assertEquals(1, tempDir.listFiles().length);
+    }
+
+    @Test
+    public void testWritesFileModifiedByOthers() throws IOException {
+        File file = new File(tempDir, "properties.xml");
+
+        PropertyFileWriter writer = new PropertyFileWriter(16);
+        assertTrue(writer.writeIfChanged(file, bytes("content1")));
+
+        writeFile(file, bytes("CONTENT1"));
+        assertTrue(file.setLastModified(OLD_LAST_MODIFIED));
+
+        assertTrue(writer.writeIfChanged(file, bytes("content1")));
+        assertEquals("content1", readFile(file));
+    }
+}
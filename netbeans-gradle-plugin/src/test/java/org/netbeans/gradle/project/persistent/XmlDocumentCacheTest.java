@@ -0,0 +1,128 @@
+package org.netbeans.gradle.project.persistent;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+import static org.junit.Assert.*;
+
+public class XmlDocumentCacheTest {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final int PROJECT_COUNT = 200;
+
+    private File propertiesFile;
+
+    @Before
+    public void setUp() throws IOException {
+        propertiesFile = File.createTempFile("nb-gradle-properties", ".xml");
+        writeProperties("1.7");
+    }
+
+    @After
+    public void tearDown() {
+        propertiesFile.delete();
+    }
+
+    private void writeProperties(String sourceLevel) throws IOException {
+        String content = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<gradle-project-properties><source-level>" + sourceLevel + "</source-level></gradle-project-properties>\n";
+        OutputStream output = new FileOutputStream(propertiesFile);
+        try {
+            output.write(content.getBytes(UTF8));
+        } finally {
+            output.close();
+        }
+    }
+
+    private static String getSourceLevel(Document document) {
+        synchronized (document) {
+            return document.getElementsByTagName("source-level").item(0).getTextContent();
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testSharedFileIsParsedOnceForManyProjects() throws Exception {
+        CountingLoader loader = new CountingLoader();
+        final XmlDocumentCache cache = new XmlDocumentCache(loader, 16);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<Future<String>>(PROJECT_COUNT);
+            for (int i = 0; i < PROJECT_COUNT; i++) {
+                results.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        return getSourceLevel(cache.getDocument(propertiesFile));
+                    }
+                }));
+            }
+
+            for (Future<String> result: results) {
+                assertEquals("1.7", result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, loader.loadCount.get());
+    }
+
+    @Test
+    public void testInvalidatedFileIsParsedAgain() throws Exception {
+        CountingLoader loader = new CountingLoader();
+        XmlDocumentCache cache = new XmlDocumentCache(loader, 16);
+
+        assertEquals("1.7", getSourceLevel(cache.getDocument(propertiesFile)));
+
+        writeProperties("1.8");
+        cache.invalidate(propertiesFile);
+
+        assertEquals("1.8", getSourceLevel(cache.getDocument(propertiesFile)));
+        assertEquals(2, loader.loadCount.get());
+    }
+
+    @Test
+    public void testModifiedFileIsParsedAgain() throws Exception {
+        CountingLoader loader = new CountingLoader();
+        XmlDocumentCache cache = new XmlDocumentCache(loader, 16);
+
+        assertEquals("1.7", getSourceLevel(cache.getDocument(propertiesFile)));
+
+        // The size of the file is changed, so the modification is detected
+        // even if the modification time is not changed.
+        writeProperties("1.8.0");
+
+        assertEquals("1.8.0", getSourceLevel(cache.getDocument(propertiesFile)));
+        assertEquals(2, loader.loadCount.get());
+    }
+
+    private static final class CountingLoader implements XmlDocumentCache.DocumentLoader {
+        public final AtomicInteger loadCount = new AtomicInteger(0);
+
+        @Override
+        public Document load(File file) throws IOException, SAXException {
+            loadCount.incrementAndGet();
+            try {
+                return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file);
+            } catch (ParserConfigurationException ex) {
+                throw new IOException(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.netbeans.gradle.project.properties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentWeakValueMapTest {
+    private static final class CountingFactory implements ConcurrentWeakValueMap.ValueFactory<String, Object> {
+        private final AtomicInteger createCount = new AtomicInteger(0);
+
+        @Override
+        public Object create(String key) {
+            createCount.incrementAndGet();
+            return new Object();
+        }
+
+        public int getCreateCount() {
+            return createCount.get();
+        }
+    }
+
+    @Test
+    public void testPutIfAbsent() {
+        ConcurrentWeakValueMap<String, Object> map = new ConcurrentWeakValueMap<String, Object>();
+        Object value1 = new Object();
+        Object value2 = new Object();
+
+        assertNull(map.get("key"));
+        assertSame(value1, map.putIfAbsent("key", value1));
+        assertSame(value1, map.putIfAbsent("key", value2));
+        assertSame(value1, map.get("key"));
+    }
+
+    @Test
+    public void testGetOrCreateCreatesOnce() {
+        ConcurrentWeakValueMap<String, Object> map = new ConcurrentWeakValueMap<String, Object>();
+        CountingFactory factory = new CountingFactory();
+
+        Object value = map.getOrCreate("key", factory);
+        assertSame(value, map.getOrCreate("key", factory));
+        assertEquals(1, factory.getCreateCount());
+    }
+
+    @Test(timeout = 30000)
+    public void testUnreferencedValuesAreRemoved() throws InterruptedException {
+        ConcurrentWeakValueMap<String, Object> map = new ConcurrentWeakValueMap<String, Object>();
+        map.putIfAbsent("key", new Object());
+
+        while (map.size() > 0) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(map.get("key"));
+    }
+
+    /**
+     * Verifies that concurrent calls create every value only once. This is
+     * not a benchmark: the contention of the map is not measured.
+     */
+    @Test(timeout = 60000)
+    public void testConcurrentGetOrCreate() throws Throwable {
+        final int threadCount = 64;
+        final int keyCount = 300;
+        final int roundCount = 20;
+
+        final ConcurrentWeakValueMap<String, Object> map = new ConcurrentWeakValueMap<String, Object>();
+        final CountingFactory factory = new CountingFactory();
+        final Object[][] results = new Object[threadCount][keyCount];
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        final AtomicReference<Throwable> errorRef = new AtomicReference<Throwable>(null);
+
+        List<Thread> threads = new ArrayList<Thread>(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            final int threadIndex = i;
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startSignal.await();
+                        for (int round = 0; round < roundCount; round++) {
+                            for (int keyIndex = 0; keyIndex < keyCount; keyIndex++) {
+                                // Start with different keys in each thread.
+                                int index = (keyIndex + threadIndex) % keyCount;
+                                Object value = map.getOrCreate("key" + index, factory);
+                                Object prevValue = results[threadIndex][index];
+                                if (prevValue != null && prevValue != value) {
+                                    throw new AssertionError("Value changed for key" + index);
+                                }
+                                results[threadIndex][index] = value;
+                            }
+                        }
+                    } catch (Throwable ex) {
+                        errorRef.compareAndSet(null, ex);
+                    }
+                }
+            }));
+        }
+
+        for (Thread thread: threads) {
+            thread.start();
+        }
+        startSignal.countDown();
+        for (Thread thread: threads) {
+            thread.join();
+        }
+        Throwable error = errorRef.get();
+        if (error != null) {
+            throw error;
+        }
+
+        assertEquals(keyCount, factory.getCreateCount());
+        for (int keyIndex = 0; keyIndex < keyCount; keyIndex++) {
+            for (int threadIndex = 1; threadIndex < threadCount; threadIndex++) {
+                assertSame(results[0][keyIndex], results[threadIndex][keyIndex]);
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package org.netbeans.gradle.project.properties;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.prefs.AbstractPreferences;
+import java.util.prefs.BackingStoreException;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GlobalGradleSettingsTest {
+    private static final Logger LOGGER = Logger.getLogger(GlobalGradleSettingsTest.class.getName());
+
+    private static final String SETTING_NAME = "test-setting";
+
+    private MemPreferences preferences;
+    private CountingConverter converter;
+    private GlobalGradleSettings.GlobalProperty<Integer> property;
+
+    @Before
+    public void setUp() {
+        preferences = new MemPreferences();
+        converter = new CountingConverter();
+        property = new GlobalGradleSettings.GlobalProperty<Integer>(preferences, SETTING_NAME, converter);
+    }
+
+    @Test
+    public void testValueIsParsedOnce() {
+        preferences.put(SETTING_NAME, "42");
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Integer.valueOf(42), property.getValue());
+        }
+        assertEquals(1, converter.getParseCount());
+    }
+
+    @Test
+    public void testSetValueIsVisibleImmediately() {
+        assertEquals(Integer.valueOf(10), property.getValue());
+
+        property.setValue(20);
+        assertEquals(Integer.valueOf(20), property.getValue());
+        assertEquals("20", property.getValueAsString());
+
+        property.setValue(10);
+        assertEquals(Integer.valueOf(10), property.getValue());
+        assertNull(property.getValueAsString());
+    }
+
+    @Test(timeout = 10000)
+    public void testExternalChangeIsNotified() throws InterruptedException {
+        assertEquals(Integer.valueOf(10), property.getValue());
+
+        final CountDownLatch changedSignal = new CountDownLatch(1);
+        property.addChangeListener(new ChangeListener() {
+            @Override
+            public void stateChanged(ChangeEvent e) {
+                changedSignal.countDown();
+            }
+        });
+
+        preferences.put(SETTING_NAME, "30");
+        assertTrue(changedSignal.await(5, TimeUnit.SECONDS));
+        assertEquals(Integer.valueOf(30), property.getValue());
+    }
+
+    @Test
+    public void testSettingChangedForgetsCachedValue() {
+        assertEquals(Integer.valueOf(10), property.getValue());
+        assertEquals(Integer.valueOf(10), property.getValue());
+        assertEquals(1, converter.getParseCount());
+
+        property.settingChanged();
+        assertEquals(Integer.valueOf(10), property.getValue());
+        assertEquals(2, converter.getParseCount());
+    }
+
+    /**
+     * Compares reading the cached value with parsing the stored string on
+     * every read. The results are logged on the FINE level (of the logger of
+     * this class), so they are not printed by default.
+     */
+    @Test
+    public void testReadBenchmark() {
+        final int readCount = 1000000;
+        preferences.put(SETTING_NAME, "42");
+
+        // Warm up, so that the measurement is not dominated by compilation.
+        long checksum = 0;
+        for (int i = 0; i < readCount; i++) {
+            checksum += property.getValue();
+        }
+
+        long cachedStartTime = System.nanoTime();
+        for (int i = 0; i < readCount; i++) {
+            checksum += property.getValue();
+        }
+        long cachedTime = System.nanoTime() - cachedStartTime;
+
+        long parseStartTime = System.nanoTime();
+        for (int i = 0; i < readCount; i++) {
+            checksum += converter.toValue(property.getValueAsString());
+        }
+        long parseTime = System.nanoTime() - parseStartTime;
+
+        assertEquals(3L * readCount * 42, checksum);
+        LOGGER.log(Level.FINE, "GlobalProperty.getValue: {0} ns/read (cached), {1} ns/read (parsing every read)",
+                new Object[]{(double)cachedTime / readCount, (double)parseTime / readCount});
+    }
+
+    private static final class CountingConverter implements GlobalGradleSettings.ValueConverter<Integer> {
+        private final GlobalGradleSettings.IntegerConverter wrapped
+                = new GlobalGradleSettings.IntegerConverter(0, 100, 10);
+        private final AtomicInteger parseCount = new AtomicInteger(0);
+
+        public int getParseCount() {
+            return parseCount.get();
+        }
+
+        @Override
+        public Integer toValue(String strValue) {
+            parseCount.incrementAndGet();
+            return wrapped.toValue(strValue);
+        }
+
+        @Override
+        public String toString(Integer value) {
+            return wrapped.toString(value);
+        }
+    }
+
+    private static final class MemPreferences extends AbstractPreferences {
+        private final Map<String, String> values = new HashMap<String, String>();
+
+        public MemPreferences() {
+            super(null, "");
+        }
+
+        @Override
+        protected void putSpi(String key, String value) {
+            values.put(key, value);
+        }
+
+        @Override
+        protected String getSpi(String key) {
+            return values.get(key);
+        }
+
+        @Override
+        protected void removeSpi(String key) {
+            values.remove(key);
+        }
+
+        @Override
+        protected void removeNodeSpi() throws BackingStoreException {
+            throw new BackingStoreException("Not supported.");
+        }
+
+        @Override
+        protected String[] keysSpi() {
+            return values.keySet().toArray(new String[values.size()]);
+        }
+
+        @Override
+        protected String[] childrenNamesSpi() {
+            return new String[0];
+        }
+
+        @Override
+        protected AbstractPreferences childSpi(String name) {
+            throw new UnsupportedOperationException("Not supported.");
+        }
+
+        @Override
+        protected void syncSpi() {
+        }
+
+        @Override
+        protected void flushSpi() {
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.netbeans.gradle.project.properties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.netbeans.api.java.platform.JavaPlatform;
+import org.netbeans.api.java.platform.Specification;
+import org.openide.modules.SpecificationVersion;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class JavaPlatformRegistryTest {
+    private static final int PLATFORM_COUNT = 48;
+
+    private FakePlatformProvider provider;
+    private JavaPlatformRegistry registry;
+
+    @Before
+    public void setUp() {
+        provider = new FakePlatformProvider();
+        for (int i = 0; i < PLATFORM_COUNT; i++) {
+            provider.addPlatform(i % 2 == 0 ? "j2se" : "j2me", "1." + (i / 2));
+        }
+        registry = new JavaPlatformRegistry(provider);
+    }
+
+    private static JavaPlatform createPlatform(String specName, String version) {
+        JavaPlatform platform = mock(JavaPlatform.class);
+        Specification specification = new Specification(specName, new SpecificationVersion(version));
+        when(platform.getSpecification()).thenReturn(specification);
+        when(platform.getDisplayName()).thenReturn(specName + " " + version);
+        return platform;
+    }
+
+    private static void assertPlatform(String specName, String version, JavaPlatform platform) {
+        assertNotNull(platform);
+        assertTrue(specName.equalsIgnoreCase(platform.getSpecification().getName()));
+        assertEquals(new SpecificationVersion(version), platform.getSpecification().getVersion());
+    }
+
+    @Test
+    public void testFindsExactPlatforms() {
+        for (int i = 0; i < PLATFORM_COUNT / 2; i++) {
+            assertPlatform("j2se", "1." + i, registry.tryFindPlatform("j2se", "1." + i));
+            assertPlatform("j2me", "1." + i, registry.tryFindPlatform("J2ME", "1." + i));
+        }
+        assertEquals(1, provider.getQueryCount());
+    }
+
+    @Test
+    public void testFindsClosestHigherPlatform() {
+        JavaPlatform platform = registry.tryFindPlatform("j2se", "1.5.1");
+        assertPlatform("j2se", "1.6", platform);
+
+        assertSame(platform, registry.tryFindPlatform("j2se", "1.5.1"));
+        assertEquals(1, provider.getQueryCount());
+    }
+
+    @Test
+    public void testInstalledPlatformsAreCached() {
+        assertEquals(PLATFORM_COUNT, registry.getInstalledPlatforms().length);
+        assertEquals(PLATFORM_COUNT, registry.getInstalledPlatforms().length);
+        assertEquals(1, provider.getQueryCount());
+    }
+
+    @Test
+    public void testPlatformChangeInvalidatesCache() {
+        assertPlatform("j2se", "1.23", registry.tryFindPlatform("j2se", "1.30"));
+
+        provider.addPlatform("j2se", "1.30");
+        provider.firePlatformChange();
+
+        assertPlatform("j2se", "1.30", registry.tryFindPlatform("j2se", "1.30"));
+        assertEquals(PLATFORM_COUNT + 1, registry.getInstalledPlatforms().length);
+        assertEquals(2, provider.getQueryCount());
+    }
+
+    private static final class FakePlatformProvider implements JavaPlatformRegistry.PlatformProvider {
+        private final List<JavaPlatform> platforms = new ArrayList<JavaPlatform>();
+        private final List<Runnable> listeners = new ArrayList<Runnable>();
+        private final AtomicInteger queryCount = new AtomicInteger(0);
+
+        public synchronized void addPlatform(String specName, String version) {
+            platforms.add(createPlatform(specName, version));
+        }
+
+        public void firePlatformChange() {
+            List<Runnable> currentListeners;
+            synchronized (this) {
+                currentListeners = new ArrayList<Runnable>(listeners);
+            }
+            for (Runnable listener: currentListeners) {
+                listener.run();
+            }
+        }
+
+        public int getQueryCount() {
+            return queryCount.get();
+        }
+
+        @Override
+        public synchronized JavaPlatform[] getInstalledPlatforms() {
+            queryCount.incrementAndGet();
+            return platforms.toArray(new JavaPlatform[platforms.size()]);
+        }
+
+        @Override
+        public synchronized void addPlatformChangeListener(Runnable listener) {
+            listeners.add(listener);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.netbeans.gradle.project.properties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PropertyTransactionTest {
+    private static final class CountingListener implements ChangeListener {
+        private final AtomicInteger callCount = new AtomicInteger(0);
+
+        @Override
+        public void stateChanged(ChangeEvent e) {
+            callCount.incrementAndGet();
+        }
+
+        public int getCallCount() {
+            return callCount.get();
+        }
+    }
+
+    private static DefaultMutableProperty<String> createProperty() {
+        return new DefaultMutableProperty<String>("", false, true);
+    }
+
+    @Test
+    public void testNotifiesImmediatelyWithoutTransaction() {
+        DefaultMutableProperty<String> property = createProperty();
+        CountingListener listener = new CountingListener();
+        property.addChangeListener(listener);
+
+        property.setValue("value1");
+        assertEquals(1, listener.getCallCount());
+        property.setValue("value2");
+        assertEquals(2, listener.getCallCount());
+    }
+
+    @Test
+    public void testNotifiesOnceAfterCommit() {
+        DefaultMutableProperty<String> property1 = createProperty();
+        DefaultMutableProperty<String> property2 = createProperty();
+        CountingListener listener = new CountingListener();
+        property1.addChangeListener(listener);
+        property2.addChangeListener(listener);
+
+        PropertyTransaction transaction = PropertyTransaction.begin();
+        try {
+            property1.setValue("value1");
+            property2.setValue("value2");
+            property1.setValue("value3");
+
+            assertEquals(0, listener.getCallCount());
+            assertEquals("value3", property1.getValue());
+        } finally {
+            transaction.commit();
+        }
+
+        assertEquals(1, listener.getCallCount());
+    }
+
+    @Test
+    public void testNestedTransactionJoinsOuter() {
+        DefaultMutableProperty<String> property = createProperty();
+        CountingListener listener = new CountingListener();
+        property.addChangeListener(listener);
+
+        PropertyTransaction outer = PropertyTransaction.begin();
+        try {
+            PropertyTransaction inner = PropertyTransaction.begin();
+            try {
+                property.setValue("value1");
+            } finally {
+                inner.commit();
+            }
+            assertEquals(0, listener.getCallCount());
+
+            property.setValue("value2");
+        } finally {
+            outer.commit();
+        }
+
+        assertEquals(1, listener.getCallCount());
+    }
+
+    @Test
+    public void testChangesOfListenersAreNotified() {
+        DefaultMutableProperty<String> property1 = createProperty();
+        final DefaultMutableProperty<String> property2 = createProperty();
+        CountingListener listener = new CountingListener();
+
+        property1.addChangeListener(new ChangeListener() {
+            @Override
+            public void stateChanged(ChangeEvent e) {
+                property2.setValue("changed by listener");
+            }
+        });
+        property1.addChangeListener(listener);
+        property2.addChangeListener(listener);
+
+        PropertyTransaction transaction = PropertyTransaction.begin();
+        try {
+            property1.setValue("value1");
+        } finally {
+            transaction.commit();
+        }
+
+        // Once for property1 and once more for the change of property2 made
+        // while notifying the listeners of property1.
+        assertEquals(2, listener.getCallCount());
+        assertEquals("changed by listener", property2.getValue());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCommitTwiceFails() {
+        PropertyTransaction transaction = PropertyTransaction.begin();
+        transaction.commit();
+        transaction.commit();
+    }
+}
@@ -0,0 +1,101 @@
+package org.netbeans.gradle.project.tasks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BuildEventTest {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private File eventFile;
+
+    @Before
+    public void setUp() throws IOException {
+        eventFile = File.createTempFile("build-events", ".txt");
+    }
+
+    @After
+    public void tearDown() {
+        eventFile.delete();
+    }
+
+    private void append(String content) throws IOException {
+        OutputStream output = new FileOutputStream(eventFile, true);
+        try {
+            output.write(content.getBytes(UTF8));
+        } finally {
+            output.close();
+        }
+    }
+
+    @Test
+    public void testParseTaskEvents() {
+        BuildEvent started = BuildEvent.tryParse("TASK_STARTED\t:sub:compileJava");
+        assertEquals(BuildEvent.Kind.TASK_STARTED, started.getKind());
+        assertEquals(":sub:compileJava", started.getTaskPath());
+
+        BuildEvent finished = BuildEvent.tryParse("TASK_FINISHED\t:sub:test\tFAILED");
+        assertEquals(BuildEvent.Kind.TASK_FINISHED, finished.getKind());
+        assertEquals(":sub:test", finished.getTaskPath());
+        assertEquals("FAILED", finished.getTaskOutcome());
+    }
+
+    @Test
+    public void testParseTestFailure() {
+        BuildEvent event = BuildEvent.tryParse(
+                "TEST_FAILED\torg.test.MyTest\ttestMethod\tjava.lang.AssertionError: a\\tb\\\\c\\nd\t42");
+        assertEquals(BuildEvent.Kind.TEST_FAILED, event.getKind());
+        assertEquals("org.test.MyTest", event.getTestClassName());
+        assertEquals("testMethod", event.getTestName());
+        assertEquals("java.lang.AssertionError: a\tb\\c\nd", event.getTestMessage());
+        assertEquals(42, event.getTestLineNumber());
+    }
+
+    @Test
+    public void testParseInvalidRecords() {
+        assertNull(BuildEvent.tryParse(""));
+        assertNull(BuildEvent.tryParse("UNKNOWN\tx"));
+        assertNull(BuildEvent.tryParse("TASK_STARTED"));
+        assertNull(BuildEvent.tryParse("TEST_FAILED\torg.test.MyTest\ttestMethod"));
+
+        BuildEvent event = BuildEvent.tryParse("TEST_FAILED\tMyTest\ttestMethod\tmessage\tx");
+        assertEquals(-1, event.getTestLineNumber());
+    }
+
+    @Test
+    public void testReaderProcessesOnlyCompleteRecords() throws IOException {
+        final List<BuildEvent> events = new ArrayList<BuildEvent>();
+        BuildEventReader reader = new BuildEventReader(eventFile, new BuildEventListener() {
+            @Override
+            public void onEvent(BuildEvent event) {
+                events.add(event);
+            }
+        });
+
+        reader.readNewEvents();
+        assertTrue(events.isEmpty());
+
+        append("TASK_STARTED\t:a\nTASK_FINISHED\t:a\tEXEC");
+        reader.readNewEvents();
+        assertEquals(1, events.size());
+        assertEquals(":a", events.get(0).getTaskPath());
+
+        append("UTED\nINVALID\nTASK_STARTED\t:\u00E1\n");
+        reader.readNewEvents();
+        assertEquals(3, events.size());
+        assertEquals("EXECUTED", events.get(1).getTaskOutcome());
+        assertEquals(":\u00E1", events.get(2).getTaskPath());
+
+        reader.readNewEvents();
+        assertEquals(3, events.size());
+    }
+}
@@ -0,0 +1,95 @@
+package org.netbeans.gradle.project.tasks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BuildProfileTest {
+    private static BuildProfile parse(String content) throws IOException {
+        return BuildProfile.parse(new StringReader(content));
+    }
+
+    @Test
+    public void testParseAllRecordTypes() throws IOException {
+        BuildProfile profile = parse(
+                "BUILD\t1000\t5000\n"
+                + "CONFIG\t:\t1100\t1300\n"
+                + "TASK\t:compileJava\t1400\t3400\tEXECUTED\n"
+                + "TASK\t:processResources\t3400\t3410\tUP_TO_DATE\n");
+
+        assertEquals(1000, profile.getBuildStartTime());
+        assertEquals(4000, profile.getBuildDurationMillis());
+
+        List<BuildProfile.Entry> entries = profile.getEntries();
+        assertEquals(3, entries.size());
+
+        assertEquals(BuildProfile.EntryKind.CONFIGURATION, entries.get(0).getKind());
+        assertEquals(":", entries.get(0).getName());
+        assertEquals(200, entries.get(0).getDurationMillis());
+
+        assertEquals(BuildProfile.EntryKind.TASK, entries.get(1).getKind());
+        assertEquals(BuildProfile.Outcome.EXECUTED, entries.get(1).getOutcome());
+        assertEquals(BuildProfile.Outcome.UP_TO_DATE, entries.get(2).getOutcome());
+    }
+
+    @Test
+    public void testParseIgnoresInvalidLines() throws IOException {
+        BuildProfile profile = parse(
+                "garbage\n"
+                + "TASK\t:a\tnotANumber\t10\tEXECUTED\n"
+                + "TASK\t:b\t10\t20\tUNKNOWN_OUTCOME\n");
+
+        List<BuildProfile.Entry> entries = profile.getEntries();
+        assertEquals(1, entries.size());
+        assertEquals(":b", entries.get(0).getName());
+        assertEquals(BuildProfile.Outcome.NONE, entries.get(0).getOutcome());
+        assertEquals(10, profile.getBuildStartTime());
+        assertEquals(20, profile.getBuildEndTime());
+    }
+
+    @Test
+    public void testSlowestFirst() throws IOException {
+        BuildProfile profile = parse(
+                "TASK\t:fast\t0\t10\tEXECUTED\n"
+                + "TASK\t:slow\t10\t500\tEXECUTED\n"
+                + "TASK\t:medium\t500\t600\tEXECUTED\n");
+
+        List<BuildProfile.Entry> slowest = profile.getSlowestFirst();
+        assertEquals(":slow", slowest.get(0).getName());
+        assertEquals(":medium", slowest.get(1).getName());
+        assertEquals(":fast", slowest.get(2).getName());
+    }
+
+    @Test
+    public void testChromeTraceSeparatesOverlappingEntries() throws IOException {
+        BuildProfile profile = parse(
+                "BUILD\t100\t400\n"
+                + "TASK\t:a\t100\t300\tEXECUTED\n"
+                + "TASK\t:b\t150\t200\tEXECUTED\n"
+                + "TASK\t:c\t300\t400\tFAILED\n");
+
+        StringWriter output = new StringWriter();
+        profile.writeChromeTrace(output);
+        String trace = output.toString();
+
+        assertTrue(trace.startsWith("{\"traceEvents\":["));
+        assertTrue(trace.contains("{\"name\":\":a\",\"cat\":\"task\",\"ph\":\"X\",\"pid\":1,\"tid\":1,\"ts\":0,\"dur\":200000"));
+        assertTrue(trace.contains("{\"name\":\":b\",\"cat\":\"task\",\"ph\":\"X\",\"pid\":1,\"tid\":2,\"ts\":50000,\"dur\":50000"));
+        assertTrue(trace.contains("{\"name\":\":c\",\"cat\":\"task\",\"ph\":\"X\",\"pid\":1,\"tid\":1,\"ts\":200000"));
+        assertTrue(trace.contains("\"outcome\":\"FAILED\""));
+    }
+
+    @Test
+    public void testChromeTraceEscapesNames() throws IOException {
+        BuildProfile profile = parse("TASK\t:a\"b\\c\t0\t1\tEXECUTED\n");
+
+        StringWriter output = new StringWriter();
+        profile.writeChromeTrace(output);
+
+        assertTrue(output.toString().contains("\"name\":\":a\\\"b\\\\c\""));
+    }
+}
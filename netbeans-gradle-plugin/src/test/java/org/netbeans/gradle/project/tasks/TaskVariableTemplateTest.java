@@ -0,0 +1,108 @@
+package org.netbeans.gradle.project.tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.netbeans.gradle.project.api.task.TaskVariable;
+import org.netbeans.gradle.project.api.task.TaskVariableMap;
+
+import static org.junit.Assert.*;
+
+public class TaskVariableTemplateTest {
+    private static TaskVariableMap variableMap(String... namesAndValues) {
+        final Map<TaskVariable, String> values = new HashMap<TaskVariable, String>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            values.put(new TaskVariable(namesAndValues[i]), namesAndValues[i + 1]);
+        }
+
+        return new TaskVariableMap() {
+            @Override
+            public String tryGetValueForVariable(TaskVariable variable) {
+                return values.get(variable);
+            }
+        };
+    }
+
+    private static List<String> collectVariableNames(TaskVariableTemplate template) {
+        List<DisplayedTaskVariable> variables = new ArrayList<DisplayedTaskVariable>();
+        template.collectVariables(variables);
+
+        List<String> result = new ArrayList<String>(variables.size());
+        for (DisplayedTaskVariable variable: variables) {
+            result.add(variable.getVariable().getVariableName());
+        }
+        return result;
+    }
+
+    @Test
+    public void testNoVariables() {
+        TaskVariableTemplate template = TaskVariableTemplate.compile("clean build -x test");
+
+        assertFalse(template.hasVariables());
+        assertEquals("clean build -x test", template.render(variableMap()));
+        assertEquals(Collections.<String>emptyList(), collectVariableNames(template));
+    }
+
+    @Test
+    public void testLiteralsAroundVariables() {
+        TaskVariableTemplate template = TaskVariableTemplate.compile(
+                "${project}:test --tests ${test-file-path}.*");
+
+        assertTrue(template.hasVariables());
+        assertEquals(":sub:test --tests org/test/MyTest.*", template.render(variableMap(
+                "project", ":sub",
+                "test-file-path", "org/test/MyTest")));
+        assertEquals(Arrays.asList("project", "test-file-path"), collectVariableNames(template));
+    }
+
+    @Test
+    public void testUnknownVariableIsKept() {
+        TaskVariableTemplate template = TaskVariableTemplate.compile("-Pa=${known} -Pb=${unknown}");
+
+        assertEquals("-Pa=VALUE -Pb=${unknown}", template.render(variableMap("known", "VALUE")));
+        assertEquals(Arrays.asList("known", "unknown"), collectVariableNames(template));
+    }
+
+    @Test
+    public void testInvalidReferencesAreLiterals() {
+        String str = "$ ${} ${illegal*name} ${unclosed";
+        TaskVariableTemplate template = TaskVariableTemplate.compile(str);
+
+        assertFalse(template.hasVariables());
+        assertEquals(str, template.render(variableMap()));
+    }
+
+    @Test
+    public void testEscapedDisplayName() {
+        TaskVariableTemplate template = TaskVariableTemplate.compile("A${var1: Display \\} \\\\ name}B");
+
+        List<DisplayedTaskVariable> variables = new ArrayList<DisplayedTaskVariable>();
+        template.collectVariables(variables);
+
+        assertEquals(1, variables.size());
+        assertEquals("Display } \\ name", variables.get(0).getDisplayName());
+        assertEquals("AVALUEB", template.render(variableMap("var1", "VALUE")));
+    }
+
+    @Test
+    public void testDollarBeforeReference() {
+        TaskVariableTemplate template = TaskVariableTemplate.compile("$$${var1}$");
+        assertEquals("$$VALUE$", template.render(variableMap("var1", "VALUE")));
+    }
+
+    @Test
+    public void testValuesAreNotReparsed() {
+        TaskVariableTemplate template = TaskVariableTemplate.compile("${var1}${var2}");
+        assertEquals("${var2}X", template.render(variableMap("var1", "${var2}", "var2", "X")));
+    }
+
+    @Test
+    public void testGetTemplateCaches() {
+        String str = "testGetTemplateCaches ${var1}";
+        assertSame(TaskVariableTemplate.getTemplate(str), TaskVariableTemplate.getTemplate(str));
+    }
+}